@@ -0,0 +1,50 @@
+package com.adesso.urlaubsplanner.benchmark;
+
+import com.adesso.urlaubsplanner.controller.AuditLogController;
+import com.adesso.urlaubsplanner.dto.StatisticsDTO;
+import com.adesso.urlaubsplanner.service.AdminService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Super Manager statistics and audit export
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AdminServiceBenchmark {
+
+    private AdminService adminService;
+    private AuditLogController auditLogController;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        adminService = context.getBean(AdminService.class);
+        auditLogController = context.getBean(AuditLogController.class);
+    }
+
+    @Benchmark
+    public StatisticsDTO systemStatistics() {
+        return adminService.getSystemStatistics();
+    }
+
+    @Benchmark
+    public ResponseEntity<String> auditLogCsvExport() {
+        return auditLogController.exportLogsToCSV();
+    }
+}
@@ -0,0 +1,65 @@
+package com.adesso.urlaubsplanner.benchmark;
+
+import com.adesso.urlaubsplanner.UrlaubsplannerApplication;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+/**
+ * Shared benchmark state: a booted application context on a synthetic organization
+ *
+ * One context per trial and dataset shape, on its own in-memory database,
+ * seeded by the "synthetic" profile (users spread over the given regions, 2 years of history).
+ */
+@State(Scope.Benchmark)
+public class BenchmarkContext {
+
+    @Param({"1000", "10000", "100000"})
+    public int users;
+
+    @Param({"10"})
+    public int regions;
+
+    private ConfigurableApplicationContext context;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(UrlaubsplannerApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=synthetic",
+                "--urlaubsplaner.synthetic.regions=" + regions,
+                "--urlaubsplaner.synthetic.users-per-region=" + users / regions,
+                "--urlaubsplaner.synthetic.years=2",
+                "--urlaubsplaner.synthetic.requests-per-user-per-year=2",
+                "--spring.datasource.url=jdbc:h2:mem:benchmark-" + users + ";DB_CLOSE_DELAY=-1",
+                "--spring.jpa.show-sql=false",
+                "--spring.h2.console.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.com.adesso.urlaubsplanner=WARN",
+                "--logging.level.org.hibernate.SQL=WARN",
+                "--logging.level.org.springframework.security=WARN");
+
+        // Controller endpoints are guarded by method security; benchmark threads act as a super manager
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(
+                new TestingAuthenticationToken("superadmin", null, "ROLE_SUPER_MANAGER"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+}
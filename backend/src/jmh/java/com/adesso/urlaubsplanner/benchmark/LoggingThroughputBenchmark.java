@@ -0,0 +1,90 @@
+package com.adesso.urlaubsplanner.benchmark;
+
+import com.adesso.urlaubsplanner.UrlaubsplannerApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * HTTP request throughput with the previous logging setup ("dev": DEBUG for the
+ * application and Spring Security, synchronous console) versus "prod" (INFO,
+ * async JSON appender)
+ *
+ * Each profile runs in its own fork so logback is configured from scratch.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Threads(8)
+@Fork(1)
+public class LoggingThroughputBenchmark {
+
+    @Param({"dev", "prod"})
+    public String profile;
+
+    private ConfigurableApplicationContext context;
+    private HttpClient httpClient;
+    private HttpRequest healthRequest;
+    private HttpRequest teamRequest;
+
+    @Setup(Level.Trial)
+    public void start() {
+        context = new SpringApplicationBuilder(UrlaubsplannerApplication.class).run(
+                "--server.port=0",
+                "--spring.profiles.active=" + profile,
+                "--spring.datasource.url=jdbc:h2:mem:logging-" + profile + ";DB_CLOSE_DELAY=-1");
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        String credentials = Base64.getEncoder().encodeToString("anna.wagner:password".getBytes(StandardCharsets.UTF_8));
+
+        httpClient = HttpClient.newHttpClient();
+        healthRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/actuator/health")).build();
+        teamRequest = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/manager/team"))
+                .header("Authorization", "Basic " + credentials)
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    /**
+     * Unauthenticated request: security filter chain and request logging only
+     */
+    @Benchmark
+    public int health() throws Exception {
+        return httpClient.send(healthRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+
+    /**
+     * Authenticated read including BCrypt verification and SQL
+     */
+    @Benchmark
+    public int teamMembers() throws Exception {
+        return httpClient.send(teamRequest, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
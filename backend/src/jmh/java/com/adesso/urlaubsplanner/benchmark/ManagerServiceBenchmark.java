@@ -0,0 +1,62 @@
+package com.adesso.urlaubsplanner.benchmark;
+
+import com.adesso.urlaubsplanner.config.SyntheticDataGenerator;
+import com.adesso.urlaubsplanner.dto.TeamCalendarEventDTO;
+import com.adesso.urlaubsplanner.dto.TeamStatisticsDTO;
+import com.adesso.urlaubsplanner.service.ManagerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the manager dashboard hot paths
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ManagerServiceBenchmark {
+
+    private ManagerService managerService;
+    private String manager;
+    private LocalDate calendarStart;
+    private LocalDate calendarEnd;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        managerService = context.getBean(ManagerService.class);
+        manager = SyntheticDataGenerator.managerOf(0);
+        calendarStart = LocalDate.now().withDayOfMonth(1);
+        calendarEnd = calendarStart.plusMonths(1).minusDays(1);
+    }
+
+    @Benchmark
+    public Map<LocalDate, Integer> overloadWarnings() {
+        return managerService.getTeamOverloadWarnings(manager);
+    }
+
+    @Benchmark
+    public List<TeamStatisticsDTO> teamStatistics() {
+        return managerService.getTeamStatistics(manager);
+    }
+
+    @Benchmark
+    public List<TeamCalendarEventDTO> teamCalendar() {
+        return managerService.getTeamCalendar(manager, calendarStart, calendarEnd);
+    }
+}
@@ -0,0 +1,76 @@
+package com.adesso.urlaubsplanner.benchmark;
+
+import com.adesso.urlaubsplanner.dto.TeamStatisticsDTO;
+import com.adesso.urlaubsplanner.model.Region;
+import com.adesso.urlaubsplanner.repository.RegionRepository;
+import com.adesso.urlaubsplanner.service.ManagerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks for the Super Manager per-region views: parallel fan-out against the sequential baseline
+ *
+ * The sequential variants mirror ManagerService.computePerRegion on the calling thread: regions
+ * in name order, one read-only transaction per region. Run with -Djmh.regions=10,50.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RegionFanOutBenchmark {
+
+    private ManagerService managerService;
+    private RegionRepository regionRepository;
+
+    @Setup(Level.Trial)
+    public void setUp(BenchmarkContext context) {
+        managerService = context.getBean(ManagerService.class);
+        regionRepository = context.getBean(RegionRepository.class);
+    }
+
+    @Benchmark
+    public Map<String, List<TeamStatisticsDTO>> teamStatisticsParallel() {
+        return managerService.getTeamStatisticsByRegion();
+    }
+
+    @Benchmark
+    public Map<String, List<TeamStatisticsDTO>> teamStatisticsSequential() {
+        Map<String, List<TeamStatisticsDTO>> results = new LinkedHashMap<>();
+        for (Region region : regionRepository.findAll(Sort.by("name"))) {
+            results.put(region.getName(), managerService.computeTeamStatistics(region.getId()));
+        }
+        return results;
+    }
+
+    @Benchmark
+    public Map<String, Map<LocalDate, Integer>> overloadWarningsParallel() {
+        return managerService.getOverloadWarningsByRegion();
+    }
+
+    @Benchmark
+    public Map<String, Map<LocalDate, Integer>> overloadWarningsSequential() {
+        Map<String, Map<LocalDate, Integer>> results = new LinkedHashMap<>();
+        for (Region region : regionRepository.findAll(Sort.by("name"))) {
+            results.put(region.getName(), managerService.computeOverloadWarnings(region.getId()));
+        }
+        return results;
+    }
+}
@@ -0,0 +1,31 @@
+package com.adesso.urlaubsplanner.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * Counts successful and failed authentications
+ */
+@Component
+@RequiredArgsConstructor
+public class AuthenticationMetrics {
+
+    private static final String METRIC = "urlaubsplaner.authentications";
+
+    private final MeterRegistry meterRegistry;
+
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        meterRegistry.counter(METRIC, "result", "success").increment();
+    }
+
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        meterRegistry.counter(METRIC, "result", "failure",
+                "reason", event.getException().getClass().getSimpleName()).increment();
+    }
+}
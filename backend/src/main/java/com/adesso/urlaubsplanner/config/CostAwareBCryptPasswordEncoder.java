@@ -0,0 +1,34 @@
+package com.adesso.urlaubsplanner.config;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * BCrypt encoder asking for a rehash whenever a stored hash has a different cost than configured
+ *
+ * The stock encoder only upgrades to a higher cost; this one also migrates down,
+ * so the cost can be tuned against the measured verification latency in both directions.
+ */
+public class CostAwareBCryptPasswordEncoder extends BCryptPasswordEncoder {
+
+    private static final Pattern BCRYPT = Pattern.compile("\\A\\$2([ayb])?\\$(\\d\\d)\\$[./0-9A-Za-z]{53}");
+
+    private final int strength;
+
+    public CostAwareBCryptPasswordEncoder(int strength) {
+        super(strength);
+        this.strength = strength;
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT.matcher(encodedPassword);
+        // Hashes this encoder cannot read are left to the verification to reject
+        return matcher.matches() && Integer.parseInt(matcher.group(2)) != strength;
+    }
+}
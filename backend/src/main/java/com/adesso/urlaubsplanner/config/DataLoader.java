@@ -6,39 +6,45 @@ import com.adesso.urlaubsplanner.model.User;
 import com.adesso.urlaubsplanner.repository.RegionRepository;
 import com.adesso.urlaubsplanner.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
+import java.util.List;
+
 /**
  * Data loader to preload demo users and regions into the database
+ *
+ * Can be switched off with urlaubsplaner.demo-data.enabled=false. The BCrypt hashes of
+ * the new users are computed in parallel and the users saved in one batch.
  */
+@Slf4j
 @Component
+@ConditionalOnProperty(name = "urlaubsplaner.demo-data.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class DataLoader implements CommandLineRunner {
 
+    private static final String DEMO_PASSWORD = "password";
+
     private final UserRepository userRepository;
     private final RegionRepository regionRepository;
     private final PasswordEncoder passwordEncoder;
+    private final List<User> newUsers = new ArrayList<>();
 
     @Override
     public void run(String... args) {
-        System.out.println("========================================");
-        System.out.println("🚀 Loading Demo Data (Regions & Users)...");
-        System.out.println("========================================");
-        
+        log.info("Loading demo data (regions & users)...");
+
         // ===== CREATE REGIONS =====
         Region dortmund = createRegionIfNotExists("Dortmund", "Dortmund");
         Region munich = createRegionIfNotExists("München", "München");
         Region hamburg = createRegionIfNotExists("Hamburg", "Hamburg");
-        
-        System.out.println("\n📍 Regions created:");
-        System.out.println("  ✓ Dortmund");
-        System.out.println("  ✓ München");
-        System.out.println("  ✓ Hamburg");
-        
+        log.info("Regions created: Dortmund, München, Hamburg");
+
         // ===== EMPLOYEES (assigned to different regions) =====
-        System.out.println("\n👥 Creating Users:");
         createUserIfNotExists("max.mustermann", "Max Mustermann", Role.EMPLOYEE, 30, 0, dortmund);
         createUserIfNotExists("sarah.mueller", "Sarah Müller", Role.EMPLOYEE, 30, 5, dortmund);
         createUserIfNotExists("thomas.schmidt", "Thomas Schmidt", Role.EMPLOYEE, 30, 10, munich);
@@ -57,27 +63,13 @@ public class DataLoader implements CommandLineRunner {
         
         // ===== SUPER MANAGER (sees all regions) =====
         createUserIfNotExists("admin", "System Administrator", Role.SUPER_MANAGER, 30, 0, null);
-        
-        System.out.println("\n========================================");
-        System.out.println("✅ All demo data loaded successfully!");
-        System.out.println("========================================");
-        System.out.println("\n📋 Demo Credentials:");
-        System.out.println("----------------------------------------");
-        System.out.println("EMPLOYEES:");
-        System.out.println("  🔹 Dortmund:");
-        System.out.println("    • max.mustermann / password");
-        System.out.println("    • sarah.mueller / password");
-        System.out.println("  🔹 München:");
-        System.out.println("    • thomas.schmidt / password");
-        System.out.println("    • lisa.weber / password");
-        System.out.println("  🔹 Hamburg:");
-        System.out.println("    • peter.schneider / password");
-        System.out.println("\nMANAGERS:");
-        System.out.println("  🔹 anna.wagner / password (Dortmund Region)");
-        System.out.println("  🔹 michael.klein / password (München Region)");
-        System.out.println("\nSUPER MANAGER:");
-        System.out.println("  🔹 admin / password (All Regions + Full Admin Access)");
-        System.out.println("========================================\n");
+
+        saveNewUsers();
+
+        log.info("Demo data loaded. All demo users log in with password 'password': "
+                + "employees max.mustermann, sarah.mueller (Dortmund), thomas.schmidt, lisa.weber (München), "
+                + "peter.schneider (Hamburg); managers anna.wagner (Dortmund), michael.klein (München); "
+                + "super manager admin (all regions)");
     }
     
     private Region createRegionIfNotExists(String name, String city) {
@@ -93,16 +85,23 @@ public class DataLoader implements CommandLineRunner {
         if (!userRepository.existsByUsername(username)) {
             User user = new User();
             user.setUsername(username);
-            user.setPassword(passwordEncoder.encode("password"));
             user.setFullName(fullName);
             user.setRole(role);
             user.setTotalVacationDays(totalDays);
             user.setUsedVacationDays(usedDays);
             user.setRegion(region);
-            userRepository.save(user);
+            newUsers.add(user);
             String regionInfo = region != null ? " (" + region.getName() + ")" : " (Global)";
-            System.out.println(String.format("  ✓ Created %s: %s - %s%s", 
-                role.name(), username, fullName, regionInfo));
+            log.debug("Created {}: {} - {}{}", role.name(), username, fullName, regionInfo);
         }
     }
+
+    /**
+     * Hash the passwords in parallel (on the bounded hashing pool) and save all new users at once
+     */
+    private void saveNewUsers() {
+        newUsers.parallelStream().forEach(user -> user.setPassword(passwordEncoder.encode(DEMO_PASSWORD)));
+        userRepository.saveAll(newUsers);
+        newUsers.clear();
+    }
 }
@@ -0,0 +1,476 @@
+package com.adesso.urlaubsplanner.config;
+
+import com.adesso.urlaubsplanner.dto.VacationRequestDTO;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Flow;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Embedded HTTP load test (profile "loadtest", which includes "synthetic")
+ *
+ * Once the server is up, worker threads replay a weighted mix of employee submits,
+ * manager approvals and dashboard reads against the REST API as the synthetic users.
+ * After the warm-up phase latencies are recorded per endpoint; the report lists
+ * throughput, status classes and latency percentiles. The report header names the
+ * server's thread mode, so a run with the "virtual" profile can be compared to one without
+ * (see application-loadtest.properties).
+ *
+ * With urlaubsplaner.loadtest.sse-subscribers above zero, that many manager event streams are
+ * opened before the workers start and held during the run. The report then adds the delivery
+ * latency of the events (from the change to its arrival at the client), streams closed by the
+ * server, reset events, and subscribers whose slowest delivery exceeded the slow threshold.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+@RequiredArgsConstructor
+public class LoadTestRunner {
+
+    private static final long WORKER_STACK_SIZE = 256 * 1024;
+    // Streams authenticating at once; each one costs a BCrypt check on the hashing pool
+    private static final int STREAM_OPEN_CONCURRENCY = 32;
+
+    private final ApplicationContext applicationContext;
+    private final ObjectMapper objectMapper;
+
+    @Value("${urlaubsplaner.loadtest.concurrency:16}")
+    private int concurrency;
+
+    @Value("${urlaubsplaner.loadtest.warmup-seconds:10}")
+    private int warmupSeconds;
+
+    @Value("${urlaubsplaner.loadtest.duration-seconds:60}")
+    private int durationSeconds;
+
+    @Value("${urlaubsplaner.loadtest.weight.submit:20}")
+    private int submitWeight;
+
+    @Value("${urlaubsplaner.loadtest.weight.approve:10}")
+    private int approveWeight;
+
+    @Value("${urlaubsplaner.loadtest.weight.read:70}")
+    private int readWeight;
+
+    @Value("${urlaubsplaner.loadtest.sse-subscribers:0}")
+    private int sseSubscribers;
+
+    @Value("${urlaubsplaner.loadtest.sse-slow-ms:1000}")
+    private long sseSlowMillis;
+
+    @Value("${urlaubsplaner.loadtest.exit-on-completion:true}")
+    private boolean exitOnCompletion;
+
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${urlaubsplaner.synthetic.regions:10}")
+    private int regions;
+
+    @Value("${urlaubsplaner.synthetic.users-per-region:100}")
+    private int usersPerRegion;
+
+    private final Map<String, EndpointStats> stats = new ConcurrentHashMap<>();
+    private final Map<Integer, Queue<Long>> pendingByRegion = new ConcurrentHashMap<>();
+    private final List<EventStreamSubscriber> eventStreams = new ArrayList<>();
+    private final AtomicInteger streamsOpened = new AtomicInteger();
+    private final AtomicInteger streamsFailed = new AtomicInteger();
+    private final AtomicInteger streamsDropped = new AtomicInteger();
+    private final AtomicInteger streamResets = new AtomicInteger();
+    private HttpClient httpClient;
+    private String baseUrl;
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        int port = ((WebServerApplicationContext) applicationContext).getWebServer().getPort();
+        baseUrl = "http://localhost:" + port;
+        httpClient = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        Thread coordinator = new Thread(this::run, "loadtest-coordinator");
+        coordinator.setDaemon(true);
+        coordinator.start();
+    }
+
+    private void run() {
+        log.info("Load test: {} workers, {} s warm-up, {} s measurement against {} ({} server threads)",
+                concurrency, warmupSeconds, durationSeconds, baseUrl, threadMode());
+        try {
+            openEventStreams();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < concurrency; i++) {
+            // Small stacks, so a few thousand simulated clients fit on Java 17 platform threads
+            Thread worker = new Thread(null, this::work, "loadtest-worker-" + i, WORKER_STACK_SIZE);
+            worker.setDaemon(true);
+            workers.add(worker);
+            worker.start();
+        }
+
+        long measuredNanos;
+        try {
+            TimeUnit.SECONDS.sleep(warmupSeconds);
+            stats.clear();
+            recording = true;
+            long measurementStart = System.nanoTime();
+            TimeUnit.SECONDS.sleep(durationSeconds);
+            recording = false;
+            measuredNanos = System.nanoTime() - measurementStart;
+            running = false;
+            for (Thread worker : workers) {
+                worker.join(TimeUnit.SECONDS.toMillis(30));
+            }
+            eventStreams.forEach(EventStreamSubscriber::cancel);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+
+        report(measuredNanos);
+        if (exitOnCompletion) {
+            System.exit(SpringApplication.exit(applicationContext, () -> 0));
+        }
+    }
+
+    /**
+     * Open the manager event streams, spread over the regions, and wait until all are connected
+     */
+    private void openEventStreams() throws InterruptedException {
+        if (sseSubscribers <= 0) {
+            return;
+        }
+        CountDownLatch connected = new CountDownLatch(sseSubscribers);
+        Semaphore opening = new Semaphore(STREAM_OPEN_CONCURRENCY);
+        for (int i = 0; i < sseSubscribers; i++) {
+            opening.acquire();
+            String manager = SyntheticDataGenerator.managerOf(i % regions);
+            String credentials = manager + ":" + SyntheticDataGenerator.PASSWORD;
+            HttpRequest request = HttpRequest.newBuilder(uri("/api/manager/team/events"))
+                    .header("Accept", "text/event-stream")
+                    .header("Authorization", "Basic " + Base64.getEncoder()
+                            .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                    .timeout(Duration.ofSeconds(60))
+                    .GET()
+                    .build();
+            EventStreamSubscriber subscriber = new EventStreamSubscriber();
+            eventStreams.add(subscriber);
+            AtomicBoolean answered = new AtomicBoolean();
+            httpClient.sendAsync(request, responseInfo -> {
+                        answered.set(true);
+                        opening.release();
+                        if (responseInfo.statusCode() != 200) {
+                            streamsFailed.incrementAndGet();
+                            connected.countDown();
+                            return HttpResponse.BodySubscribers.discarding();
+                        }
+                        streamsOpened.incrementAndGet();
+                        connected.countDown();
+                        return HttpResponse.BodySubscribers.fromLineSubscriber(subscriber);
+                    })
+                    .exceptionally(e -> {
+                        if (!answered.get()) {
+                            opening.release();
+                            streamsFailed.incrementAndGet();
+                            connected.countDown();
+                        }
+                        return null;
+                    });
+        }
+        if (!connected.await(60, TimeUnit.SECONDS)) {
+            log.warn("Load test: only {} of {} event streams connected", streamsOpened.get(), sseSubscribers);
+        }
+        log.info("Load test: {} event streams open, {} failed", streamsOpened.get(), streamsFailed.get());
+    }
+
+    private void work() {
+        int totalWeight = submitWeight + approveWeight + readWeight;
+        while (running) {
+            int roll = ThreadLocalRandom.current().nextInt(totalWeight);
+            int region = ThreadLocalRandom.current().nextInt(regions);
+            try {
+                if (roll < submitWeight) {
+                    submit(region);
+                } else if (roll < submitWeight + approveWeight) {
+                    approve(region);
+                } else {
+                    read(region);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                stats("transport").record(0, -1);
+            }
+        }
+    }
+
+    /**
+     * Employee submits a short absence in the future; created ids feed the approval scenario
+     */
+    private void submit(int region) throws Exception {
+        String employee = SyntheticDataGenerator.employeeOf(region, ThreadLocalRandom.current().nextInt(usersPerRegion));
+        LocalDate start = LocalDate.now().plusDays(30 + ThreadLocalRandom.current().nextInt(300));
+        AbsenceType type = ThreadLocalRandom.current().nextBoolean() ? AbsenceType.VACATION : AbsenceType.HOME_OFFICE;
+        VacationRequestDTO dto = new VacationRequestDTO(employee, start,
+                start.plusDays(ThreadLocalRandom.current().nextInt(3)), type, "Lasttest", null);
+
+        HttpResponse<String> response = send("POST /api/vacations", employee, HttpRequest.newBuilder(uri("/api/vacations"))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(dto))));
+        if (response.statusCode() == 201) {
+            long id = objectMapper.readTree(response.body()).get("id").asLong();
+            pendingByRegion.computeIfAbsent(region, key -> new ConcurrentLinkedQueue<>()).add(id);
+        }
+    }
+
+    /**
+     * Manager approves a request submitted during the run, or reads the dashboard if none is pending
+     */
+    private void approve(int region) throws Exception {
+        Long id = pendingByRegion.computeIfAbsent(region, key -> new ConcurrentLinkedQueue<>()).poll();
+        if (id == null) {
+            read(region);
+            return;
+        }
+        send("PUT /api/vacations/{id}/approve", SyntheticDataGenerator.managerOf(region),
+                HttpRequest.newBuilder(uri("/api/vacations/" + id + "/approve?reason=Lasttest"))
+                        .PUT(HttpRequest.BodyPublishers.noBody()));
+    }
+
+    private void read(int region) throws Exception {
+        String manager = SyntheticDataGenerator.managerOf(region);
+        switch (ThreadLocalRandom.current().nextInt(5)) {
+            case 0 -> get("GET /api/manager/team/statistics", manager, "/api/manager/team/statistics");
+            case 1 -> get("GET /api/manager/team/calendar", manager, "/api/manager/team/calendar");
+            case 2 -> get("GET /api/manager/team/overload", manager, "/api/manager/team/overload");
+            case 3 -> get("GET /api/vacations", manager, "/api/vacations");
+            default -> {
+                String employee = SyntheticDataGenerator.employeeOf(region,
+                        ThreadLocalRandom.current().nextInt(usersPerRegion));
+                get("GET /api/vacations/employee/{name}", employee, "/api/vacations/employee/" + employee);
+            }
+        }
+    }
+
+    private void get(String endpoint, String username, String path) throws Exception {
+        send(endpoint, username, HttpRequest.newBuilder(uri(path)).GET());
+    }
+
+    private HttpResponse<String> send(String endpoint, String username, HttpRequest.Builder builder) throws Exception {
+        String credentials = username + ":" + SyntheticDataGenerator.PASSWORD;
+        HttpRequest request = builder
+                .header("Authorization", "Basic " + Base64.getEncoder()
+                        .encodeToString(credentials.getBytes(StandardCharsets.UTF_8)))
+                .timeout(Duration.ofSeconds(30))
+                .build();
+        long started = System.nanoTime();
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        stats(endpoint).record(System.nanoTime() - started, response.statusCode());
+        return response;
+    }
+
+    private String threadMode() {
+        return virtualThreads ? "virtual" : "platform";
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    private EndpointStats stats(String endpoint) {
+        return stats.computeIfAbsent(endpoint, key -> new EndpointStats());
+    }
+
+    private void report(long measuredNanos) {
+        double seconds = measuredNanos / 1_000_000_000.0;
+        StringBuilder report = new StringBuilder(String.format(
+                "%nLoad test results (%d workers, %.0f s, %s server threads)%n%-36s %8s %8s %6s %6s %6s %9s %9s %9s %9s%n",
+                concurrency, seconds, threadMode(), "Endpoint", "Requests", "Req/s", "2xx", "4xx", "Error",
+                "p50 ms", "p95 ms", "p99 ms", "Max ms"));
+        stats.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey())
+                .forEach(entry -> entry.getValue().appendTo(report, entry.getKey(), seconds));
+        if (sseSubscribers > 0) {
+            long slow = eventStreams.stream().filter(stream -> stream.maxLatencyMillis() > sseSlowMillis).count();
+            report.append(String.format(
+                    "Event streams: %d requested, %d opened, %d failed, %d dropped by server, %d resets, "
+                            + "%d slow (delivery > %d ms)%n",
+                    sseSubscribers, streamsOpened.get(), streamsFailed.get(), streamsDropped.get(),
+                    streamResets.get(), slow, sseSlowMillis));
+        }
+        log.info(report.toString());
+    }
+
+    /**
+     * Client side of one manager event stream
+     *
+     * Parses the text/event-stream lines and records, for every vacation event, the time from
+     * the change (occurredAt) to its arrival. Server and client share the clock, as both run in
+     * this JVM.
+     */
+    private class EventStreamSubscriber implements Flow.Subscriber<String> {
+
+        private volatile Flow.Subscription subscription;
+        private volatile long maxLatencyMillis;
+        private String eventName;
+        private final StringBuilder data = new StringBuilder();
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            subscription.request(Long.MAX_VALUE);
+        }
+
+        @Override
+        public void onNext(String line) {
+            if (line.isEmpty()) {
+                dispatch();
+            } else if (line.startsWith("event:")) {
+                eventName = line.substring(6).trim();
+            } else if (line.startsWith("data:")) {
+                data.append(line.substring(5).trim());
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            closedByServer();
+        }
+
+        @Override
+        public void onComplete() {
+            closedByServer();
+        }
+
+        long maxLatencyMillis() {
+            return maxLatencyMillis;
+        }
+
+        void cancel() {
+            Flow.Subscription current = subscription;
+            if (current != null) {
+                current.cancel();
+            }
+        }
+
+        private void dispatch() {
+            if ("reset".equals(eventName)) {
+                streamResets.incrementAndGet();
+            } else if ("vacation".equals(eventName) && data.length() > 0) {
+                try {
+                    long occurredAt = objectMapper.readTree(data.toString()).path("occurredAt").asLong();
+                    long latency = Math.max(0, System.currentTimeMillis() - occurredAt);
+                    if (recording && latency > maxLatencyMillis) {
+                        maxLatencyMillis = latency;
+                    }
+                    stats("SSE vacation event delivery").record(TimeUnit.MILLISECONDS.toNanos(latency), 200);
+                } catch (Exception e) {
+                    stats("SSE vacation event delivery").record(0, -1);
+                }
+            }
+            eventName = null;
+            data.setLength(0);
+        }
+
+        private void closedByServer() {
+            if (running) {
+                streamsDropped.incrementAndGet();
+            }
+        }
+    }
+
+    /**
+     * Latency samples and status classes of one endpoint
+     */
+    private class EndpointStats {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private long[] latencies = new long[1024];
+        private int count;
+        private int success;
+        private int clientErrors;
+        private int errors;
+
+        void record(long nanos, int status) {
+            if (!recording) {
+                return;
+            }
+            lock.lock();
+            try {
+                if (count == latencies.length) {
+                    latencies = Arrays.copyOf(latencies, count * 2);
+                }
+                latencies[count++] = nanos;
+                if (status >= 200 && status < 400) {
+                    success++;
+                } else if (status >= 400 && status < 500) {
+                    clientErrors++;
+                } else {
+                    errors++;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        void appendTo(StringBuilder report, String endpoint, double seconds) {
+            lock.lock();
+            try {
+                long[] sorted = Arrays.copyOf(latencies, count);
+                Arrays.sort(sorted);
+                report.append(String.format("%-36s %8d %8.1f %6d %6d %6d %9.1f %9.1f %9.1f %9.1f%n",
+                        endpoint, count, count / seconds, success, clientErrors, errors,
+                        percentile(sorted, 50), percentile(sorted, 95), percentile(sorted, 99),
+                        percentile(sorted, 100)));
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        /**
+         * Nearest-rank percentile in milliseconds
+         */
+        private double percentile(long[] sorted, int percentile) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)] / 1_000_000.0;
+        }
+    }
+}
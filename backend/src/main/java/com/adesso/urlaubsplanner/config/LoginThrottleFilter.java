@@ -0,0 +1,67 @@
+package com.adesso.urlaubsplanner.config;
+
+import com.adesso.urlaubsplanner.service.LoginThrottleService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Rejects requests carrying credentials with 429 while their client IP or username is throttled
+ *
+ * Runs ahead of the security filter chain, so throttled attempts never reach BCrypt.
+ * The username of the login endpoint is in the body and is checked by AuthService.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 20)
+@RequiredArgsConstructor
+public class LoginThrottleFilter extends OncePerRequestFilter {
+
+    private static final String BASIC = "basic ";
+    private static final String LOGIN_PATH = "/api/auth/login";
+
+    private final LoginThrottleService loginThrottleService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String username = basicUsername(request.getHeader(HttpHeaders.AUTHORIZATION));
+        if (username != null || LOGIN_PATH.equals(request.getRequestURI())) {
+            long retryAfter = loginThrottleService.retryAfterSeconds(username, LoginThrottleService.clientIpOf(request));
+            if (retryAfter > 0) {
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Username of a Basic Authorization header, or null if there is none (malformed headers are left to Spring Security)
+     */
+    private static String basicUsername(String header) {
+        if (header == null || !header.regionMatches(true, 0, BASIC, 0, BASIC.length())) {
+            return null;
+        }
+        try {
+            String credentials = new String(Base64.getDecoder().decode(header.substring(BASIC.length()).trim()),
+                    StandardCharsets.UTF_8);
+            int colon = credentials.indexOf(':');
+            return colon > 0 ? credentials.substring(0, colon) : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
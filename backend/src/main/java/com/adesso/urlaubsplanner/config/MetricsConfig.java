@@ -0,0 +1,60 @@
+package com.adesso.urlaubsplanner.config;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Micrometer configuration
+ * Regions are created at runtime, so the number of region tag values is capped: the first
+ * regions seen keep their own series, all further regions are counted under "other".
+ */
+@Configuration
+public class MetricsConfig {
+
+    static final String REGION_TAG = "region";
+    static final String OTHER_REGION = "other";
+
+    @Bean
+    public MeterFilter regionTagLimit(@Value("${urlaubsplaner.metrics.max-region-tags:100}") int maxRegionTags) {
+        return new RegionTagLimit(maxRegionTags);
+    }
+
+    static class RegionTagLimit implements MeterFilter {
+
+        private final int maxRegionTags;
+        private final Set<String> admitted = new HashSet<>();
+        private final ReentrantLock lock = new ReentrantLock();
+
+        RegionTagLimit(int maxRegionTags) {
+            this.maxRegionTags = maxRegionTags;
+        }
+
+        @Override
+        public Meter.Id map(Meter.Id id) {
+            String region = id.getTag(REGION_TAG);
+            if (region == null || !id.getName().startsWith("urlaubsplaner.") || admit(region)) {
+                return id;
+            }
+            return id.replaceTags(id.getTags().stream()
+                    .map(tag -> REGION_TAG.equals(tag.getKey()) ? Tag.of(REGION_TAG, OTHER_REGION) : tag)
+                    .toList());
+        }
+
+        private boolean admit(String region) {
+            lock.lock();
+            try {
+                return admitted.contains(region) || (admitted.size() < maxRegionTags && admitted.add(region));
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+}
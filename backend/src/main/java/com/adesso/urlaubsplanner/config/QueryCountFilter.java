@@ -0,0 +1,62 @@
+package com.adesso.urlaubsplanner.config;
+
+import com.adesso.urlaubsplanner.service.QueryDiagnosticsService;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+
+/**
+ * Records the number of database statements per HTTP request
+ * and hands them to the query diagnostics
+ *
+ * Runs ahead of the security filter chain so the user lookup of Basic auth is included.
+ * Tagged with the matched URI pattern, like http.server.requests.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@RequiredArgsConstructor
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private final MeterRegistry meterRegistry;
+    private final QueryDiagnosticsService queryDiagnosticsService;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        QueryInspectionListener.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestQueries queries = QueryInspectionListener.end();
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String uri = pattern != null ? pattern.toString() : "UNKNOWN";
+            DistributionSummary.builder("urlaubsplaner.http.requests.queries")
+                    .description("JDBC statements executed per HTTP request")
+                    .baseUnit("statements")
+                    .tag("method", request.getMethod())
+                    .tag("uri", uri)
+                    .register(meterRegistry)
+                    .record(queries.getStatements());
+            queryDiagnosticsService.record(request.getMethod(), uri, queries);
+        }
+    }
+
+    /**
+     * Long-lived event streams would hold a counter for their whole lifetime
+     */
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return true;
+    }
+}
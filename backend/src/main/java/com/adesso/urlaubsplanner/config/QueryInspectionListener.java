@@ -0,0 +1,45 @@
+package com.adesso.urlaubsplanner.config;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.util.List;
+
+/**
+ * Inspects JDBC statements executed by the current thread between begin() and end()
+ *
+ * Threads that did not call begin() (startup, scheduled jobs) are not inspected.
+ */
+public class QueryInspectionListener implements QueryExecutionListener {
+
+    private static final ThreadLocal<RequestQueries> CURRENT = new ThreadLocal<>();
+
+    /**
+     * Start inspecting statements on the current thread
+     */
+    public static void begin() {
+        CURRENT.set(new RequestQueries());
+    }
+
+    /**
+     * Stop inspecting and return what was executed since begin()
+     */
+    public static RequestQueries end() {
+        RequestQueries queries = CURRENT.get();
+        CURRENT.remove();
+        return queries != null ? queries : new RequestQueries();
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        RequestQueries queries = CURRENT.get();
+        if (queries != null) {
+            queries.record(execInfo.getElapsedTime(), queryInfoList);
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.adesso.urlaubsplanner.config;
+
+import net.ttddyy.dsproxy.QueryInfo;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Statements executed while handling one HTTP request
+ *
+ * Statements are grouped by fingerprint: the SQL with literals and IN lists
+ * collapsed, so the same query with different parameters maps to one entry.
+ */
+public class RequestQueries {
+
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final int MAX_FINGERPRINT_LENGTH = 500;
+
+    private final Map<String, Integer> executionsByFingerprint = new HashMap<>();
+    private int statements;
+    private long sqlMillis;
+    private long slowestMillis;
+    private String slowestFingerprint;
+
+    void record(long elapsedMillis, List<QueryInfo> queryInfoList) {
+        statements++;
+        sqlMillis += elapsedMillis;
+        for (QueryInfo queryInfo : queryInfoList) {
+            String fingerprint = fingerprint(queryInfo.getQuery());
+            executionsByFingerprint.merge(fingerprint, 1, Integer::sum);
+            if (elapsedMillis >= slowestMillis) {
+                slowestMillis = elapsedMillis;
+                slowestFingerprint = fingerprint;
+            }
+        }
+    }
+
+    /**
+     * Normalize a statement so executions with different parameters compare equal
+     */
+    public static String fingerprint(String sql) {
+        String normalized = STRING_LITERAL.matcher(sql).replaceAll("?");
+        normalized = NUMBER_LITERAL.matcher(normalized).replaceAll("?");
+        normalized = IN_LIST.matcher(normalized).replaceAll("(?)");
+        normalized = WHITESPACE.matcher(normalized).replaceAll(" ").trim();
+        return normalized.length() > MAX_FINGERPRINT_LENGTH
+                ? normalized.substring(0, MAX_FINGERPRINT_LENGTH) + "..."
+                : normalized;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getSqlMillis() {
+        return sqlMillis;
+    }
+
+    public long getSlowestMillis() {
+        return slowestMillis;
+    }
+
+    public String getSlowestFingerprint() {
+        return slowestFingerprint;
+    }
+
+    public Map<String, Integer> getExecutionsByFingerprint() {
+        return executionsByFingerprint;
+    }
+}
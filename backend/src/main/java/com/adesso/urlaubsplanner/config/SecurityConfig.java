@@ -1,9 +1,13 @@
 package com.adesso.urlaubsplanner.config;
 
 import com.adesso.urlaubsplanner.service.CustomUserDetailsService;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
@@ -11,9 +15,10 @@ import org.springframework.security.config.annotation.method.configuration.Enabl
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.AuthenticationEntryPoint;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.authentication.www.BasicAuthenticationEntryPoint;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -32,16 +37,38 @@ public class SecurityConfig {
 
     private final CustomUserDetailsService userDetailsService;
 
+    @Value("${urlaubsplaner.password.bcrypt-strength:10}")
+    private int bcryptStrength;
+
+    @Value("${urlaubsplaner.password.hashing.threads:0}")
+    private int hashingThreads;
+
+    @Value("${urlaubsplaner.password.hashing.queue-capacity:64}")
+    private int hashingQueueCapacity;
+
+    @Value("${urlaubsplaner.password.hashing.timeout-ms:5000}")
+    private long hashingTimeoutMillis;
+
+    /**
+     * BCrypt on the bounded hashing pool; the timer inside measures hashing only, not queueing
+     */
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public PasswordEncoder passwordEncoder(MeterRegistry meterRegistry) {
+        int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(
+                new TimedPasswordEncoder(new CostAwareBCryptPasswordEncoder(bcryptStrength), meterRegistry),
+                threads, hashingQueueCapacity, hashingTimeoutMillis, meterRegistry);
     }
 
+    /**
+     * Hashes with another cost than configured are replaced after a successful login
+     */
     @Bean
-    public DaoAuthenticationProvider authenticationProvider() {
+    public DaoAuthenticationProvider authenticationProvider(PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
-        authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserDetailsPasswordService(userDetailsService);
+        authProvider.setPasswordEncoder(passwordEncoder);
         return authProvider;
     }
 
@@ -51,7 +78,8 @@ public class SecurityConfig {
     }
 
     @Bean
-    public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
+    public SecurityFilterChain filterChain(HttpSecurity http, DaoAuthenticationProvider authenticationProvider)
+            throws Exception {
         http
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .csrf(csrf -> csrf.disable())
@@ -62,11 +90,13 @@ public class SecurityConfig {
                         .requestMatchers("/swagger-ui/**").permitAll()
                         .requestMatchers("/v3/api-docs/**").permitAll()
                         .requestMatchers("/swagger-ui.html").permitAll()
+                        .requestMatchers("/actuator/health").permitAll()
+                        .requestMatchers("/actuator/**").hasRole("SUPER_MANAGER")
                         .requestMatchers("/api/vacations/**").authenticated()
                         .anyRequest().authenticated()
                 )
-                .authenticationProvider(authenticationProvider())
-                .httpBasic(httpBasic -> {});
+                .authenticationProvider(authenticationProvider)
+                .httpBasic(httpBasic -> httpBasic.authenticationEntryPoint(authenticationEntryPoint()));
 
         // Allow H2 console frames
         http.headers(headers -> headers.frameOptions(frameOptions -> frameOptions.disable()));
@@ -74,6 +104,22 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Basic auth challenge, or 503 when the credentials could not be verified for lack of hashing capacity
+     */
+    private AuthenticationEntryPoint authenticationEntryPoint() {
+        BasicAuthenticationEntryPoint basic = new BasicAuthenticationEntryPoint();
+        basic.setRealmName("Realm");
+        return (request, response, authException) -> {
+            if (authException instanceof BoundedPasswordEncoder.HashingUnavailableException) {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), authException.getMessage());
+                return;
+            }
+            basic.commence(request, response, authException);
+        };
+    }
+
     @Bean
     public CorsConfigurationSource corsConfigurationSource() {
         CorsConfiguration configuration = new CorsConfiguration();
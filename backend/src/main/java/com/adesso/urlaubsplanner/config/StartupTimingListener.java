@@ -0,0 +1,44 @@
+package com.adesso.urlaubsplanner.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Records the time from JVM start until the first HTTP request has been answered
+ *
+ * Complements application.ready.time: it also covers the lazily created beans and the
+ * first-request work (dispatcher servlet, handler mappings) a restarted instance pays.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class StartupTimingListener {
+
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong firstRequestMillis = new AtomicLong(-1);
+
+    @EventListener
+    public void onRequestHandled(ServletRequestHandledEvent event) {
+        if (firstRequestMillis.get() >= 0) {
+            return;
+        }
+        long uptime = ManagementFactory.getRuntimeMXBean().getUptime();
+        if (firstRequestMillis.compareAndSet(-1, uptime)) {
+            TimeGauge.builder("urlaubsplaner.startup.first-request", firstRequestMillis, TimeUnit.MILLISECONDS,
+                            AtomicLong::doubleValue)
+                    .description("Time from JVM start until the first HTTP request was answered")
+                    .register(meterRegistry);
+            log.info("First request ({} {}) answered {} ms after JVM start",
+                    event.getMethod(), event.getRequestUrl(), uptime);
+        }
+    }
+}
@@ -0,0 +1,290 @@
+package com.adesso.urlaubsplanner.config;
+
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+import com.adesso.urlaubsplanner.service.DataVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Synthetic organization for load and benchmark runs (profile "synthetic")
+ *
+ * Creates N regions with one manager and M employees each, plus K years of request
+ * history with matching absence day counters, ledger rows and audit entries.
+ * Everything is written with JDBC batch inserts; all users get the password "password".
+ * Usernames: synthetic.manager.{region} and synthetic.user.{region}.{n}
+ */
+@Slf4j
+@Component
+@Profile("synthetic")
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    public static final String PASSWORD = "password";
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int ANNUAL_DAYS = 30;
+    // Counters and ledger rows use sequence ids; generated rows take ids far above the sequence range
+    private static final long EXPLICIT_ID_OFFSET = 100_000_000L;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final DataVersionService dataVersionService;
+
+    @Value("${urlaubsplaner.synthetic.regions:10}")
+    private int regions;
+
+    @Value("${urlaubsplaner.synthetic.users-per-region:100}")
+    private int usersPerRegion;
+
+    @Value("${urlaubsplaner.synthetic.years:2}")
+    private int years;
+
+    @Value("${urlaubsplaner.synthetic.requests-per-user-per-year:4}")
+    private int requestsPerUserPerYear;
+
+    @Value("${urlaubsplaner.synthetic.seed:42}")
+    private long seed;
+
+    @Override
+    public void run(String... args) {
+        long started = System.currentTimeMillis();
+        Summary summary = generate(regions, usersPerRegion, years, requestsPerUserPerYear);
+        log.info("Synthetic organization generated in {} ms: {}", System.currentTimeMillis() - started, summary);
+    }
+
+    public static String managerOf(int region) {
+        return "synthetic.manager." + region;
+    }
+
+    public static String employeeOf(int region, int index) {
+        return "synthetic.user." + region + "." + index;
+    }
+
+    /**
+     * Generate the organization and its history
+     */
+    public Summary generate(int regionCount, int employeesPerRegion, int historyYears, int requestsPerYear) {
+        Random random = new Random(seed);
+        String passwordHash = passwordEncoder.encode(PASSWORD);
+        List<Long> regionIds = insertRegions(regionCount);
+        int users = insertUsers(regionIds, employeesPerRegion, passwordHash);
+        History history = new History(random, regionIds, historyYears, requestsPerYear);
+        history.generate(employeesPerRegion);
+        history.flush();
+        history.flushCounters();
+        dataVersionService.markAllChanged();
+        return new Summary(regionIds.size(), users, history.requestCount, history.counterIds - EXPLICIT_ID_OFFSET,
+                history.balanceIds - EXPLICIT_ID_OFFSET);
+    }
+
+    private List<Long> insertRegions(int regionCount) {
+        List<Object[]> rows = new ArrayList<>();
+        for (int r = 0; r < regionCount; r++) {
+            rows.add(new Object[]{String.format("Synthetic-%03d", r), "Stadt " + r, "Deutschland", true});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO regions (name, city, country, active) VALUES (?, ?, ?, ?)", rows);
+        return jdbcTemplate.queryForList("SELECT id FROM regions WHERE name LIKE 'Synthetic-%' ORDER BY name", Long.class);
+    }
+
+    private int insertUsers(List<Long> regionIds, int employeesPerRegion, String passwordHash) {
+        String sql = "INSERT INTO users (username, password, role, full_name, total_vacation_days, carried_over_days, " +
+                "used_vacation_days, active, region_id) VALUES (?, ?, ?, ?, ?, 0, 0, true, ?)";
+        List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+        int count = 0;
+        for (int r = 0; r < regionIds.size(); r++) {
+            rows.add(new Object[]{managerOf(r), passwordHash, "MANAGER", "Manager Region " + r, ANNUAL_DAYS, regionIds.get(r)});
+            for (int i = 0; i < employeesPerRegion; i++) {
+                rows.add(new Object[]{employeeOf(r, i), passwordHash, "EMPLOYEE", "Mitarbeiter " + r + "-" + i,
+                        ANNUAL_DAYS, regionIds.get(r)});
+                if (rows.size() >= BATCH_SIZE) {
+                    count += rows.size();
+                    jdbcTemplate.batchUpdate(sql, rows);
+                    rows.clear();
+                }
+            }
+        }
+        count += rows.size();
+        jdbcTemplate.batchUpdate(sql, rows);
+        return count;
+    }
+
+    /**
+     * Request history of all employees, written in batches while it is generated
+     */
+    private class History {
+
+        private final Random random;
+        private final List<Long> regionIds;
+        private final int historyYears;
+        private final int requestsPerYear;
+        private final LocalDate today = LocalDate.now();
+        private final Map<String, int[]> counters = new HashMap<>();
+        private final List<Object[]> requests = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> auditLogs = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> balances = new ArrayList<>(BATCH_SIZE);
+        private final List<Object[]> usedDays = new ArrayList<>(BATCH_SIZE);
+        private long requestCount;
+        private long counterIds = EXPLICIT_ID_OFFSET;
+        private long balanceIds = EXPLICIT_ID_OFFSET;
+
+        History(Random random, List<Long> regionIds, int historyYears, int requestsPerYear) {
+            this.random = random;
+            this.regionIds = regionIds;
+            this.historyYears = historyYears;
+            this.requestsPerYear = requestsPerYear;
+        }
+
+        void generate(int employeesPerRegion) {
+            for (int r = 0; r < regionIds.size(); r++) {
+                for (int i = 0; i < employeesPerRegion; i++) {
+                    generateEmployee(r, employeeOf(r, i));
+                }
+            }
+        }
+
+        private void generateEmployee(int region, String username) {
+            int currentYearUsed = 0;
+            for (int year = today.getYear() - historyYears + 1; year <= today.getYear(); year++) {
+                int used = generateYear(region, username, year);
+                balances.add(new Object[]{balanceIds++, username, year, ANNUAL_DAYS, 0, used});
+                currentYearUsed = used;
+            }
+            usedDays.add(new Object[]{currentYearUsed, username});
+            if (requests.size() >= BATCH_SIZE) {
+                flush();
+            }
+        }
+
+        /**
+         * One slot per request keeps an employee's requests of a year from overlapping
+         */
+        private int generateYear(int region, String username, int year) {
+            LocalDate yearStart = LocalDate.of(year, 1, 1);
+            int slot = yearStart.lengthOfYear() / requestsPerYear;
+            int used = 0;
+            for (int n = 0; n < requestsPerYear; n++) {
+                AbsenceType type = randomType();
+                int length = type == AbsenceType.VACATION ? 1 + random.nextInt(10) : 1 + random.nextInt(3);
+                LocalDate start = yearStart.plusDays((long) n * slot + random.nextInt(Math.max(1, slot - length)));
+                LocalDate end = start.plusDays(length - 1);
+                VacationStatus status = randomStatus(end);
+                if (status == VacationStatus.APPROVED && used + length > ANNUAL_DAYS) {
+                    status = VacationStatus.REJECTED;
+                }
+                if (status == VacationStatus.APPROVED) {
+                    used += length;
+                }
+                addRequest(region, username, type, start, end, status);
+            }
+            return used;
+        }
+
+        private void addRequest(int region, String username, AbsenceType type, LocalDate start, LocalDate end,
+                                VacationStatus status) {
+            LocalDate createdAt = start.minusDays(7 + random.nextInt(60));
+            boolean decided = status != VacationStatus.PENDING;
+            LocalDateTime created = createdAt.atTime(LocalTime.NOON);
+            requests.add(new Object[]{username, Date.valueOf(start), Date.valueOf(end), status.name(), type.name(),
+                    "Synthetischer Antrag", decided ? managerOf(region) : null, Date.valueOf(createdAt),
+                    Timestamp.valueOf(decided ? created.plusDays(2) : created)});
+            auditLogs.add(new Object[]{"CREATE_REQUEST", username, username,
+                    type.getDisplayName() + " von " + start + " bis " + end, Timestamp.valueOf(created),
+                    AuditLog.partitionOf(created)});
+            if (decided) {
+                LocalDateTime decidedAt = created.plusDays(2);
+                auditLogs.add(new Object[]{status == VacationStatus.APPROVED ? "APPROVE_REQUEST" : "REJECT_REQUEST",
+                        managerOf(region), username, "Synthetische Entscheidung", Timestamp.valueOf(decidedAt),
+                        AuditLog.partitionOf(decidedAt)});
+            }
+            if (status != VacationStatus.REJECTED) {
+                Long regionId = regionIds.get(region);
+                for (LocalDate day = start; !day.isAfter(end); day = day.plusDays(1)) {
+                    int[] count = counters.computeIfAbsent(regionId + "|" + day + "|" + type.name(), key -> new int[2]);
+                    count[status == VacationStatus.PENDING ? 0 : 1]++;
+                }
+            }
+            requestCount++;
+        }
+
+        private AbsenceType randomType() {
+            int roll = random.nextInt(100);
+            if (roll < 50) return AbsenceType.VACATION;
+            if (roll < 65) return AbsenceType.SICK_LEAVE;
+            if (roll < 85) return AbsenceType.HOME_OFFICE;
+            if (roll < 95) return AbsenceType.BUSINESS_TRIP;
+            return AbsenceType.TRAINING;
+        }
+
+        private VacationStatus randomStatus(LocalDate end) {
+            int roll = random.nextInt(100);
+            if (end.isBefore(today)) {
+                return roll < 85 ? VacationStatus.APPROVED : VacationStatus.REJECTED;
+            }
+            return ChronoUnit.DAYS.between(today, end) > 60 || roll < 60 ? VacationStatus.PENDING : VacationStatus.APPROVED;
+        }
+
+        void flush() {
+            jdbcTemplate.batchUpdate("INSERT INTO vacation_requests (employee_name, start_date, end_date, status, " +
+                    "absence_type, notes, approved_by, created_at, last_modified_at, version) " +
+                    "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0)", requests);
+            jdbcTemplate.batchUpdate("INSERT INTO audit_logs (action, performed_by, target_user, details, timestamp, " +
+                    "partition_month) VALUES (?, ?, ?, ?, ?, ?)", auditLogs);
+            jdbcTemplate.batchUpdate("INSERT INTO vacation_balances (id, username, balance_year, entitled_days, " +
+                    "carried_over_days, used_days) VALUES (?, ?, ?, ?, ?, ?)", balances);
+            jdbcTemplate.batchUpdate("UPDATE users SET used_vacation_days = ? WHERE username = ?", usedDays);
+            requests.clear();
+            auditLogs.clear();
+            balances.clear();
+            usedDays.clear();
+        }
+
+        /**
+         * Counters are complete only after the whole history was generated
+         */
+        void flushCounters() {
+            List<Object[]> rows = new ArrayList<>(BATCH_SIZE);
+            for (Map.Entry<String, int[]> entry : counters.entrySet()) {
+                String[] key = entry.getKey().split("\\|");
+                rows.add(new Object[]{counterIds++, Long.valueOf(key[0]), Date.valueOf(key[1]), key[2], "EMPLOYEE",
+                        entry.getValue()[0], entry.getValue()[1]});
+                if (rows.size() >= BATCH_SIZE) {
+                    insertCounters(rows);
+                }
+            }
+            insertCounters(rows);
+            counters.clear();
+        }
+
+        private void insertCounters(List<Object[]> rows) {
+            jdbcTemplate.batchUpdate("INSERT INTO absence_day_counters (id, region_id, absence_date, absence_type, " +
+                    "role, pending_count, approved_count) VALUES (?, ?, ?, ?, ?, ?, ?)", rows);
+            rows.clear();
+        }
+    }
+
+    /**
+     * Row counts of a generated organization
+     */
+    public record Summary(int regions, int users, long requests, long absenceDayCounters, long ledgerRows) {
+    }
+}
@@ -1,23 +1,47 @@
 package com.adesso.urlaubsplanner.controller;
 
+import com.adesso.urlaubsplanner.config.BoundedPasswordEncoder;
+import com.adesso.urlaubsplanner.dto.QueryDiagnosticsDTO;
+import com.adesso.urlaubsplanner.dto.ReportFormat;
 import com.adesso.urlaubsplanner.dto.StatisticsDTO;
+import com.adesso.urlaubsplanner.dto.TeamStatisticsCacheStatusDTO;
 import com.adesso.urlaubsplanner.dto.UserDTO;
+import com.adesso.urlaubsplanner.model.CapacityRule;
 import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationBalance;
 import com.adesso.urlaubsplanner.service.AdminService;
+import com.adesso.urlaubsplanner.service.CapacityRuleService;
+import com.adesso.urlaubsplanner.service.DataVersionService;
+import com.adesso.urlaubsplanner.service.QueryDiagnosticsService;
+import com.adesso.urlaubsplanner.service.TeamStatisticsCacheService;
+import com.adesso.urlaubsplanner.service.VacationLedgerService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.BufferedWriter;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Map;
 
 /**
  * REST Controller for Super Manager admin operations
+ *
+ * Lazy like the other admin-only beans: the handler mapping only needs the bean type,
+ * so it is created with its dependencies on the first admin request instead of at startup.
  */
+@Lazy
 @RestController
 @RequestMapping("/api/admin")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -26,15 +50,24 @@ import java.util.Map;
 public class AdminController {
 
     private final AdminService adminService;
+    private final DataVersionService dataVersionService;
+    private final VacationLedgerService vacationLedgerService;
+    private final TeamStatisticsCacheService teamStatisticsCacheService;
+    private final CapacityRuleService capacityRuleService;
+    private final QueryDiagnosticsService queryDiagnosticsService;
 
     /**
      * Get all users
      * GET /api/admin/users
      */
     @GetMapping("/users")
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<List<User>> getAllUsers(WebRequest webRequest) {
+        String etag = dataVersionService.getETag(DataVersionService.GLOBAL);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         List<User> users = adminService.getAllUsers();
-        return ResponseEntity.ok(users);
+        return ConditionalGet.ok(etag, users);
     }
 
     /**
@@ -63,6 +96,8 @@ public class AdminController {
             return ResponseEntity.status(HttpStatus.CREATED).body(user);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (BoundedPasswordEncoder.HashingUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
@@ -79,6 +114,8 @@ public class AdminController {
             return ResponseEntity.ok(user);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (BoundedPasswordEncoder.HashingUnavailableException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
         }
     }
 
@@ -134,9 +171,13 @@ public class AdminController {
      * GET /api/admin/statistics
      */
     @GetMapping("/statistics")
-    public ResponseEntity<StatisticsDTO> getStatistics() {
+    public ResponseEntity<StatisticsDTO> getStatistics(WebRequest webRequest) {
+        String etag = dataVersionService.getETag(DataVersionService.GLOBAL);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         StatisticsDTO stats = adminService.getSystemStatistics();
-        return ResponseEntity.ok(stats);
+        return ConditionalGet.ok(etag, stats);
     }
 
     /**
@@ -144,8 +185,131 @@ public class AdminController {
      * GET /api/admin/reports/vacation-usage
      */
     @GetMapping("/reports/vacation-usage")
-    public ResponseEntity<Map<String, Map<String, Object>>> getVacationUsageReport() {
+    public ResponseEntity<Map<String, Map<String, Object>>> getVacationUsageReport(WebRequest webRequest) {
+        String etag = dataVersionService.getETag(DataVersionService.GLOBAL);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         Map<String, Map<String, Object>> report = adminService.getVacationUsageReport();
-        return ResponseEntity.ok(report);
+        return ConditionalGet.ok(etag, report);
+    }
+
+    /**
+     * Stream vacation usage report as CSV or NDJSON
+     * GET /api/admin/reports/vacation-usage/export?format=NDJSON&regionId=1&year=2024
+     */
+    @GetMapping("/reports/vacation-usage/export")
+    public ResponseEntity<StreamingResponseBody> exportVacationUsageReport(
+            @RequestParam(defaultValue = "CSV") ReportFormat format,
+            @RequestParam(required = false) Long regionId,
+            @RequestParam(required = false) Integer year) {
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            adminService.writeVacationUsageReport(format, regionId, year, writer);
+            writer.flush();
+        };
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.parseMediaType(format.getContentType()));
+        headers.setContentDispositionFormData("attachment", "vacation-usage." + format.getFileExtension());
+
+        return ResponseEntity.ok()
+                .headers(headers)
+                .body(body);
+    }
+
+    /**
+     * Get vacation ledger (balance per year) of a user
+     * GET /api/admin/ledger/{username}
+     */
+    @GetMapping("/ledger/{username}")
+    public ResponseEntity<List<VacationBalance>> getVacationLedger(@PathVariable String username) {
+        List<VacationBalance> balances = vacationLedgerService.getBalances(username);
+        return ResponseEntity.ok(balances);
+    }
+
+    /**
+     * Close the previous vacation year for all users and carry remaining days over
+     * Only the previous year can be closed, and only once
+     * POST /api/admin/ledger/rollover?fromYear=2024
+     */
+    @PostMapping("/ledger/rollover")
+    public ResponseEntity<String> rolloverVacationYear(@RequestParam Integer fromYear, Authentication authentication) {
+        try {
+            int processed = vacationLedgerService.rollover(fromYear, authentication.getName());
+            return ResponseEntity.ok(String.format("Rolled over %d users from %d to %d", processed, fromYear, fromYear + 1));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+
+    /**
+     * Get compute time and age of the precomputed team statistics per region
+     * GET /api/admin/cache/team-statistics
+     */
+    @GetMapping("/cache/team-statistics")
+    public ResponseEntity<List<TeamStatisticsCacheStatusDTO>> getTeamStatisticsCacheStatus() {
+        return ResponseEntity.ok(teamStatisticsCacheService.getStatus());
+    }
+
+    /**
+     * Get the endpoints with the most SQL time or statements per request, plus slow statements
+     * Repeated statements per request point at N+1 query patterns
+     * GET /api/admin/diagnostics/queries?limit=10&sort=time|statements
+     */
+    @GetMapping("/diagnostics/queries")
+    public ResponseEntity<QueryDiagnosticsDTO> getQueryDiagnostics(
+            @RequestParam(defaultValue = "10") int limit,
+            @RequestParam(defaultValue = "time") String sort) {
+        return ResponseEntity.ok(queryDiagnosticsService.getDiagnostics(Math.max(1, Math.min(limit, 100)), sort));
+    }
+
+    /**
+     * Reset the query diagnostics
+     * DELETE /api/admin/diagnostics/queries
+     */
+    @DeleteMapping("/diagnostics/queries")
+    public ResponseEntity<Void> resetQueryDiagnostics() {
+        queryDiagnosticsService.reset();
+        return ResponseEntity.noContent().build();
+    }
+
+    /**
+     * Get all capacity rules
+     * GET /api/admin/capacity-rules
+     */
+    @GetMapping("/capacity-rules")
+    public ResponseEntity<List<CapacityRule>> getCapacityRules() {
+        return ResponseEntity.ok(capacityRuleService.getAllRules());
+    }
+
+    /**
+     * Create capacity rule
+     * POST /api/admin/capacity-rules
+     */
+    @PostMapping("/capacity-rules")
+    public ResponseEntity<?> createCapacityRule(@RequestBody CapacityRule rule, Authentication authentication) {
+        try {
+            CapacityRule saved = capacityRuleService.createRule(rule, authentication.getName());
+            return ResponseEntity.status(HttpStatus.CREATED).body(saved);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    /**
+     * Delete capacity rule
+     * DELETE /api/admin/capacity-rules/{id}
+     */
+    @DeleteMapping("/capacity-rules/{id}")
+    public ResponseEntity<?> deleteCapacityRule(@PathVariable Long id, Authentication authentication) {
+        try {
+            capacityRuleService.deleteRule(id, authentication.getName());
+            return ResponseEntity.ok().body("Capacity rule deleted successfully");
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
 }
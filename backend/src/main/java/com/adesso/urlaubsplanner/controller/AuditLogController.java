@@ -1,10 +1,13 @@
 package com.adesso.urlaubsplanner.controller;
 
 import com.adesso.urlaubsplanner.model.AuditLog;
+import com.adesso.urlaubsplanner.service.AuditArchiveService;
 import com.adesso.urlaubsplanner.service.AuditLogService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -12,10 +15,12 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * REST Controller for audit log endpoints (SUPER_MANAGER only)
  */
+@Lazy
 @RestController
 @RequestMapping("/api/audit")
 @CrossOrigin(origins = "http://localhost:3000")
@@ -23,6 +28,7 @@ import java.util.List;
 public class AuditLogController {
 
     private final AuditLogService auditLogService;
+    private final AuditArchiveService auditArchiveService;
 
     /**
      * Get all audit logs (SUPER_MANAGER only)
@@ -69,18 +75,34 @@ public class AuditLogController {
     }
 
     /**
-     * Get logs within date range
-     * GET /api/audit/logs/range?start=...&end=...
+     * Get logs within date range; archived months are read only with includeArchived=true,
+     * and then contribute at most their newest urlaubsplaner.audit.archive-read-limit entries
+     * GET /api/audit/logs/range?start=...&end=...&includeArchived=false
      */
     @GetMapping("/logs/range")
     @PreAuthorize("hasRole('SUPER_MANAGER')")
     public ResponseEntity<List<AuditLog>> getLogsByDateRange(
             @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        List<AuditLog> logs = auditLogService.getLogsByDateRange(start, end);
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<AuditLog> logs = auditLogService.getLogsByDateRange(start, end, includeArchived);
         return ResponseEntity.ok(logs);
     }
 
+    /**
+     * Archive months beyond the retention period now instead of waiting for the monthly run
+     * POST /api/audit/archive
+     */
+    @PostMapping("/archive")
+    @PreAuthorize("hasRole('SUPER_MANAGER')")
+    public ResponseEntity<Map<Integer, Long>> archiveExpired() {
+        try {
+            return ResponseEntity.ok(auditArchiveService.archiveExpired());
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
+    }
+
     /**
      * Export audit logs to CSV
      * GET /api/audit/logs/export/csv
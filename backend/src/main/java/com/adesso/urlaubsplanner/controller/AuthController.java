@@ -3,8 +3,11 @@ package com.adesso.urlaubsplanner.controller;
 import com.adesso.urlaubsplanner.dto.LoginRequest;
 import com.adesso.urlaubsplanner.dto.LoginResponse;
 import com.adesso.urlaubsplanner.service.AuthService;
+import com.adesso.urlaubsplanner.service.LoginThrottledException;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -28,9 +31,17 @@ public class AuthController {
         try {
             LoginResponse response = authService.login(loginRequest);
             return ResponseEntity.ok(response);
+        } catch (LoginThrottledException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(e.getRetryAfterSeconds()))
+                    .body(new LoginResponse(null, null, null, null, null, null, null, e.getMessage()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body(new LoginResponse(null, null, null, null, null, null, null, e.getMessage()));
         } catch (RuntimeException e) {
             return ResponseEntity.badRequest()
-                    .body(new LoginResponse(null, null, null, null, null, null, e.getMessage()));
+                    .body(new LoginResponse(null, null, null, null, null, null, null, e.getMessage()));
         }
     }
 
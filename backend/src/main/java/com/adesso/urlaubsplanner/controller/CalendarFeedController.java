@@ -0,0 +1,123 @@
+package com.adesso.urlaubsplanner.controller;
+
+import com.adesso.urlaubsplanner.service.CalendarFeedService;
+import com.adesso.urlaubsplanner.service.DataVersionService;
+import com.adesso.urlaubsplanner.service.EmployeeSelfService;
+import com.adesso.urlaubsplanner.service.ManagerService;
+import com.adesso.urlaubsplanner.service.VacationEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+
+/**
+ * REST Controller for iCalendar feeds (subscribable with Basic auth)
+ *
+ * Feeds carry the ETag and Last-Modified of the region's data version and the feed window,
+ * so polling calendar clients get 304 without the feed being regenerated until either changes.
+ */
+@RestController
+@RequestMapping("/api/calendar")
+@RequiredArgsConstructor
+public class CalendarFeedController {
+
+    private static final MediaType TEXT_CALENDAR = MediaType.parseMediaType("text/calendar; charset=utf-8");
+
+    private final CalendarFeedService calendarFeedService;
+    private final DataVersionService dataVersionService;
+    private final ManagerService managerService;
+    private final EmployeeSelfService employeeSelfService;
+
+    /**
+     * Get the absence feed of a region (its manager or a Super Manager)
+     * GET /api/calendar/regions/{regionId}.ics
+     */
+    @GetMapping("/regions/{regionId}.ics")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
+    public ResponseEntity<StreamingResponseBody> getRegionFeed(@PathVariable Long regionId,
+                                                               Authentication authentication,
+                                                               WebRequest webRequest) {
+        long managerRegionKey = managerService.getManagerRegionKey(authentication.getName());
+        if (managerRegionKey != VacationEventService.ALL_REGIONS && managerRegionKey != regionId) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!calendarFeedService.regionExists(regionId)) {
+            return ResponseEntity.notFound().build();
+        }
+
+        return feed(regionId, "ics-region", webRequest,
+                (windowStart, writer) -> calendarFeedService.writeRegionFeed(regionId, windowStart, writer));
+    }
+
+    /**
+     * Get the absence feed of the authenticated user
+     * GET /api/calendar/me.ics
+     */
+    @GetMapping("/me.ics")
+    public ResponseEntity<StreamingResponseBody> getMyFeed(Authentication authentication, WebRequest webRequest) {
+        return getEmployeeFeed(authentication.getName(), authentication, webRequest);
+    }
+
+    /**
+     * Get the absence feed of an employee (the employee, their manager or a Super Manager)
+     * GET /api/calendar/employees/{name}.ics
+     */
+    @GetMapping("/employees/{name}.ics")
+    public ResponseEntity<StreamingResponseBody> getEmployeeFeed(@PathVariable String name,
+                                                                 Authentication authentication,
+                                                                 WebRequest webRequest) {
+        String username = authentication.getName();
+        if (!name.equals(username) && !managerService.hasAccessToEmployee(username, name)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+
+        long regionKey;
+        try {
+            regionKey = employeeSelfService.getRegionKey(name);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.notFound().build();
+        }
+        return feed(regionKey, "ics-" + name, webRequest,
+                (windowStart, writer) -> calendarFeedService.writeEmployeeFeed(name, windowStart, writer));
+    }
+
+    private ResponseEntity<StreamingResponseBody> feed(long regionKey, String variant, WebRequest webRequest,
+                                                       FeedWriter feedWriter) {
+        // Old absences drop out of the window at midnight without a data change
+        LocalDate windowStart = calendarFeedService.getWindowStart();
+        String etag = dataVersionService.getETag(regionKey, variant + "@" + windowStart);
+        Instant dataModified = dataVersionService.getLastModified(regionKey);
+        Instant windowMoved = calendarFeedService.getWindowMovedAt(windowStart);
+        Instant lastModified = dataModified.isAfter(windowMoved) ? dataModified : windowMoved;
+        if (webRequest.checkNotModified(etag, lastModified.toEpochMilli())) {
+            return ConditionalGet.notModified(etag, lastModified);
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            Writer writer = new BufferedWriter(new OutputStreamWriter(outputStream, StandardCharsets.UTF_8));
+            feedWriter.write(windowStart, writer);
+            writer.flush();
+        };
+        return ConditionalGet.okBuilder(etag, lastModified)
+                .contentType(TEXT_CALENDAR)
+                .body(body);
+    }
+
+    @FunctionalInterface
+    private interface FeedWriter {
+        void write(LocalDate windowStart, Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,64 @@
+package com.adesso.urlaubsplanner.controller;
+
+import com.adesso.urlaubsplanner.dto.ChangeFeedDTO;
+import com.adesso.urlaubsplanner.service.ChangeLogService;
+import com.adesso.urlaubsplanner.service.ManagerService;
+import com.adesso.urlaubsplanner.service.VacationEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+/**
+ * REST Controller for the incremental change feed of vacation requests and users
+ *
+ * Consumers keep the last seen sequence number and poll with it as "since";
+ * managers only see changes of their own region. Entries with operation MOVED tell a
+ * region's consumers that the entity now belongs to another region.
+ */
+@RestController
+@RequestMapping("/api/changes")
+@CrossOrigin(origins = "http://localhost:3000")
+@RequiredArgsConstructor
+public class ChangeFeedController {
+
+    private final ChangeLogService changeLogService;
+    private final ManagerService managerService;
+
+    /**
+     * Get the changes after a sequence number, oldest first
+     * GET /api/changes?since=0&limit=100
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
+    public ResponseEntity<ChangeFeedDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                    @RequestParam(defaultValue = "100") int limit,
+                                                    Authentication authentication) {
+        long regionKey = managerService.getManagerRegionKey(authentication.getName());
+        Long regionId = regionKey == VacationEventService.ALL_REGIONS ? null : regionKey;
+        try {
+            return ResponseEntity.ok(changeLogService.getChanges(since, limit, regionId));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    /**
+     * Compact the change log now instead of waiting for the nightly run
+     * (409 while a compaction is running or has just run on any instance)
+     * POST /api/changes/compact
+     */
+    @PostMapping("/compact")
+    @PreAuthorize("hasRole('SUPER_MANAGER')")
+    public ResponseEntity<?> compact() {
+        try {
+            return ResponseEntity.ok(Map.of("removed", changeLogService.compactNow()));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        }
+    }
+}
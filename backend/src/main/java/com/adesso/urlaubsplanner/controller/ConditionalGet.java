@@ -0,0 +1,41 @@
+package com.adesso.urlaubsplanner.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Instant;
+
+/**
+ * Helper for ETag-based conditional GET responses
+ *
+ * Responses are marked "private, no-cache" so browsers keep them but revalidate on every
+ * use; Spring Security only adds its no-store default when no Cache-Control is present.
+ */
+final class ConditionalGet {
+
+    private static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ConditionalGet() {
+    }
+
+    static <T> ResponseEntity<T> ok(String etag, T body) {
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDATE).body(body);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).cacheControl(REVALIDATE).build();
+    }
+
+    /**
+     * 200 response builder with validators, for bodies that need further headers (e.g. content type)
+     */
+    static ResponseEntity.BodyBuilder okBuilder(String etag, Instant lastModified) {
+        return ResponseEntity.ok().eTag(etag).lastModified(lastModified).cacheControl(REVALIDATE);
+    }
+
+    static <T> ResponseEntity<T> notModified(String etag, Instant lastModified) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(etag).lastModified(lastModified)
+                .cacheControl(REVALIDATE).build();
+    }
+}
@@ -1,15 +1,22 @@
 package com.adesso.urlaubsplanner.controller;
 
+import com.adesso.urlaubsplanner.dto.ManagerDashboardDTO;
 import com.adesso.urlaubsplanner.dto.TeamCalendarEventDTO;
 import com.adesso.urlaubsplanner.dto.TeamStatisticsDTO;
 import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.service.DataVersionService;
 import com.adesso.urlaubsplanner.service.ManagerService;
+import com.adesso.urlaubsplanner.service.TeamStatisticsCacheService;
+import com.adesso.urlaubsplanner.service.VacationEventService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -25,6 +32,9 @@ import java.util.Map;
 public class ManagerController {
 
     private final ManagerService managerService;
+    private final VacationEventService vacationEventService;
+    private final DataVersionService dataVersionService;
+    private final TeamStatisticsCacheService teamStatisticsCacheService;
 
     /**
      * Get team members in manager's region
@@ -32,22 +42,32 @@ public class ManagerController {
      */
     @GetMapping("/team")
     @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
-    public ResponseEntity<List<User>> getTeamMembers(Authentication authentication) {
+    public ResponseEntity<List<User>> getTeamMembers(Authentication authentication, WebRequest webRequest) {
         String username = authentication.getName();
+        String etag = dataVersionService.getETag(managerService.getManagerRegionKey(username));
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         List<User> team = managerService.getEmployeesInManagerRegion(username);
-        return ResponseEntity.ok(team);
+        return ConditionalGet.ok(etag, team);
     }
 
     /**
      * Get team statistics (vacation days, sick days, etc.)
+     * Served from the precomputed per-region snapshot
      * GET /api/manager/team/statistics
      */
     @GetMapping("/team/statistics")
     @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
-    public ResponseEntity<List<TeamStatisticsDTO>> getTeamStatistics(Authentication authentication) {
-        String username = authentication.getName();
-        List<TeamStatisticsDTO> statistics = managerService.getTeamStatistics(username);
-        return ResponseEntity.ok(statistics);
+    public ResponseEntity<List<TeamStatisticsDTO>> getTeamStatistics(Authentication authentication,
+                                                                     WebRequest webRequest) {
+        long regionKey = managerService.getManagerRegionKey(authentication.getName());
+        TeamStatisticsCacheService.Snapshot snapshot = teamStatisticsCacheService.getSnapshot(regionKey);
+        String etag = dataVersionService.getETag(regionKey, snapshot.version());
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, snapshot.statistics());
     }
 
     /**
@@ -59,10 +79,15 @@ public class ManagerController {
     public ResponseEntity<List<TeamCalendarEventDTO>> getTeamCalendar(
             Authentication authentication,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
         String username = authentication.getName();
+        String etag = dataVersionService.getETag(managerService.getManagerRegionKey(username));
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         List<TeamCalendarEventDTO> events = managerService.getTeamCalendar(username, startDate, endDate);
-        return ResponseEntity.ok(events);
+        return ConditionalGet.ok(etag, events);
     }
 
     /**
@@ -71,9 +96,93 @@ public class ManagerController {
      */
     @GetMapping("/team/overload")
     @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
-    public ResponseEntity<Map<LocalDate, Integer>> getTeamOverloadWarnings(Authentication authentication) {
+    public ResponseEntity<Map<LocalDate, Integer>> getTeamOverloadWarnings(Authentication authentication,
+                                                                            WebRequest webRequest) {
         String username = authentication.getName();
+        String etag = dataVersionService.getETag(managerService.getManagerRegionKey(username));
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         Map<LocalDate, Integer> warnings = managerService.getTeamOverloadWarnings(username);
-        return ResponseEntity.ok(warnings);
+        return ConditionalGet.ok(etag, warnings);
+    }
+
+    /**
+     * Get requests, team, statistics, calendar and overload warnings in one response
+     * Replaces the five separate dashboard calls; all views come from one load of the region's data
+     * GET /api/manager/dashboard?startDate=2024-01-01&endDate=2024-01-31
+     */
+    @GetMapping("/dashboard")
+    @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
+    public ResponseEntity<ManagerDashboardDTO> getDashboard(
+            Authentication authentication,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
+        long regionKey = managerService.getManagerRegionKey(authentication.getName());
+        String etag = dataVersionService.getETag(regionKey);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, managerService.computeDashboard(regionKey, startDate, endDate));
+    }
+
+    /**
+     * Get team statistics grouped per region (computed concurrently)
+     * GET /api/manager/regions/statistics
+     */
+    @GetMapping("/regions/statistics")
+    @PreAuthorize("hasRole('SUPER_MANAGER')")
+    public ResponseEntity<Map<String, List<TeamStatisticsDTO>>> getTeamStatisticsByRegion(WebRequest webRequest) {
+        String etag = dataVersionService.getETag(DataVersionService.GLOBAL);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, managerService.getTeamStatisticsByRegion());
+    }
+
+    /**
+     * Get team calendar grouped per region (computed concurrently)
+     * GET /api/manager/regions/calendar?startDate=2024-01-01&endDate=2024-12-31
+     */
+    @GetMapping("/regions/calendar")
+    @PreAuthorize("hasRole('SUPER_MANAGER')")
+    public ResponseEntity<Map<String, List<TeamCalendarEventDTO>>> getTeamCalendarByRegion(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            WebRequest webRequest) {
+        String etag = dataVersionService.getETag(DataVersionService.GLOBAL);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, managerService.getTeamCalendarByRegion(startDate, endDate));
+    }
+
+    /**
+     * Get overload warnings grouped per region, each against the region's own headcount
+     * GET /api/manager/regions/overload
+     */
+    @GetMapping("/regions/overload")
+    @PreAuthorize("hasRole('SUPER_MANAGER')")
+    public ResponseEntity<Map<String, Map<LocalDate, Integer>>> getOverloadWarningsByRegion(WebRequest webRequest) {
+        String etag = dataVersionService.getETag(DataVersionService.GLOBAL);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, managerService.getOverloadWarningsByRegion());
+    }
+
+    /**
+     * Subscribe to live vacation request events of the manager's region (Server-Sent Events)
+     * Reconnecting clients resume via the Last-Event-ID header; if that is no longer possible
+     * they receive a "reset" event and should reload their views
+     * GET /api/manager/team/events
+     */
+    @GetMapping(value = "/team/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
+    public SseEmitter streamTeamEvents(Authentication authentication,
+                                       @RequestHeader(value = "Last-Event-ID", required = false) String lastEventId) {
+        long regionKey = managerService.getManagerRegionKey(authentication.getName());
+        return vacationEventService.subscribe(regionKey, lastEventId);
     }
 }
@@ -0,0 +1,61 @@
+package com.adesso.urlaubsplanner.controller;
+
+import com.adesso.urlaubsplanner.dto.SearchResultDTO;
+import com.adesso.urlaubsplanner.service.ManagerService;
+import com.adesso.urlaubsplanner.service.SearchIndexService;
+import com.adesso.urlaubsplanner.service.VacationEventService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller for full-text search over audit details and request notes
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "http://localhost:3000")
+@RequiredArgsConstructor
+public class SearchController {
+
+    private final SearchIndexService searchIndexService;
+    private final ManagerService managerService;
+
+    /**
+     * Search audit entries and requests; words ending with "*" match as prefix, all words must match
+     * Managers only find entries of their own region
+     * GET /api/search?q=...&type=AUDIT|REQUEST&action=...&regionId=...&from=...&to=...&limit=50
+     */
+    @GetMapping
+    @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
+    public ResponseEntity<SearchResultDTO> search(
+            @RequestParam String q,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String action,
+            @RequestParam(required = false) Long regionId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(defaultValue = "50") int limit,
+            Authentication authentication) {
+        long managerRegionKey = managerService.getManagerRegionKey(authentication.getName());
+        if (managerRegionKey != VacationEventService.ALL_REGIONS) {
+            if (regionId != null && regionId != managerRegionKey) {
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+            }
+            regionId = managerRegionKey;
+        }
+
+        try {
+            return ResponseEntity.ok(searchIndexService.search(q, type, action, regionId, from, to, limit));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+    }
+}
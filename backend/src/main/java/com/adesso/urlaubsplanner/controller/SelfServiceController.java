@@ -0,0 +1,42 @@
+package com.adesso.urlaubsplanner.controller;
+
+import com.adesso.urlaubsplanner.dto.EmployeeSelfServiceDTO;
+import com.adesso.urlaubsplanner.service.DataVersionService;
+import com.adesso.urlaubsplanner.service.EmployeeSelfService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * REST Controller for the authenticated user's own data
+ */
+@RestController
+@RequestMapping("/api/me")
+@CrossOrigin(origins = "http://localhost:3000")
+@RequiredArgsConstructor
+public class SelfServiceController {
+
+    private final EmployeeSelfService employeeSelfService;
+    private final DataVersionService dataVersionService;
+
+    /**
+     * Get balance, pending days, upcoming absences and a page of request history
+     * Resolved from the authenticated principal; answers 304 while the region's data is unchanged
+     * GET /api/me?page=0&size=20
+     */
+    @GetMapping
+    public ResponseEntity<EmployeeSelfServiceDTO> getMe(@RequestParam(defaultValue = "0") int page,
+                                                        @RequestParam(defaultValue = "20") int size,
+                                                        Authentication authentication,
+                                                        WebRequest webRequest) {
+        String username = authentication.getName();
+        long regionKey = employeeSelfService.getRegionKey(username);
+        String etag = dataVersionService.getETag(regionKey, username + "-" + page + "-" + size);
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
+        return ConditionalGet.ok(etag, employeeSelfService.getSelfService(username, page, size));
+    }
+}
@@ -2,6 +2,7 @@ package com.adesso.urlaubsplanner.controller;
 
 import com.adesso.urlaubsplanner.dto.VacationRequestDTO;
 import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.service.DataVersionService;
 import com.adesso.urlaubsplanner.service.ManagerService;
 import com.adesso.urlaubsplanner.service.VacationService;
 import jakarta.validation.Valid;
@@ -11,6 +12,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -25,6 +27,7 @@ public class VacationController {
 
     private final VacationService vacationService;
     private final ManagerService managerService;
+    private final DataVersionService dataVersionService;
 
     /**
      * Create a new vacation request (EMPLOYEE role)
@@ -45,22 +48,35 @@ public class VacationController {
      * Get vacation requests filtered by manager's region
      * Regular managers only see requests from their region
      * Super managers see all requests
+     * Answers 304 without querying when the region's data version is unchanged
      * GET /api/vacations
      */
     @GetMapping
     @PreAuthorize("hasRole('MANAGER') or hasRole('SUPER_MANAGER')")
-    public ResponseEntity<List<VacationRequest>> getAllVacationRequests(Authentication authentication) {
+    public ResponseEntity<List<VacationRequest>> getAllVacationRequests(Authentication authentication,
+                                                                        WebRequest webRequest) {
         String username = authentication.getName();
+        String etag = dataVersionService.getETag(managerService.getManagerRegionKey(username));
+        if (webRequest.checkNotModified(etag)) {
+            return ConditionalGet.notModified(etag);
+        }
         List<VacationRequest> requests = managerService.getVacationRequestsForManagerRegion(username);
-        return ResponseEntity.ok(requests);
+        return ConditionalGet.ok(etag, requests);
     }
 
     /**
      * Get vacation requests for a specific employee
+     * Employees only see their own requests, managers those of their region
+     * (paged self-service view: GET /api/me)
      * GET /api/vacations/employee/{name}
      */
     @GetMapping("/employee/{name}")
-    public ResponseEntity<List<VacationRequest>> getVacationRequestsByEmployee(@PathVariable String name) {
+    public ResponseEntity<List<VacationRequest>> getVacationRequestsByEmployee(@PathVariable String name,
+                                                                               Authentication authentication) {
+        String username = authentication.getName();
+        if (!name.equals(username) && !managerService.hasAccessToEmployee(username, name)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
         List<VacationRequest> requests = vacationService.getVacationRequestsByEmployee(name);
         return ResponseEntity.ok(requests);
     }
@@ -0,0 +1,24 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * One absence of an iCalendar feed (projection of a request and its employee)
+ */
+public record CalendarFeedRow(
+        Long id,
+        String employeeName,
+        String employeeFullName,
+        LocalDate startDate,
+        LocalDate endDate,
+        AbsenceType absenceType,
+        VacationStatus status,
+        String representativeName,
+        Long version,
+        LocalDateTime lastModifiedAt
+) {
+}
@@ -0,0 +1,21 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.ChangeLogEntry;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for one page of the change feed
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeFeedDTO {
+    private Long since;
+    private Long nextSince;  // Pass as "since" to fetch the following page
+    private Boolean hasMore;
+    private List<ChangeLogEntry> changes;
+}
@@ -0,0 +1,12 @@
+package com.adesso.urlaubsplanner.dto;
+
+import java.time.LocalDateTime;
+
+/**
+ * Sequence number and time of a change log entry (projection for the high-water mark)
+ */
+public record ChangeLogSeqRow(
+        Long seq,
+        LocalDateTime changedAt
+) {
+}
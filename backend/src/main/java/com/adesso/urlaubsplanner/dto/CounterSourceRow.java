@@ -0,0 +1,19 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.Role;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Counted attributes of an open or approved request (projection for the absence day counter rebuild)
+ */
+public record CounterSourceRow(
+        AbsenceType absenceType,
+        Role role,
+        VacationStatus status,
+        LocalDate startDate,
+        LocalDate endDate
+) {
+}
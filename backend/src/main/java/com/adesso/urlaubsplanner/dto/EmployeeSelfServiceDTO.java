@@ -0,0 +1,35 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.Role;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the employee self-service view: balance, open requests and a page of history
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EmployeeSelfServiceDTO {
+    private String username;
+    private String fullName;
+    private Role role;
+    private String regionName;
+    private Integer totalVacationDays;
+    private Integer carriedOverDays;
+    private Integer usedVacationDays;
+    private Integer remainingVacationDays;
+    private Long pendingDays;                            // Days reserved by pending requests
+    private Long availableDays;                          // Remaining days minus pending days
+    private List<VacationRequest> pendingRequests;
+    private List<VacationRequest> upcomingAbsences;      // Approved, not yet ended
+    private List<VacationRequest> history;               // Newest first
+    private Integer page;
+    private Integer size;
+    private Long totalElements;
+    private Integer totalPages;
+}
@@ -0,0 +1,24 @@
+package com.adesso.urlaubsplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * DTO with the SQL profile of one endpoint over the diagnostics window
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EndpointQueryStatsDTO {
+    private String endpoint;                          // HTTP method and URI pattern
+    private Long requests;
+    private Double avgStatements;
+    private Integer maxStatements;
+    private Double avgSqlMillis;
+    private Long maxSqlMillis;
+    private Long repeatedStatementRequests;           // Requests flagged as N+1
+    private Map<String, Integer> repeatedStatements;  // Fingerprint -> highest executions in one request
+}
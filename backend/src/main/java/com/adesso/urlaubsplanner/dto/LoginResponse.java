@@ -19,5 +19,6 @@ public class LoginResponse {
     private Integer totalVacationDays;
     private Integer usedVacationDays;
     private Integer remainingVacationDays;
+    private String regionName;  // null for users without region
     private String message;
 }
@@ -0,0 +1,26 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * DTO bundling every manager dashboard view, derived from one working set
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagerDashboardDTO {
+    private Long regionKey;                              // 0 = all regions
+    private List<VacationRequest> requests;              // Same as GET /api/vacations
+    private List<User> team;                             // Same as GET /api/manager/team
+    private List<TeamStatisticsDTO> statistics;          // Same as GET /api/manager/team/statistics
+    private List<TeamCalendarEventDTO> calendar;         // Same as GET /api/manager/team/calendar
+    private Map<LocalDate, Integer> overloadWarnings;    // Same as GET /api/manager/team/overload
+}
@@ -0,0 +1,20 @@
+package com.adesso.urlaubsplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the rolling SQL diagnostics view
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class QueryDiagnosticsDTO {
+    private Integer windowMinutes;
+    private String sortedBy;
+    private List<EndpointQueryStatsDTO> endpoints;
+    private List<SlowStatementDTO> slowStatements;
+}
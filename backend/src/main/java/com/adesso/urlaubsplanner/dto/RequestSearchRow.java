@@ -0,0 +1,18 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.VacationStatus;
+
+import java.time.LocalDate;
+
+/**
+ * Searchable text of a request with its filter attributes (projection for the search index rebuild)
+ */
+public record RequestSearchRow(
+        Long id,
+        Long regionId,
+        VacationStatus status,
+        LocalDate createdAt,
+        String notes,
+        String approvalReason
+) {
+}
@@ -0,0 +1,23 @@
+package com.adesso.urlaubsplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for one search hit (an audit entry or a vacation request)
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchHitDTO {
+    private String type;  // AUDIT, REQUEST
+    private Long id;
+    private LocalDateTime timestamp;  // Audit time, or creation day of the request
+    private String action;  // Audit action, or request status
+    private Long regionId;
+    private String subject;  // Affected user, or employee of the request
+    private String text;  // Audit details, or notes and approval reason
+}
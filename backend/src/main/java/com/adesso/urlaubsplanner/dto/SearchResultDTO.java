@@ -0,0 +1,20 @@
+package com.adesso.urlaubsplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the result of a full-text search, newest hits first
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SearchResultDTO {
+    private String query;
+    private Long total;  // All matching documents; hits holds at most the limit
+    private Long tookMillis;
+    private List<SearchHitDTO> hits;
+}
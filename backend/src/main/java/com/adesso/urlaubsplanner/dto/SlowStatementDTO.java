@@ -0,0 +1,20 @@
+package com.adesso.urlaubsplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO for a single statement above the slow threshold
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SlowStatementDTO {
+    private Instant timestamp;
+    private String endpoint;
+    private Long millis;
+    private String statement;  // Fingerprint, without parameter values
+}
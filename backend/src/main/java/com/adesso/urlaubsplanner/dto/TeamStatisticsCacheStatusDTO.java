@@ -0,0 +1,23 @@
+package com.adesso.urlaubsplanner.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+
+/**
+ * DTO describing one precomputed team statistics snapshot
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TeamStatisticsCacheStatusDTO {
+    private Long regionKey;          // 0 = all regions
+    private Long snapshotVersion;    // Data version the snapshot was computed from
+    private Long currentVersion;     // Current data version of the region
+    private Instant computedAt;
+    private Long ageMillis;
+    private Long computeMillis;
+    private Integer entries;
+}
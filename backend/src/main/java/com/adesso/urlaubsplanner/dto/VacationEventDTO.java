@@ -0,0 +1,28 @@
+package com.adesso.urlaubsplanner.dto;
+
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * DTO for vacation request change events pushed to manager dashboards
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationEventDTO {
+    private String type;  // CREATED, APPROVED, REJECTED
+    private Long requestId;
+    private String employeeName;
+    private Long regionId;
+    private AbsenceType absenceType;
+    private VacationStatus status;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private String performedBy;
+    private Long occurredAt;  // Epoch milliseconds of the change
+}
@@ -0,0 +1,24 @@
+package com.adesso.urlaubsplanner.dto;
+
+/**
+ * Flat projection of one employee row in the vacation usage report
+ */
+public record VacationUsageRow(
+        String username,
+        String fullName,
+        String regionName,
+        Integer totalDays,
+        Integer usedDays
+) {
+
+    public Integer remainingDays() {
+        return totalDays - usedDays;
+    }
+
+    /**
+     * Usage in percent, 0 for employees without a quota
+     */
+    public double usagePercentage() {
+        return totalDays == null || totalDays == 0 ? 0.0 : (usedDays * 100.0) / totalDays;
+    }
+}
@@ -0,0 +1,55 @@
+package com.adesso.urlaubsplanner.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+/**
+ * Entity holding the precomputed number of absences per region, day, absence type and role
+ * Maintained incrementally on create/approve/reject, read by capacity checks and overload warnings.
+ * Only requests of active users are counted.
+ */
+@Entity
+@Table(name = "absence_day_counters",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"region_id", "absence_date", "absence_type", "role"}),
+       indexes = @Index(name = "idx_absence_day_counters_region_date", columnList = "region_id, absence_date"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AbsenceDayCounter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "absence_day_counter_seq")
+    @SequenceGenerator(name = "absence_day_counter_seq", sequenceName = "absence_day_counter_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "region_id", nullable = false)
+    private Long regionId;
+
+    @Column(name = "absence_date", nullable = false)
+    private LocalDate absenceDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "absence_type", nullable = false)
+    private AbsenceType absenceType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private Role role;  // Role of the absent users, so role-scoped rules count only their own role
+
+    @Column(nullable = false)
+    private Integer pendingCount = 0;
+
+    @Column(nullable = false)
+    private Integer approvedCount = 0;
+
+    public AbsenceDayCounter(Long regionId, LocalDate absenceDate, AbsenceType absenceType, Role role) {
+        this.regionId = regionId;
+        this.absenceDate = absenceDate;
+        this.absenceType = absenceType;
+        this.role = role;
+    }
+}
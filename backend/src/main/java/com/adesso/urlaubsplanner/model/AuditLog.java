@@ -9,9 +9,16 @@ import java.time.LocalDateTime;
 
 /**
  * Entity for tracking all system actions for audit purposes
+ *
+ * Rows are partitioned by month (yyyymm); months beyond the retention period are moved
+ * to compressed archive files and removed from the table (see AuditArchiveService).
+ * Only time range queries are limited to the partitions of their range. Lookups by performer,
+ * target user or action have no time bound and read the whole table; archival is what keeps
+ * that table at the retention period.
  */
 @Entity
-@Table(name = "audit_logs")
+@Table(name = "audit_logs",
+       indexes = @Index(name = "idx_audit_logs_partition_timestamp", columnList = "partition_month, timestamp"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -42,6 +49,21 @@ public class AuditLog {
     @Column
     private String ipAddress;  // IP address of the user (optional)
 
+    @Column(name = "partition_month", nullable = false)
+    private Integer partitionMonth;  // Month of the timestamp as yyyymm
+
+    /**
+     * Partition key of a timestamp (yyyymm)
+     */
+    public static int partitionOf(LocalDateTime timestamp) {
+        return timestamp.getYear() * 100 + timestamp.getMonthValue();
+    }
+
+    @PrePersist
+    void assignPartition() {
+        partitionMonth = partitionOf(timestamp);
+    }
+
     public AuditLog(String action, String performedBy, String details) {
         this.action = action;
         this.performedBy = performedBy;
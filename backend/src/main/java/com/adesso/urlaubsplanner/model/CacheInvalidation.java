@@ -0,0 +1,43 @@
+package com.adesso.urlaubsplanner.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity for one data change announced to the other instances of a cluster
+ *
+ * Inserted in the writing transaction and polled by every instance; see JdbcInvalidationBus.
+ * Rows are only kept for a short retention period.
+ */
+@Entity
+@Table(name = "cache_invalidations", indexes = {
+        @Index(name = "idx_cache_invalidations_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidation {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, length = 36)
+    private String origin;  // Instance that made the change
+
+    @Column(name = "region_id")
+    private Long regionId;  // Changed region (null = users without region)
+
+    @Column(nullable = false)
+    private boolean allRegions;
+
+    @Column(length = 32)
+    private String topic;  // DATA or CAPACITY_RULES (null = DATA, rows written before topics existed)
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,61 @@
+package com.adesso.urlaubsplanner.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing a capacity rule for concurrent absences
+ *
+ * Examples:
+ *  - region Dortmund, type VACATION, maxConcurrent 3 -> at most 3 people on vacation per day
+ *  - type HOME_OFFICE, countsTowardsCapacity false -> home office never counts as absence
+ * Empty region/role/type fields match everything.
+ */
+@Entity
+@Table(name = "capacity_rules")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CapacityRule {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column
+    private Long regionId;  // Region the rule applies to (null = all regions)
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private Role role;  // Role of the requesting user the rule applies to (null = all roles)
+
+    @Enumerated(EnumType.STRING)
+    @Column
+    private AbsenceType absenceType;  // Absence type counted by the rule (null = all counting types)
+
+    @Column
+    private Integer maxConcurrent;  // Max concurrent absences per day (null for exclusion rules)
+
+    @Column(nullable = false)
+    private Boolean countsTowardsCapacity = true;  // false: absenceType is ignored by all capacity checks
+
+    @Column(nullable = false)
+    private Boolean includePending = true;  // Count pending requests in addition to approved ones
+
+    @Column(nullable = false)
+    private Boolean active = true;
+
+    @Column
+    private String description;
+
+    /**
+     * Check whether the rule applies to a request in a region by a user with a role
+     */
+    public boolean appliesTo(Long requestRegionId, Role requestRole) {
+        return Boolean.TRUE.equals(active)
+                && (regionId == null || regionId.equals(requestRegionId))
+                && (role == null || role == requestRole);
+    }
+}
@@ -0,0 +1,61 @@
+package com.adesso.urlaubsplanner.model;
+
+import com.fasterxml.jackson.annotation.JsonRawValue;
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entity for one entry of the change feed of vacation requests and users
+ *
+ * Sequence numbers come from a database sequence, one per entry. Writers commit in any order
+ * and rolled-back writers leave gaps, so readers only see entries up to the change log's
+ * high-water mark (see ChangeLogService).
+ */
+@Entity
+@Table(name = "change_log", indexes = {
+        @Index(name = "idx_change_log_entity", columnList = "entity_type, entity_id, seq"),
+        @Index(name = "idx_change_log_region", columnList = "region_id, seq")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChangeLogEntry {
+
+    public static final String VACATION_REQUEST = "VACATION_REQUEST";
+    public static final String USER = "USER";
+    public static final String DELETED = "DELETED";
+    // Removal from a region's feed after the employee moved to another region
+    public static final String MOVED = "MOVED";
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "change_log_seq")
+    @SequenceGenerator(name = "change_log_seq", sequenceName = "change_log_seq", allocationSize = 1)
+    private Long seq;  // allocationSize 1: numbers pre-allocated by one instance would stall the others' readers
+
+    @Column(name = "entity_type", nullable = false)
+    private String entityType;  // VACATION_REQUEST, USER
+
+    @Column(name = "entity_id", nullable = false)
+    private Long entityId;
+
+    @Column(nullable = false)
+    private String operation;  // CREATED, APPROVED, REJECTED, UPDATED, DEACTIVATED, DELETED, MOVED
+
+    @Column(name = "region_id")
+    private Long regionId;  // Region of the affected employee (null for users without region)
+
+    @Column(nullable = false)
+    private String changedBy;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+
+    // State of the entity after the change as JSON; null for deletions
+    @JsonRawValue
+    @Column(length = 4000)
+    private String payload;
+}
@@ -0,0 +1,35 @@
+package com.adesso.urlaubsplanner.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Lock row of a scheduled job, so a job runs on one instance of a cluster at a time
+ *
+ * An instance takes the lock by moving lockedUntil into the future while it lies in the past;
+ * see SchedulerLockService.
+ */
+@Entity
+@Table(name = "scheduler_locks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SchedulerLock {
+
+    @Id
+    @Column(length = 64)
+    private String name;  // Job name
+
+    @Column(nullable = false)
+    private LocalDateTime lockedUntil;
+
+    @Column(nullable = false)
+    private LocalDateTime lockedAt;
+
+    @Column(nullable = false)
+    private String lockedBy;  // Instance that holds or last held the lock
+}
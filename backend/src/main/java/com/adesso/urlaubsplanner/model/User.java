@@ -2,19 +2,29 @@ package com.adesso.urlaubsplanner.model;
 
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
-import lombok.Data;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.Objects;
 
 /**
  * Entity representing a user in the system
+ *
+ * The region association is lazy; use cases that need it (team listing,
+ * statistics) load it through the named entity graphs declared here.
  */
 @Entity
 @Table(name = "users")
-@Data
+@NamedEntityGraph(name = User.GRAPH_WITH_REGION, attributeNodes = @NamedAttributeNode("region"))
+@Getter
+@Setter
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
 
+    public static final String GRAPH_WITH_REGION = "User.withRegion";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,20 +45,48 @@ public class User {
     @Column(nullable = false)
     private Integer totalVacationDays = 30;
 
+    @Column(nullable = false)
+    private Integer carriedOverDays = 0;  // Remaining days taken over from the previous year
+
     @Column(nullable = false)
     private Integer usedVacationDays = 0;
 
     @Column(nullable = false)
     private Boolean active = true;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "region_id")
     private Region region;
 
     /**
-     * Calculate remaining vacation days
+     * Calculate remaining vacation days of the current year
      */
     public Integer getRemainingVacationDays() {
-        return totalVacationDays - usedVacationDays;
+        return totalVacationDays + carriedOverDays - usedVacationDays;
+    }
+
+    /**
+     * Identity is based on the database id only, so comparing or hashing a user
+     * never initializes the lazy region association
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof User other)) {
+            return false;
+        }
+        return id != null && id.equals(other.getId());
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(User.class);
+    }
+
+    @Override
+    public String toString() {
+        return "User(id=" + id + ", username=" + username + ", role=" + role + ")";
     }
 }
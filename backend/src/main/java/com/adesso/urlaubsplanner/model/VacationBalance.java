@@ -0,0 +1,54 @@
+package com.adesso.urlaubsplanner.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Entity representing a user's vacation balance for one calendar year (ledger entry)
+ */
+@Entity
+@Table(name = "vacation_balances",
+       uniqueConstraints = @UniqueConstraint(columnNames = {"username", "balance_year"}),
+       indexes = @Index(name = "idx_vacation_balances_year", columnList = "balance_year"))
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationBalance {
+
+    // Sequence ids allow JDBC batch inserts during the year rollover
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "vacation_balance_seq")
+    @SequenceGenerator(name = "vacation_balance_seq", sequenceName = "vacation_balance_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String username;
+
+    @Column(name = "balance_year", nullable = false)
+    private Integer year;
+
+    @Column(nullable = false)
+    private Integer entitledDays = 0;  // Annual quota of that year
+
+    @Column(nullable = false)
+    private Integer carriedOverDays = 0;  // Remaining days taken over from the previous year
+
+    @Column(nullable = false)
+    private Integer usedDays = 0;
+
+    public VacationBalance(String username, Integer year, Integer entitledDays, Integer carriedOverDays) {
+        this.username = username;
+        this.year = year;
+        this.entitledDays = entitledDays;
+        this.carriedOverDays = carriedOverDays;
+    }
+
+    /**
+     * Calculate remaining days of that year
+     */
+    public Integer getRemainingDays() {
+        return entitledDays + carriedOverDays - usedDays;
+    }
+}
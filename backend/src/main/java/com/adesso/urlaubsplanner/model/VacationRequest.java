@@ -6,13 +6,16 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.temporal.ChronoUnit;
 
 /**
  * Entity representing a vacation request
  */
 @Entity
-@Table(name = "vacation_requests")
+@Table(name = "vacation_requests", indexes = {
+        @Index(name = "idx_vacation_requests_employee_start", columnList = "employee_name, start_date")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -54,6 +57,19 @@ public class VacationRequest {
     @Column(nullable = false)
     private LocalDate createdAt = LocalDate.now();
 
+    @Column(nullable = false)
+    private LocalDateTime lastModifiedAt = LocalDateTime.now();  // Last change; the iCalendar DTSTAMP of the request
+
+    // Incremented on every change; also the iCalendar SEQUENCE of the request
+    @Version
+    private Long version;
+
+    @PrePersist
+    @PreUpdate
+    void touch() {
+        lastModifiedAt = LocalDateTime.now();
+    }
+
     /**
      * Calculate the number of vacation days requested
      * Includes both start and end dates
@@ -0,0 +1,32 @@
+package com.adesso.urlaubsplanner.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marker of a vacation year closed by the ledger rollover; a closed year is never rolled over again
+ */
+@Entity
+@Table(name = "vacation_year_closings")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class VacationYearClosing {
+
+    @Id
+    @Column(name = "closed_year")
+    private Integer year;
+
+    @Column(nullable = false)
+    private LocalDateTime closedAt;
+
+    @Column(nullable = false)
+    private String closedBy;
+
+    @Column(nullable = false)
+    private Integer processedUsers;
+}
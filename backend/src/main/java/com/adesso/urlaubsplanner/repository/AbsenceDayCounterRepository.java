@@ -0,0 +1,47 @@
+package com.adesso.urlaubsplanner.repository;
+
+import com.adesso.urlaubsplanner.model.AbsenceDayCounter;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.Role;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Repository for AbsenceDayCounter entity
+ */
+@Repository
+public interface AbsenceDayCounterRepository extends JpaRepository<AbsenceDayCounter, Long> {
+
+    List<AbsenceDayCounter> findByRegionIdAndAbsenceDateBetween(Long regionId, LocalDate from, LocalDate to);
+
+    List<AbsenceDayCounter> findByRegionId(Long regionId);
+
+    @Query("SELECT c.absenceDate FROM AbsenceDayCounter c WHERE c.regionId = :regionId " +
+           "AND c.absenceType = :absenceType AND c.role = :role AND c.absenceDate BETWEEN :from AND :to")
+    List<LocalDate> findDates(@Param("regionId") Long regionId, @Param("absenceType") AbsenceType absenceType,
+                              @Param("role") Role role, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    /**
+     * Add deltas to the counters of a date range in place (never below zero)
+     * Returns the number of updated rows; rows missing in the range are not created
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE AbsenceDayCounter c SET " +
+           "c.pendingCount = CASE WHEN c.pendingCount + :pendingDelta < 0 THEN 0 ELSE c.pendingCount + :pendingDelta END, " +
+           "c.approvedCount = CASE WHEN c.approvedCount + :approvedDelta < 0 THEN 0 ELSE c.approvedCount + :approvedDelta END " +
+           "WHERE c.regionId = :regionId AND c.absenceType = :absenceType AND c.role = :role " +
+           "AND c.absenceDate BETWEEN :from AND :to")
+    int adjust(@Param("regionId") Long regionId, @Param("absenceType") AbsenceType absenceType,
+               @Param("role") Role role, @Param("from") LocalDate from, @Param("to") LocalDate to,
+               @Param("pendingDelta") int pendingDelta, @Param("approvedDelta") int approvedDelta);
+
+    @Modifying
+    @Query("DELETE FROM AbsenceDayCounter c WHERE c.regionId = :regionId")
+    int deleteByRegion(@Param("regionId") Long regionId);
+}
@@ -1,11 +1,17 @@
 package com.adesso.urlaubsplanner.repository;
 
 import com.adesso.urlaubsplanner.model.AuditLog;
+import jakarta.persistence.QueryHint;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for AuditLog entity
@@ -19,7 +25,40 @@ public interface AuditLogRepository extends JpaRepository<AuditLog, Long> {
     
     List<AuditLog> findByTargetUserOrderByTimestampDesc(String targetUser);
     
-    List<AuditLog> findByTimestampBetweenOrderByTimestampDesc(LocalDateTime start, LocalDateTime end);
+    /**
+     * Range query restricted to the partitions of the range, so only those index ranges are read
+     */
+    List<AuditLog> findByPartitionMonthBetweenAndTimestampBetweenOrderByTimestampDesc(Integer fromMonth, Integer toMonth,
+                                                                                      LocalDateTime start, LocalDateTime end);
     
     List<AuditLog> findByActionOrderByTimestampDesc(String action);
+
+    @Query("SELECT DISTINCT a.partitionMonth FROM AuditLog a WHERE a.partitionMonth < :month ORDER BY a.partitionMonth")
+    List<Integer> findPartitionsBefore(@Param("month") Integer month);
+
+    /**
+     * Stream all rows of one partition in id order
+     * Must be consumed inside a read-only transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a WHERE a.partitionMonth = :month ORDER BY a.id")
+    Stream<AuditLog> streamPartition(@Param("month") Integer month);
+
+    /**
+     * Stream all rows in id order
+     * Must be consumed inside a read-only transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT a FROM AuditLog a ORDER BY a.id")
+    Stream<AuditLog> streamAll();
+
+    @Modifying
+    @Query("DELETE FROM AuditLog a WHERE a.partitionMonth = :month AND a.id <= :maxId")
+    int deletePartition(@Param("month") Integer month, @Param("maxId") Long maxId);
 }
@@ -0,0 +1,16 @@
+package com.adesso.urlaubsplanner.repository;
+
+import com.adesso.urlaubsplanner.model.CapacityRule;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Repository for CapacityRule entity
+ */
+@Repository
+public interface CapacityRuleRepository extends JpaRepository<CapacityRule, Long> {
+
+    List<CapacityRule> findByActiveTrue();
+}
@@ -0,0 +1,56 @@
+package com.adesso.urlaubsplanner.repository;
+
+import com.adesso.urlaubsplanner.dto.ChangeLogSeqRow;
+import com.adesso.urlaubsplanner.model.ChangeLogEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Repository for ChangeLogEntry entity
+ */
+@Repository
+public interface ChangeLogEntryRepository extends JpaRepository<ChangeLogEntry, Long> {
+
+    List<ChangeLogEntry> findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(Long since, Long upTo,
+                                                                            Pageable pageable);
+
+    List<ChangeLogEntry> findBySeqGreaterThanAndSeqLessThanEqualAndRegionIdOrderBySeqAsc(Long since, Long upTo,
+                                                                                       Long regionId,
+                                                                                       Pageable pageable);
+
+    /**
+     * Find the sequence numbers and times of the entries after a sequence number, oldest first
+     */
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.ChangeLogSeqRow(e.seq, e.changedAt) FROM ChangeLogEntry e " +
+            "WHERE e.seq > :after ORDER BY e.seq")
+    List<ChangeLogSeqRow> findSeqRowsAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT MAX(e.seq) FROM ChangeLogEntry e")
+    Long findMaxSeq();
+
+    /**
+     * Drop entries older than the cutoff that are superseded by a newer entry of the same entity in the same region
+     * Compacting per region keeps the last entry a region-filtered consumer sees (e.g. the MOVED marker)
+     */
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry e WHERE e.changedAt < :cutoff AND EXISTS (" +
+            "SELECT n.seq FROM ChangeLogEntry n WHERE n.entityType = e.entityType " +
+            "AND n.entityId = e.entityId AND n.seq > e.seq " +
+            "AND (n.regionId = e.regionId OR (n.regionId IS NULL AND e.regionId IS NULL)))")
+    int deleteSupersededBefore(@Param("cutoff") LocalDateTime cutoff);
+
+    /**
+     * Drop deletion and move markers older than the cutoff
+     */
+    @Modifying
+    @Query("DELETE FROM ChangeLogEntry e WHERE e.operation IN ('" + ChangeLogEntry.DELETED + "', '" +
+            ChangeLogEntry.MOVED + "') AND e.changedAt < :cutoff")
+    int deleteTombstonesBefore(@Param("cutoff") LocalDateTime cutoff);
+}
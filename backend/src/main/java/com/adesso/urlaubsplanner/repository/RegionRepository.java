@@ -1,7 +1,9 @@
 package com.adesso.urlaubsplanner.repository;
 
 import com.adesso.urlaubsplanner.model.Region;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -15,4 +17,10 @@ public interface RegionRepository extends JpaRepository<Region, Long> {
     Optional<Region> findByName(String name);
     
     boolean existsByName(String name);
+
+    /**
+     * Load a region and lock its row until the transaction ends (serializes capacity checks and counter updates)
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<Region> findLockedById(Long id);
 }
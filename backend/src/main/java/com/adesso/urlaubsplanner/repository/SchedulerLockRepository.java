@@ -0,0 +1,33 @@
+package com.adesso.urlaubsplanner.repository;
+
+import com.adesso.urlaubsplanner.model.SchedulerLock;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Repository for SchedulerLock entity
+ */
+@Repository
+public interface SchedulerLockRepository extends JpaRepository<SchedulerLock, String> {
+
+    /**
+     * Take an expired lock; returns 1 if this caller got it
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until, l.lockedAt = :now, l.lockedBy = :lockedBy " +
+           "WHERE l.name = :name AND l.lockedUntil <= :now")
+    int acquire(@Param("name") String name, @Param("now") LocalDateTime now, @Param("until") LocalDateTime until,
+                @Param("lockedBy") String lockedBy);
+
+    /**
+     * Release a held lock, keeping it until the given time (the minimum lock duration)
+     */
+    @Modifying
+    @Query("UPDATE SchedulerLock l SET l.lockedUntil = :until WHERE l.name = :name AND l.lockedBy = :lockedBy")
+    int release(@Param("name") String name, @Param("until") LocalDateTime until, @Param("lockedBy") String lockedBy);
+}
@@ -1,25 +1,133 @@
 package com.adesso.urlaubsplanner.repository;
 
+import com.adesso.urlaubsplanner.dto.VacationUsageRow;
 import com.adesso.urlaubsplanner.model.Region;
 import com.adesso.urlaubsplanner.model.Role;
 import com.adesso.urlaubsplanner.model.User;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository for User entity
+ *
+ * Listing queries fetch the region in the same statement via the
+ * {@link User#GRAPH_WITH_REGION} entity graph, as does the login lookup whose
+ * response carries the region. Access-check lookups leave the region lazy.
  */
 @Repository
 public interface UserRepository extends JpaRepository<User, Long> {
     
+    /**
+     * Login / access-check lookup, region stays lazy
+     */
     Optional<User> findByUsername(String username);
+
+    /**
+     * Login lookup; the login response shows the region, so it is fetched in the same statement
+     */
+    @EntityGraph(User.GRAPH_WITH_REGION)
+    Optional<User> findForLoginByUsername(String username);
+
+    /**
+     * Username lookup for views that show the region
+     */
+    @EntityGraph(User.GRAPH_WITH_REGION)
+    Optional<User> findWithRegionByUsername(String username);
     
     boolean existsByUsername(String username);
+
+    /**
+     * Replace a password hash unless it was changed in the meantime (rehash on login)
+     */
+    @Modifying
+    @Query("UPDATE User u SET u.password = :newHash WHERE u.username = :username AND u.password = :oldHash")
+    int replacePasswordHash(@Param("username") String username, @Param("oldHash") String oldHash,
+                            @Param("newHash") String newHash);
+
+    @Override
+    @EntityGraph(User.GRAPH_WITH_REGION)
+    List<User> findAll();
+
+    @Override
+    @EntityGraph(User.GRAPH_WITH_REGION)
+    Optional<User> findById(Long id);
     
+    @EntityGraph(User.GRAPH_WITH_REGION)
     List<User> findByRegion(Region region);
     
+    @EntityGraph(User.GRAPH_WITH_REGION)
     List<User> findByRegionAndRole(Region region, Role role);
+
+    @EntityGraph(User.GRAPH_WITH_REGION)
+    List<User> findByRegionId(Long regionId);
+
+    long countByRegionId(Long regionId);
+
+    List<User> findByRole(Role role);
+
+    /**
+     * Stream vacation usage rows of all users with a role
+     * Must be consumed inside a read-only transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.VacationUsageRow(u.username, u.fullName, r.name, " +
+           "u.totalVacationDays + u.carriedOverDays, u.usedVacationDays) " +
+           "FROM User u LEFT JOIN u.region r WHERE u.role = :role ORDER BY u.username")
+    Stream<VacationUsageRow> streamVacationUsage(@Param("role") Role role);
+
+    /**
+     * Stream vacation usage rows of all users with a role in one region
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.VacationUsageRow(u.username, u.fullName, r.name, " +
+           "u.totalVacationDays + u.carriedOverDays, u.usedVacationDays) " +
+           "FROM User u JOIN u.region r WHERE u.role = :role AND r.id = :regionId ORDER BY u.username")
+    Stream<VacationUsageRow> streamVacationUsageByRegion(@Param("role") Role role, @Param("regionId") Long regionId);
+
+    /**
+     * Stream vacation usage rows of a past or current year from the vacation ledger
+     * Users without a ledger entry for that year report their quota and zero used days
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.VacationUsageRow(u.username, u.fullName, r.name, " +
+           "COALESCE(b.entitledDays + b.carriedOverDays, u.totalVacationDays), COALESCE(b.usedDays, 0)) " +
+           "FROM User u LEFT JOIN u.region r " +
+           "LEFT JOIN VacationBalance b ON b.username = u.username AND b.year = :year " +
+           "WHERE u.role = :role ORDER BY u.username")
+    Stream<VacationUsageRow> streamVacationUsageForYear(@Param("role") Role role, @Param("year") Integer year);
+
+    /**
+     * Stream vacation usage rows of one region for a year from the vacation ledger
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.VacationUsageRow(u.username, u.fullName, r.name, " +
+           "COALESCE(b.entitledDays + b.carriedOverDays, u.totalVacationDays), COALESCE(b.usedDays, 0)) " +
+           "FROM User u JOIN u.region r " +
+           "LEFT JOIN VacationBalance b ON b.username = u.username AND b.year = :year " +
+           "WHERE u.role = :role AND r.id = :regionId ORDER BY u.username")
+    Stream<VacationUsageRow> streamVacationUsageForYearByRegion(@Param("role") Role role,
+                                                                @Param("regionId") Long regionId,
+                                                                @Param("year") Integer year);
 }
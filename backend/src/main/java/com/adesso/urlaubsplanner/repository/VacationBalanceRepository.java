@@ -0,0 +1,33 @@
+package com.adesso.urlaubsplanner.repository;
+
+import com.adesso.urlaubsplanner.model.VacationBalance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Repository for VacationBalance ledger entries
+ */
+@Repository
+public interface VacationBalanceRepository extends JpaRepository<VacationBalance, Long> {
+
+    Optional<VacationBalance> findByUsernameAndYear(String username, Integer year);
+
+    List<VacationBalance> findByUsernameOrderByYearDesc(String username);
+
+    List<VacationBalance> findByYearAndUsernameIn(Integer year, Collection<String> usernames);
+
+    /**
+     * Add used days to an existing ledger entry without loading it
+     * Returns the number of updated rows (0 if the entry does not exist yet)
+     */
+    @Modifying
+    @Query("UPDATE VacationBalance b SET b.usedDays = b.usedDays + :days WHERE b.username = :username AND b.year = :year")
+    int addUsedDays(@Param("username") String username, @Param("year") Integer year, @Param("days") Integer days);
+}
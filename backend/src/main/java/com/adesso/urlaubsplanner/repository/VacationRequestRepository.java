@@ -1,13 +1,22 @@
 package com.adesso.urlaubsplanner.repository;
 
+import com.adesso.urlaubsplanner.dto.CalendarFeedRow;
+import com.adesso.urlaubsplanner.dto.CounterSourceRow;
+import com.adesso.urlaubsplanner.dto.RequestSearchRow;
 import com.adesso.urlaubsplanner.model.VacationRequest;
 import com.adesso.urlaubsplanner.model.VacationStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.stream.Stream;
 
 /**
  * Repository for VacationRequest entity
@@ -20,10 +29,79 @@ public interface VacationRequestRepository extends JpaRepository<VacationRequest
     List<VacationRequest> findByEmployeeNameAndStatus(String employeeName, VacationStatus status);
     
     List<VacationRequest> findAllByOrderByCreatedAtDesc();
+
+    /**
+     * Page through an employee's requests (served by the employee_name/start_date index)
+     */
+    Page<VacationRequest> findByEmployeeName(String employeeName, Pageable pageable);
+
+    /**
+     * Find an employee's open requests and approved absences that have not ended yet
+     */
+    @Query("SELECT vr FROM VacationRequest vr WHERE vr.employeeName = :employeeName " +
+           "AND (vr.status = com.adesso.urlaubsplanner.model.VacationStatus.PENDING " +
+           "OR (vr.status = com.adesso.urlaubsplanner.model.VacationStatus.APPROVED AND vr.endDate >= :today)) " +
+           "ORDER BY vr.startDate")
+    List<VacationRequest> findOpenAndUpcoming(@Param("employeeName") String employeeName,
+                                              @Param("today") LocalDate today);
     
     /**
      * Find all vacation requests for employees in a specific region
      */
     @Query("SELECT vr FROM VacationRequest vr JOIN User u ON vr.employeeName = u.username WHERE u.region.id = :regionId ORDER BY vr.createdAt DESC")
     List<VacationRequest> findByEmployeeRegion(@Param("regionId") Long regionId);
+
+    /**
+     * Stream calendar rows of a region's requests that end on or after a date
+     * Must be consumed inside a read-only transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.CalendarFeedRow(vr.id, vr.employeeName, u.fullName, " +
+           "vr.startDate, vr.endDate, vr.absenceType, vr.status, vr.representativeName, vr.version, vr.lastModifiedAt) " +
+           "FROM VacationRequest vr JOIN User u ON vr.employeeName = u.username " +
+           "WHERE u.region.id = :regionId AND vr.endDate >= :since ORDER BY vr.id")
+    Stream<CalendarFeedRow> streamCalendarFeedByRegion(@Param("regionId") Long regionId,
+                                                       @Param("since") LocalDate since);
+
+    /**
+     * Stream calendar rows of one employee's requests that end on or after a date
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.CalendarFeedRow(vr.id, vr.employeeName, u.fullName, " +
+           "vr.startDate, vr.endDate, vr.absenceType, vr.status, vr.representativeName, vr.version, vr.lastModifiedAt) " +
+           "FROM VacationRequest vr JOIN User u ON vr.employeeName = u.username " +
+           "WHERE vr.employeeName = :employeeName AND vr.endDate >= :since ORDER BY vr.id")
+    Stream<CalendarFeedRow> streamCalendarFeedByEmployee(@Param("employeeName") String employeeName,
+                                                         @Param("since") LocalDate since);
+
+    /**
+     * Stream all requests with notes or an approval reason, for the search index rebuild
+     * Must be consumed inside a read-only transaction and closed afterwards
+     */
+    @QueryHints({
+            @QueryHint(name = "org.hibernate.fetchSize", value = "1000"),
+            @QueryHint(name = "org.hibernate.readOnly", value = "true")
+    })
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.RequestSearchRow(vr.id, u.region.id, vr.status, vr.createdAt, " +
+           "vr.notes, vr.approvalReason) " +
+           "FROM VacationRequest vr LEFT JOIN User u ON vr.employeeName = u.username " +
+           "WHERE vr.notes IS NOT NULL OR vr.approvalReason IS NOT NULL ORDER BY vr.id")
+    Stream<RequestSearchRow> streamSearchRows();
+
+    /**
+     * Find the counted attributes of the pending and approved requests of a region's active users,
+     * for the counter rebuild
+     */
+    @Query("SELECT new com.adesso.urlaubsplanner.dto.CounterSourceRow(vr.absenceType, u.role, vr.status, " +
+           "vr.startDate, vr.endDate) " +
+           "FROM VacationRequest vr JOIN User u ON vr.employeeName = u.username " +
+           "WHERE u.region.id = :regionId AND u.active = true AND vr.status IN (com.adesso.urlaubsplanner.model.VacationStatus.PENDING, " +
+           "com.adesso.urlaubsplanner.model.VacationStatus.APPROVED)")
+    List<CounterSourceRow> findCounterSourcesByRegion(@Param("regionId") Long regionId);
 }
@@ -0,0 +1,12 @@
+package com.adesso.urlaubsplanner.repository;
+
+import com.adesso.urlaubsplanner.model.VacationYearClosing;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for VacationYearClosing entity
+ */
+@Repository
+public interface VacationYearClosingRepository extends JpaRepository<VacationYearClosing, Integer> {
+}
@@ -1,7 +1,9 @@
 package com.adesso.urlaubsplanner.service;
 
+import com.adesso.urlaubsplanner.dto.ReportFormat;
 import com.adesso.urlaubsplanner.dto.StatisticsDTO;
 import com.adesso.urlaubsplanner.dto.UserDTO;
+import com.adesso.urlaubsplanner.dto.VacationUsageRow;
 import com.adesso.urlaubsplanner.model.Region;
 import com.adesso.urlaubsplanner.model.Role;
 import com.adesso.urlaubsplanner.model.User;
@@ -9,19 +11,32 @@ import com.adesso.urlaubsplanner.model.VacationRequest;
 import com.adesso.urlaubsplanner.repository.RegionRepository;
 import com.adesso.urlaubsplanner.repository.UserRepository;
 import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import com.adesso.urlaubsplanner.service.CapacityRuleService.CounterScope;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * Service for Super Manager admin operations
  */
+@Lazy
 @Service
 @RequiredArgsConstructor
 public class AdminService {
@@ -31,6 +46,11 @@ public class AdminService {
     private final VacationRequestRepository vacationRequestRepository;
     private final PasswordEncoder passwordEncoder;
     private final AuditLogService auditLogService;
+    private final DataVersionService dataVersionService;
+    private final ObjectMapper objectMapper;
+    private final ChangeLogService changeLogService;
+    private final CapacityRuleService capacityRuleService;
+    private final SearchIndexService searchIndexService;
 
     /**
      * Get all users in the system
@@ -73,6 +93,9 @@ public class AdminService {
         }
 
         User saved = userRepository.save(user);
+        dataVersionService.markChanged(regionIdOf(saved));
+        changeLogService.recordUserChange("CREATED", saved, createdBy);
+        searchIndexService.forgetUser(saved.getUsername());
 
         // Audit log
         String regionInfo = saved.getRegion() != null ? " in region " + saved.getRegion().getName() : "";
@@ -91,6 +114,8 @@ public class AdminService {
     @Transactional
     public User updateUser(Long id, UserDTO dto, String updatedBy) {
         User user = getUserById(id);
+        Long previousRegionId = regionIdOf(user);
+        CounterScope previousScope = CounterScope.of(user);
 
         user.setFullName(dto.getFullName());
         user.setRole(dto.getRole());
@@ -111,6 +136,19 @@ public class AdminService {
         }
 
         User saved = userRepository.save(user);
+        boolean regionChanged = !Objects.equals(previousRegionId, regionIdOf(saved));
+        if (regionChanged || !previousScope.equals(CounterScope.of(saved))) {
+            // The user's absences count towards and appear in the new region (and role) from now on
+            List<VacationRequest> requests = vacationRequestRepository.findByEmployeeName(saved.getUsername());
+            capacityRuleService.moveRequests(requests, previousScope, CounterScope.of(saved));
+            if (regionChanged) {
+                changeLogService.recordRegionMove(saved, previousRegionId, requests, updatedBy);
+                searchIndexService.forgetUser(saved.getUsername());
+            }
+        }
+        dataVersionService.markChanged(previousRegionId);
+        dataVersionService.markChanged(regionIdOf(saved));
+        changeLogService.recordUserChange("UPDATED", saved, updatedBy);
 
         // Audit log
         String regionInfo = saved.getRegion() != null ? " in region " + saved.getRegion().getName() : "";
@@ -134,8 +172,11 @@ public class AdminService {
             throw new IllegalStateException("Cannot deactivate Super Manager");
         }
 
+        uncountRequests(user);
         user.setActive(false);
         userRepository.save(user);
+        dataVersionService.markChanged(regionIdOf(user));
+        changeLogService.recordUserChange("DEACTIVATED", user, deactivatedBy);
 
         // Audit log
         auditLogService.logAction(
@@ -156,7 +197,11 @@ public class AdminService {
             throw new IllegalStateException("Cannot delete Super Manager");
         }
 
+        uncountRequests(user);
         userRepository.delete(user);
+        dataVersionService.markChanged(regionIdOf(user));
+        changeLogService.recordUserDeleted(user, deletedBy);
+        searchIndexService.forgetUser(user.getUsername());
 
         // Audit log
         auditLogService.logAction(
@@ -176,6 +221,8 @@ public class AdminService {
         Integer oldQuota = user.getTotalVacationDays();
         user.setTotalVacationDays(totalDays);
         User saved = userRepository.save(user);
+        dataVersionService.markChanged(regionIdOf(saved));
+        changeLogService.recordUserChange("UPDATED", saved, updatedBy);
 
         // Audit log
         auditLogService.logAction(
@@ -242,9 +289,7 @@ public class AdminService {
      * Get vacation usage report for all employees
      */
     public Map<String, Map<String, Object>> getVacationUsageReport() {
-        List<User> employees = userRepository.findAll().stream()
-                .filter(u -> u.getRole() == Role.EMPLOYEE)
-                .toList();
+        List<User> employees = userRepository.findByRole(Role.EMPLOYEE);
 
         Map<String, Map<String, Object>> report = new HashMap<>();
 
@@ -254,12 +299,108 @@ public class AdminService {
             userData.put("totalDays", employee.getTotalVacationDays());
             userData.put("usedDays", employee.getUsedVacationDays());
             userData.put("remainingDays", employee.getRemainingVacationDays());
-            userData.put("usagePercentage", 
-                (employee.getUsedVacationDays() * 100.0) / employee.getTotalVacationDays());
+            userData.put("usagePercentage", employee.getTotalVacationDays() == 0 ? 0.0
+                : (employee.getUsedVacationDays() * 100.0) / employee.getTotalVacationDays());
 
             report.put(employee.getUsername(), userData);
         }
 
         return report;
     }
+
+    /**
+     * Stream the vacation usage report of all employees as CSV or NDJSON
+     * Rows are read through a database cursor and written one by one, so memory use does
+     * not grow with the number of employees. With a year, figures come from the vacation
+     * ledger (one row per user) instead of the current-year counters.
+     */
+    @Transactional(readOnly = true)
+    public void writeVacationUsageReport(ReportFormat format, Long regionId, Integer year, Writer writer) {
+        try (Stream<VacationUsageRow> rows = openVacationUsageStream(regionId, year)) {
+            if (format == ReportFormat.NDJSON) {
+                writeNdjson(rows, writer);
+            } else {
+                writeCsv(rows, writer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private Stream<VacationUsageRow> openVacationUsageStream(Long regionId, Integer year) {
+        if (year != null) {
+            return regionId != null
+                    ? userRepository.streamVacationUsageForYearByRegion(Role.EMPLOYEE, regionId, year)
+                    : userRepository.streamVacationUsageForYear(Role.EMPLOYEE, year);
+        }
+        return regionId != null
+                ? userRepository.streamVacationUsageByRegion(Role.EMPLOYEE, regionId)
+                : userRepository.streamVacationUsage(Role.EMPLOYEE);
+    }
+
+    private void writeCsv(Stream<VacationUsageRow> rows, Writer writer) throws IOException {
+        writer.write("Username,Full Name,Region,Total Days,Used Days,Remaining Days,Usage Percentage\n");
+        Iterator<VacationUsageRow> iterator = rows.iterator();
+        while (iterator.hasNext()) {
+            VacationUsageRow row = iterator.next();
+            writer.write(csvValue(row.username()));
+            writer.write(',');
+            writer.write(csvValue(row.fullName()));
+            writer.write(',');
+            writer.write(csvValue(row.regionName()));
+            writer.write(',');
+            writer.write(String.valueOf(row.totalDays()));
+            writer.write(',');
+            writer.write(String.valueOf(row.usedDays()));
+            writer.write(',');
+            writer.write(String.valueOf(row.remainingDays()));
+            writer.write(',');
+            writer.write(String.format(Locale.ROOT, "%.2f", row.usagePercentage()));
+            writer.write('\n');
+        }
+    }
+
+    private void writeNdjson(Stream<VacationUsageRow> rows, Writer writer) throws IOException {
+        try (JsonGenerator json = objectMapper.getFactory().createGenerator(writer)) {
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            json.setRootValueSeparator(new SerializedString("\n"));
+            Iterator<VacationUsageRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                VacationUsageRow row = iterator.next();
+                json.writeStartObject();
+                json.writeStringField("username", row.username());
+                json.writeStringField("fullName", row.fullName());
+                json.writeStringField("region", row.regionName());
+                json.writeNumberField("totalDays", row.totalDays());
+                json.writeNumberField("usedDays", row.usedDays());
+                json.writeNumberField("remainingDays", row.remainingDays());
+                json.writeNumberField("usagePercentage", Math.round(row.usagePercentage() * 100.0) / 100.0);
+                json.writeEndObject();
+            }
+            json.writeRaw('\n');
+        }
+    }
+
+    private String csvValue(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    /**
+     * Remove a user's pending and approved requests from the capacity counters
+     */
+    private void uncountRequests(User user) {
+        CounterScope scope = CounterScope.of(user);
+        capacityRuleService.moveRequests(vacationRequestRepository.findByEmployeeName(user.getUsername()),
+                scope, new CounterScope(null, scope.role()));
+    }
+
+    private Long regionIdOf(User user) {
+        return user.getRegion() != null ? user.getRegion().getId() : null;
+    }
 }
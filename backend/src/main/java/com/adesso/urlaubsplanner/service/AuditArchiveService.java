@@ -0,0 +1,215 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Service moving audit log entries beyond the retention period into archive files
+ *
+ * Each archived month (of the table store; of each expired segment of the segment store) becomes
+ * a gzip-compressed NDJSON file "audit-{yyyymm}-{firstId}-{lastId}.ndjson.gz" in the archive directory.
+ * The file is written to a temporary name, synced and renamed before the store deletes the entries,
+ * so an interrupted run never loses entries; a rerun rewrites the same file.
+ * Archive files live on the instance's disk: in a cluster, archive-dir must be a directory shared
+ * by all instances, or archival enabled on one instance only (archive-enabled), whose archives
+ * are then the only ones includeArchived can read.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class AuditArchiveService {
+
+    private static final Pattern ARCHIVE_FILE = Pattern.compile("audit-(\\d{6})-(\\d+)-(\\d+)\\.ndjson\\.gz");
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final Duration ARCHIVE_LOCK_AT_MOST = Duration.ofHours(6);
+    private static final Duration ARCHIVE_LOCK_AT_LEAST = Duration.ofMinutes(10);
+
+    private final AuditLogStore auditLogStore;
+    private final ObjectMapper objectMapper;
+    private final SchedulerLockService schedulerLockService;
+    private final ReentrantLock archiveLock = new ReentrantLock();
+
+    @Value("${urlaubsplaner.audit.retention-months:12}")
+    private int retentionMonths;
+
+    @Value("${urlaubsplaner.audit.archive-dir:data/audit-archive}")
+    private String archiveDir;
+
+    @Value("${urlaubsplaner.audit.archive-enabled:true}")
+    private boolean archiveEnabled;
+
+    @Value("${urlaubsplaner.audit.archive-read-limit:10000}")
+    private int archiveReadLimit;
+
+    /**
+     * Archive expired months shortly after the start of each month, on one instance of a cluster
+     */
+    @Scheduled(cron = "${urlaubsplaner.audit.archive-cron:0 15 2 1 * *}")
+    public void scheduledArchive() {
+        if (archiveEnabled) {
+            schedulerLockService.runLocked("audit-archive", ARCHIVE_LOCK_AT_MOST, ARCHIVE_LOCK_AT_LEAST,
+                    this::archiveExpired);
+        }
+    }
+
+    /**
+     * Archive all entries of months older than the retention period
+     * Returns the number of archived entries per month
+     */
+    public Map<Integer, Long> archiveExpired() {
+        if (!archiveEnabled) {
+            throw new IllegalStateException("Audit log archival is disabled on this instance");
+        }
+        if (!archiveLock.tryLock()) {
+            throw new IllegalStateException("Audit log archival is already running");
+        }
+        try {
+            int cutoff = AuditLog.partitionOf(LocalDate.now().withDayOfMonth(1).minusMonths(retentionMonths).atStartOfDay());
+            Map<Integer, Long> archived = auditLogStore.archiveBefore(cutoff, this::writeArchive);
+            if (!archived.isEmpty()) {
+                log.info("Audit log months archived to {}: {}", archiveDir, archived);
+            }
+            return archived;
+        } finally {
+            archiveLock.unlock();
+        }
+    }
+
+    /**
+     * Read the newest archived entries within a time range, newest first
+     * At most archive-read-limit entries are kept while reading. Months are read newest first and
+     * reading stops at the first older month once the limit is reached, as none of its entries
+     * could be newer than the ones kept.
+     */
+    public List<AuditLog> readArchived(LocalDateTime start, LocalDateTime end) {
+        int fromMonth = AuditLog.partitionOf(start);
+        int toMonth = AuditLog.partitionOf(end);
+        Path dir = Path.of(archiveDir);
+        if (!Files.isDirectory(dir)) {
+            return new ArrayList<>();
+        }
+
+        // Oldest kept entry at the head, so it is the one dropped when a newer one arrives
+        PriorityQueue<AuditLog> newest = new PriorityQueue<>(archiveReadLimit + 1,
+                Comparator.comparing(AuditLog::getTimestamp));
+        try (Stream<Path> files = Files.list(dir)) {
+            int lastMonth = Integer.MAX_VALUE;
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Matcher matcher = ARCHIVE_FILE.matcher(file.getFileName().toString());
+                if (!matcher.matches()) {
+                    continue;
+                }
+                int month = Integer.parseInt(matcher.group(1));
+                if (month < lastMonth && newest.size() >= archiveReadLimit) {
+                    log.info("Archived audit entries from {} to {} capped at the newest {}", start, end, archiveReadLimit);
+                    break;
+                }
+                lastMonth = month;
+                if (month >= fromMonth && month <= toMonth) {
+                    readArchiveFile(file, start, end, newest);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        List<AuditLog> logs = new ArrayList<>(newest);
+        logs.sort(Comparator.comparing(AuditLog::getTimestamp).reversed());
+        return logs;
+    }
+
+    private AuditLogStore.ArchivedRange writeArchive(int month, Iterator<AuditLog> entries) {
+        try {
+            Path dir = Files.createDirectories(Path.of(archiveDir));
+            Path temp = Files.createTempFile(dir, "audit-" + month + "-", ".tmp");
+            IdRange range;
+            try (FileOutputStream file = new FileOutputStream(temp.toFile());
+                 GZIPOutputStream gzip = new GZIPOutputStream(file, BUFFER_SIZE);
+                 Writer writer = new BufferedWriter(new OutputStreamWriter(gzip, StandardCharsets.UTF_8), BUFFER_SIZE)) {
+                range = writeEntries(entries, writer);
+                writer.flush();
+                gzip.finish();
+                file.getFD().sync();
+            }
+
+            if (range.count == 0) {
+                Files.delete(temp);
+            } else {
+                Path target = dir.resolve(String.format("audit-%d-%d-%d.ndjson.gz", month, range.firstId, range.lastId));
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new AuditLogStore.ArchivedRange(range.count, range.firstId, range.lastId);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not archive audit log month " + month, e);
+        }
+    }
+
+    private IdRange writeEntries(Iterator<AuditLog> entries, Writer writer) throws IOException {
+        IdRange range = new IdRange();
+        while (entries.hasNext()) {
+            AuditLog entry = entries.next();
+            writer.write(objectMapper.writeValueAsString(entry));
+            writer.write('\n');
+            if (range.count++ == 0) {
+                range.firstId = entry.getId();
+            }
+            range.lastId = entry.getId();
+        }
+        return range;
+    }
+
+    private void readArchiveFile(Path file, LocalDateTime start, LocalDateTime end,
+                                 PriorityQueue<AuditLog> newest) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file), BUFFER_SIZE), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                AuditLog entry = objectMapper.readValue(line, AuditLog.class);
+                if (!entry.getTimestamp().isBefore(start) && !entry.getTimestamp().isAfter(end)) {
+                    newest.add(entry);
+                    if (newest.size() > archiveReadLimit) {
+                        newest.poll();
+                    }
+                }
+            }
+        }
+    }
+
+    private static class IdRange {
+        private long count;
+        private long firstId;
+        private long lastId;
+    }
+}
@@ -1,73 +1,89 @@
 package com.adesso.urlaubsplanner.service;
 
 import com.adesso.urlaubsplanner.model.AuditLog;
-import com.adesso.urlaubsplanner.repository.AuditLogRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 
 /**
  * Service for audit logging
+ * Entries are kept by the configured {@link AuditLogStore}.
  */
 @Service
 @RequiredArgsConstructor
 public class AuditLogService {
 
-    private final AuditLogRepository auditLogRepository;
+    private final AuditLogStore auditLogStore;
+    private final AuditArchiveService auditArchiveService;
+    private final SearchIndexService searchIndexService;
 
     /**
      * Log a generic action
      */
     @Transactional
+    @Timed("urlaubsplaner.audit.writes")
     public void logAction(String action, String performedBy, String details) {
         AuditLog log = new AuditLog(action, performedBy, details);
-        auditLogRepository.save(log);
+        auditLogStore.append(log);
+        searchIndexService.indexAudit(log);
     }
 
     /**
      * Log a vacation request action
      */
     @Transactional
+    @Timed("urlaubsplaner.audit.writes")
     public void logRequestAction(String action, String performedBy, String targetUser, Long requestId, String details) {
         AuditLog log = new AuditLog(action, performedBy, targetUser, requestId, details);
-        auditLogRepository.save(log);
+        auditLogStore.append(log);
+        searchIndexService.indexAudit(log);
     }
 
     /**
      * Get all audit logs (Super Manager only)
      */
     public List<AuditLog> getAllLogs() {
-        return auditLogRepository.findAllByOrderByTimestampDesc();
+        return auditLogStore.findAll();
     }
 
     /**
      * Get logs by performer
      */
     public List<AuditLog> getLogsByPerformer(String username) {
-        return auditLogRepository.findByPerformedByOrderByTimestampDesc(username);
+        return auditLogStore.findByPerformedBy(username);
     }
 
     /**
      * Get logs by target user
      */
     public List<AuditLog> getLogsByTargetUser(String username) {
-        return auditLogRepository.findByTargetUserOrderByTimestampDesc(username);
+        return auditLogStore.findByTargetUser(username);
     }
 
     /**
      * Get logs by action type
      */
     public List<AuditLog> getLogsByAction(String action) {
-        return auditLogRepository.findByActionOrderByTimestampDesc(action);
+        return auditLogStore.findByAction(action);
     }
 
     /**
-     * Get logs within date range
+     * Get logs within date range, newest first; archived months are included on request
      */
-    public List<AuditLog> getLogsByDateRange(LocalDateTime start, LocalDateTime end) {
-        return auditLogRepository.findByTimestampBetweenOrderByTimestampDesc(start, end);
+    public List<AuditLog> getLogsByDateRange(LocalDateTime start, LocalDateTime end, boolean includeArchived) {
+        List<AuditLog> logs = auditLogStore.findByTimestampBetween(start, end);
+        if (!includeArchived) {
+            return logs;
+        }
+        List<AuditLog> merged = new ArrayList<>(auditArchiveService.readArchived(start, end));
+        merged.addAll(logs);
+        merged.sort(Comparator.comparing(AuditLog::getTimestamp).reversed());
+        return merged;
     }
 }
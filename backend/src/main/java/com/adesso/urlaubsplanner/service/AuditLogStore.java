@@ -0,0 +1,56 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AuditLog;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Storage backend of the audit trail, selected by "urlaubsplaner.audit.store" (jpa or segment)
+ * All queries return entries newest first.
+ */
+public interface AuditLogStore {
+
+    void append(AuditLog entry);
+
+    List<AuditLog> findAll();
+
+    List<AuditLog> findByPerformedBy(String performedBy);
+
+    List<AuditLog> findByTargetUser(String targetUser);
+
+    List<AuditLog> findByAction(String action);
+
+    List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end);
+
+    /**
+     * Find entries by id, in no particular order; unknown ids are skipped
+     */
+    List<AuditLog> findByIds(Collection<Long> ids);
+
+    /**
+     * Pass every entry to the consumer, oldest first, without loading all of them at once
+     */
+    void scan(Consumer<AuditLog> consumer);
+
+    /**
+     * Hand entries of months before the cutoff month (yyyymm) to the archiver, then delete them
+     * Returns the number of archived entries per month; a store may keep expired entries it cannot drop yet.
+     */
+    Map<Integer, Long> archiveBefore(int cutoffMonth, Archiver archiver);
+
+    /**
+     * Durable sink for the entries of one month, oldest first; returns once they are safely written
+     */
+    @FunctionalInterface
+    interface Archiver {
+        ArchivedRange write(int month, Iterator<AuditLog> entries);
+    }
+
+    record ArchivedRange(long count, long firstId, long lastId) {
+    }
+}
@@ -6,6 +6,7 @@ import com.adesso.urlaubsplanner.model.User;
 import com.adesso.urlaubsplanner.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.AuthenticationServiceException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.AuthenticationException;
 import org.springframework.stereotype.Service;
@@ -19,11 +20,18 @@ public class AuthService {
 
     private final AuthenticationManager authenticationManager;
     private final UserRepository userRepository;
+    private final LoginThrottleService loginThrottleService;
 
     /**
      * Authenticate user and return login response
      */
     public LoginResponse login(LoginRequest loginRequest) {
+        // The client IP alone is checked by LoginThrottleFilter, the username is only known here
+        long retryAfter = loginThrottleService.retryAfterSeconds(loginRequest.getUsername(),
+                LoginThrottleService.currentClientIp());
+        if (retryAfter > 0) {
+            throw new LoginThrottledException(retryAfter);
+        }
         try {
             authenticationManager.authenticate(
                     new UsernamePasswordAuthenticationToken(
@@ -32,7 +40,7 @@ public class AuthService {
                     )
             );
 
-            User user = userRepository.findByUsername(loginRequest.getUsername())
+            User user = userRepository.findForLoginByUsername(loginRequest.getUsername())
                     .orElseThrow(() -> new RuntimeException("User not found"));
 
             return new LoginResponse(
@@ -42,8 +50,11 @@ public class AuthService {
                     user.getTotalVacationDays(),
                     user.getUsedVacationDays(),
                     user.getRemainingVacationDays(),
+                    user.getRegion() != null ? user.getRegion().getName() : null,
                     "Login successful"
             );
+        } catch (AuthenticationServiceException e) {
+            throw new IllegalStateException("Login is temporarily unavailable, please try again", e);
         } catch (AuthenticationException e) {
             throw new RuntimeException("Invalid username or password");
         }
@@ -0,0 +1,161 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.CalendarFeedRow;
+import com.adesso.urlaubsplanner.model.Region;
+import com.adesso.urlaubsplanner.repository.RegionRepository;
+import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.stream.Stream;
+
+/**
+ * Service writing iCalendar (RFC 5545) feeds of absences
+ *
+ * Every request becomes one all-day VEVENT with the stable UID "vacation-{id}@urlaubsplaner"
+ * and its entity version as SEQUENCE, so clients update events in place. Pending requests are
+ * TENTATIVE, approved CONFIRMED and rejected CANCELLED; DTSTAMP is the request's last change.
+ * Feeds cover requests ending on or after the window start. Rows are streamed straight to the writer.
+ */
+@Service
+@RequiredArgsConstructor
+public class CalendarFeedService {
+
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final DateTimeFormatter ICS_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+    private static final int MAX_LINE_OCTETS = 75;
+
+    private final VacationRequestRepository vacationRequestRepository;
+    private final RegionRepository regionRepository;
+
+    @Value("${urlaubsplaner.calendar.feed-history-days:365}")
+    private int feedHistoryDays;
+
+    /**
+     * Check if a region exists (before a feed response is committed)
+     */
+    public boolean regionExists(Long regionId) {
+        return regionRepository.existsById(regionId);
+    }
+
+    /**
+     * Get today's feed window start; the feed changes when it moves, even without data changes
+     */
+    public LocalDate getWindowStart() {
+        return LocalDate.now().minusDays(feedHistoryDays);
+    }
+
+    /**
+     * Get the moment the feed window last moved to the given start (local midnight)
+     */
+    public Instant getWindowMovedAt(LocalDate windowStart) {
+        return windowStart.plusDays(feedHistoryDays).atStartOfDay(ZoneId.systemDefault()).toInstant();
+    }
+
+    /**
+     * Write the feed of all absences in a region
+     */
+    @Transactional(readOnly = true)
+    public void writeRegionFeed(Long regionId, LocalDate windowStart, Writer writer) throws IOException {
+        Region region = regionRepository.findById(regionId)
+                .orElseThrow(() -> new IllegalArgumentException("Region not found: " + regionId));
+        try (Stream<CalendarFeedRow> rows = vacationRequestRepository.streamCalendarFeedByRegion(regionId, windowStart)) {
+            writeCalendar("Abwesenheiten " + region.getName(), rows, writer);
+        }
+    }
+
+    /**
+     * Write the feed of one employee's absences
+     */
+    @Transactional(readOnly = true)
+    public void writeEmployeeFeed(String employeeName, LocalDate windowStart, Writer writer) throws IOException {
+        try (Stream<CalendarFeedRow> rows =
+                     vacationRequestRepository.streamCalendarFeedByEmployee(employeeName, windowStart)) {
+            writeCalendar("Abwesenheiten " + employeeName, rows, writer);
+        }
+    }
+
+    private void writeCalendar(String name, Stream<CalendarFeedRow> rows, Writer writer) throws IOException {
+        line(writer, "BEGIN:VCALENDAR");
+        line(writer, "VERSION:2.0");
+        line(writer, "PRODID:-//adesso//Urlaubsplaner//DE");
+        line(writer, "CALSCALE:GREGORIAN");
+        line(writer, "METHOD:PUBLISH");
+        line(writer, "X-WR-CALNAME:" + escape(name));
+        try {
+            rows.forEach(row -> {
+                try {
+                    writeEvent(row, writer);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        line(writer, "END:VCALENDAR");
+    }
+
+    private void writeEvent(CalendarFeedRow row, Writer writer) throws IOException {
+        String summary = (row.employeeFullName() != null ? row.employeeFullName() : row.employeeName())
+                + ": " + row.absenceType().getDisplayName();
+
+        line(writer, "BEGIN:VEVENT");
+        line(writer, "UID:vacation-" + row.id() + "@urlaubsplaner");
+        line(writer, "SEQUENCE:" + (row.version() != null ? row.version() : 0));
+        line(writer, "DTSTAMP:" + row.lastModifiedAt().atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC).format(ICS_TIMESTAMP));
+        line(writer, "DTSTART;VALUE=DATE:" + row.startDate().format(ICS_DATE));
+        // DTEND of all-day events is exclusive
+        line(writer, "DTEND;VALUE=DATE:" + row.endDate().plusDays(1).format(ICS_DATE));
+        line(writer, "SUMMARY:" + escape(summary));
+        line(writer, "CATEGORIES:" + row.absenceType().name());
+        line(writer, "STATUS:" + switch (row.status()) {
+            case PENDING -> "TENTATIVE";
+            case APPROVED -> "CONFIRMED";
+            case REJECTED -> "CANCELLED";
+        });
+        line(writer, "TRANSP:TRANSPARENT");
+        if (row.representativeName() != null && !row.representativeName().isBlank()) {
+            line(writer, "DESCRIPTION:" + escape("Vertretung: " + row.representativeName()));
+        }
+        line(writer, "END:VEVENT");
+    }
+
+    /**
+     * Write a content line, folded after 75 octets and terminated by CRLF
+     */
+    private static void line(Writer writer, String content) throws IOException {
+        int octets = 0;
+        for (int i = 0; i < content.length(); ) {
+            int codePoint = content.codePointAt(i);
+            int length = codePoint < 0x80 ? 1 : codePoint < 0x800 ? 2 : codePoint < 0x10000 ? 3 : 4;
+            if (octets + length > MAX_LINE_OCTETS) {
+                writer.write("\r\n ");
+                octets = 1;
+            }
+            writer.write(Character.toChars(codePoint));
+            octets += length;
+            i += Character.charCount(codePoint);
+        }
+        writer.write("\r\n");
+    }
+
+    private static String escape(String text) {
+        return text.replace("\\", "\\\\")
+                .replace(";", "\\;")
+                .replace(",", "\\,")
+                .replace("\r\n", "\\n")
+                .replace("\n", "\\n");
+    }
+}
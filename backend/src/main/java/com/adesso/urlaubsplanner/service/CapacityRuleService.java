@@ -0,0 +1,402 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.CounterSourceRow;
+import com.adesso.urlaubsplanner.model.AbsenceDayCounter;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.CapacityRule;
+import com.adesso.urlaubsplanner.model.Region;
+import com.adesso.urlaubsplanner.model.Role;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+import com.adesso.urlaubsplanner.repository.AbsenceDayCounterRepository;
+import com.adesso.urlaubsplanner.repository.CapacityRuleRepository;
+import com.adesso.urlaubsplanner.repository.RegionRepository;
+import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Service evaluating capacity rules and maintaining the per-day absence counters
+ *
+ * A check loads the counters of the request's region for the requested days in one
+ * query, so its cost grows with the number of requested days, not with the region.
+ * Counters are kept per role and count active users only. A check that finds a limit locks
+ * the region's row until the caller commits, so it is never interleaved with another checked
+ * request of the same region; counters are changed with in-place delta updates, and only
+ * creating missing counter rows takes the region lock.
+ * Active rules are kept in memory and reloaded whenever they change, here or (announced on
+ * the invalidation bus) on another instance of a cluster.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CapacityRuleService {
+
+    private final CapacityRuleRepository capacityRuleRepository;
+    private final AbsenceDayCounterRepository absenceDayCounterRepository;
+    private final AuditLogService auditLogService;
+    private final RegionRepository regionRepository;
+    private final VacationRequestRepository vacationRequestRepository;
+    private final DataVersionService dataVersionService;
+    private final PlatformTransactionManager transactionManager;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${urlaubsplaner.capacity.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    private final AtomicReference<List<CapacityRule>> activeRules = new AtomicReference<>();
+
+    /**
+     * Check a request against all applicable rules
+     * Must run in the caller's write transaction: when a limit applies, the region stays
+     * locked until the caller has recorded the request and committed.
+     *
+     * @param approving true when an existing pending request is about to be approved
+     *                  (it is then already contained in the pending counters)
+     * @return description of the first violated rule, empty if the request fits
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public Optional<String> findViolation(User user, AbsenceType type, LocalDate startDate, LocalDate endDate,
+                                          boolean approving) {
+        CounterScope scope = CounterScope.of(user);
+        Long regionId = scope.regionId();
+        Role role = scope.role();
+        if (regionId == null) {
+            return Optional.empty();
+        }
+
+        List<CapacityRule> rules = getActiveRules().stream()
+                .filter(rule -> rule.appliesTo(regionId, role))
+                .toList();
+        Set<AbsenceType> excluded = excludedTypes(rules);
+        if (excluded.contains(type)) {
+            return Optional.empty();
+        }
+
+        List<CapacityRule> limits = rules.stream()
+                .filter(rule -> rule.getCountsTowardsCapacity() && rule.getMaxConcurrent() != null)
+                .filter(rule -> rule.getAbsenceType() == null || rule.getAbsenceType() == type)
+                .toList();
+        if (limits.isEmpty()) {
+            return Optional.empty();
+        }
+
+        lockRegion(regionId);
+        Map<LocalDate, List<AbsenceDayCounter>> countersByDay = new HashMap<>();
+        for (AbsenceDayCounter counter : absenceDayCounterRepository
+                .findByRegionIdAndAbsenceDateBetween(regionId, startDate, endDate)) {
+            countersByDay.computeIfAbsent(counter.getAbsenceDate(), d -> new ArrayList<>()).add(counter);
+        }
+
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            List<AbsenceDayCounter> counters = countersByDay.getOrDefault(day, List.of());
+            for (CapacityRule rule : limits) {
+                int concurrent = 0;
+                for (AbsenceDayCounter counter : counters) {
+                    if (excluded.contains(counter.getAbsenceType())
+                            || (rule.getAbsenceType() != null && rule.getAbsenceType() != counter.getAbsenceType())
+                            || (rule.getRole() != null && rule.getRole() != counter.getRole())) {
+                        continue;
+                    }
+                    concurrent += counter.getApprovedCount();
+                    if (rule.getIncludePending()) {
+                        concurrent += counter.getPendingCount();
+                    }
+                }
+                if (approving && rule.getIncludePending()) {
+                    concurrent--;  // the request itself is still counted as pending
+                }
+                if (concurrent + 1 > rule.getMaxConcurrent()) {
+                    return Optional.of(String.format("Capacity exceeded on %s: %s (max %d concurrent, already %d)",
+                            day, describe(rule), rule.getMaxConcurrent(), concurrent));
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * Count a newly created pending request
+     */
+    @Transactional
+    public void recordCreated(User user, AbsenceType type, LocalDate startDate, LocalDate endDate) {
+        adjustCounters(CounterScope.of(user), type, startDate, endDate, 1, 0);
+    }
+
+    /**
+     * Move an approved request from pending to approved
+     */
+    @Transactional
+    public void recordApproved(User user, AbsenceType type, LocalDate startDate, LocalDate endDate) {
+        adjustCounters(CounterScope.of(user), type, startDate, endDate, -1, 1);
+    }
+
+    /**
+     * Remove a rejected request from pending (no-op for deleted users, whose requests no longer count)
+     */
+    @Transactional
+    public void recordRejected(User user, AbsenceType type, LocalDate startDate, LocalDate endDate) {
+        if (user != null) {
+            adjustCounters(CounterScope.of(user), type, startDate, endDate, -1, 0);
+        }
+    }
+
+    /**
+     * Move the counted days of a user's pending and approved requests to another region or role
+     * A scope without region (deactivated or deleted user) removes them from the counters.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void moveRequests(List<VacationRequest> requests, CounterScope from, CounterScope to) {
+        if (from.equals(to)) {
+            return;
+        }
+        // Lock both regions in id order, so concurrent moves in opposite directions cannot deadlock
+        if (from.regionId() != null && to.regionId() != null) {
+            lockRegion(Math.min(from.regionId(), to.regionId()));
+            lockRegion(Math.max(from.regionId(), to.regionId()));
+        }
+        for (VacationRequest request : requests) {
+            int pending = request.getStatus() == VacationStatus.PENDING ? 1 : 0;
+            int approved = request.getStatus() == VacationStatus.APPROVED ? 1 : 0;
+            if (pending + approved == 0) {
+                continue;
+            }
+            adjustCounters(from, request.getAbsenceType(), request.getStartDate(), request.getEndDate(),
+                    -pending, -approved);
+            adjustCounters(to, request.getAbsenceType(), request.getStartDate(), request.getEndDate(),
+                    pending, approved);
+        }
+    }
+
+    /**
+     * Rebuild the counters of every region from its requests when the counter table is empty
+     * (first start on a database that already holds requests)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        if (!backfillOnStartup || absenceDayCounterRepository.count() > 0) {
+            return;
+        }
+        long started = System.currentTimeMillis();
+        int regions = 0;
+        for (Region region : regionRepository.findAll()) {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> rebuildCounters(region.getId()));
+            regions++;
+        }
+        log.info("Absence day counters rebuilt for {} regions in {} ms", regions, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Get absence types excluded from capacity counting in a region (for all roles)
+     */
+    public Set<AbsenceType> getExcludedTypes(Long regionId) {
+        return excludedTypes(getActiveRules().stream()
+                .filter(rule -> rule.getRole() == null && rule.appliesTo(regionId, null))
+                .toList());
+    }
+
+    /**
+     * Get all rules
+     */
+    public List<CapacityRule> getAllRules() {
+        return capacityRuleRepository.findAll();
+    }
+
+    /**
+     * Create a new rule
+     */
+    @Transactional
+    public CapacityRule createRule(CapacityRule rule, String createdBy) {
+        if (rule.getCountsTowardsCapacity() && (rule.getMaxConcurrent() == null || rule.getMaxConcurrent() < 0)) {
+            throw new IllegalArgumentException("Capacity rules need a non-negative maxConcurrent");
+        }
+        if (!rule.getCountsTowardsCapacity() && rule.getAbsenceType() == null) {
+            throw new IllegalArgumentException("Exclusion rules need an absence type");
+        }
+
+        rule.setId(null);
+        CapacityRule saved = capacityRuleRepository.save(rule);
+        invalidateRules();
+        markRulesChanged(saved);
+
+        auditLogService.logAction(
+            "CREATE_CAPACITY_RULE",
+            createdBy,
+            String.format("Created capacity rule #%d: %s", saved.getId(), describe(saved))
+        );
+
+        return saved;
+    }
+
+    /**
+     * Delete a rule
+     */
+    @Transactional
+    public void deleteRule(Long id, String deletedBy) {
+        CapacityRule rule = capacityRuleRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Capacity rule not found: " + id));
+        capacityRuleRepository.delete(rule);
+        invalidateRules();
+        markRulesChanged(rule);
+
+        auditLogService.logAction(
+            "DELETE_CAPACITY_RULE",
+            deletedBy,
+            String.format("Deleted capacity rule #%d: %s", id, describe(rule))
+        );
+    }
+
+    private void adjustCounters(CounterScope scope, AbsenceType type, LocalDate startDate, LocalDate endDate,
+                                int pendingDelta, int approvedDelta) {
+        if (scope.regionId() == null) {
+            return;
+        }
+
+        if (!findMissingCounters(scope, type, startDate, endDate).isEmpty()) {
+            // Rows are only ever created under the region lock, so re-reading after acquiring it
+            // sees every row another transaction may have created in the meantime
+            lockRegion(scope.regionId());
+            absenceDayCounterRepository.saveAll(findMissingCounters(scope, type, startDate, endDate));
+        }
+        absenceDayCounterRepository.adjust(scope.regionId(), type, scope.role(), startDate, endDate,
+                pendingDelta, approvedDelta);
+    }
+
+    private List<AbsenceDayCounter> findMissingCounters(CounterScope scope, AbsenceType type,
+                                                        LocalDate startDate, LocalDate endDate) {
+        Set<LocalDate> existing = new HashSet<>(absenceDayCounterRepository.findDates(
+                scope.regionId(), type, scope.role(), startDate, endDate));
+        List<AbsenceDayCounter> missing = new ArrayList<>();
+        for (LocalDate day = startDate; !day.isAfter(endDate); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                missing.add(new AbsenceDayCounter(scope.regionId(), day, type, scope.role()));
+            }
+        }
+        return missing;
+    }
+
+    /**
+     * Replace a region's counters with counts of its pending and approved requests
+     */
+    private void rebuildCounters(Long regionId) {
+        lockRegion(regionId);
+        Map<String, AbsenceDayCounter> counters = new HashMap<>();
+        for (CounterSourceRow row : vacationRequestRepository.findCounterSourcesByRegion(regionId)) {
+            for (LocalDate day = row.startDate(); !day.isAfter(row.endDate()); day = day.plusDays(1)) {
+                LocalDate date = day;
+                AbsenceDayCounter counter = counters.computeIfAbsent(date + "|" + row.absenceType() + "|" + row.role(),
+                        key -> new AbsenceDayCounter(regionId, date, row.absenceType(), row.role()));
+                if (row.status() == VacationStatus.PENDING) {
+                    counter.setPendingCount(counter.getPendingCount() + 1);
+                } else {
+                    counter.setApprovedCount(counter.getApprovedCount() + 1);
+                }
+            }
+        }
+        absenceDayCounterRepository.deleteByRegion(regionId);
+        absenceDayCounterRepository.saveAll(counters.values());
+    }
+
+    private void lockRegion(Long regionId) {
+        regionRepository.findLockedById(regionId)
+                .orElseThrow(() -> new IllegalArgumentException("Region not found: " + regionId));
+    }
+
+    /**
+     * Cached ETags of the affected regions cover overload warnings, which depend on the rules
+     */
+    private void markRulesChanged(CapacityRule rule) {
+        if (rule.getRegionId() != null) {
+            dataVersionService.markChanged(rule.getRegionId());
+        } else {
+            dataVersionService.markAllChanged();
+        }
+    }
+
+    /**
+     * Drop the cached rules after another instance changed them
+     */
+    @EventListener
+    public void onRemoteInvalidation(InvalidationBus.RemoteInvalidation invalidation) {
+        if (InvalidationBus.CAPACITY_RULES.equals(invalidation.topic())) {
+            activeRules.set(null);
+        }
+    }
+
+    private void invalidateRules() {
+        invalidationBus.publishRulesChanged();
+        activeRules.set(null);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    activeRules.set(null);
+                }
+            });
+        }
+    }
+
+    private List<CapacityRule> getActiveRules() {
+        List<CapacityRule> rules = activeRules.get();
+        if (rules == null) {
+            rules = List.copyOf(capacityRuleRepository.findByActiveTrue());
+            activeRules.set(rules);
+        }
+        return rules;
+    }
+
+    private Set<AbsenceType> excludedTypes(List<CapacityRule> rules) {
+        Set<AbsenceType> excluded = EnumSet.noneOf(AbsenceType.class);
+        for (CapacityRule rule : rules) {
+            if (!rule.getCountsTowardsCapacity() && rule.getAbsenceType() != null) {
+                excluded.add(rule.getAbsenceType());
+            }
+        }
+        return excluded;
+    }
+
+    /**
+     * Region and role a user's requests are counted under; deactivated users have no region
+     */
+    public record CounterScope(Long regionId, Role role) {
+
+        public static CounterScope of(User user) {
+            boolean counted = Boolean.TRUE.equals(user.getActive()) && user.getRegion() != null;
+            return new CounterScope(counted ? user.getRegion().getId() : null, user.getRole());
+        }
+    }
+
+    private String describe(CapacityRule rule) {
+        if (rule.getDescription() != null && !rule.getDescription().isEmpty()) {
+            return rule.getDescription();
+        }
+        String type = rule.getAbsenceType() != null ? rule.getAbsenceType().getDisplayName() : "all absences";
+        String scope = rule.getRegionId() != null ? "region #" + rule.getRegionId() : "all regions";
+        if (!rule.getCountsTowardsCapacity()) {
+            return type + " does not count (" + scope + ")";
+        }
+        return "max " + rule.getMaxConcurrent() + " concurrent " + type + " (" + scope + ")";
+    }
+}
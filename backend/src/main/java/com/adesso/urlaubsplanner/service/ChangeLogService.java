@@ -0,0 +1,300 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.ChangeFeedDTO;
+import com.adesso.urlaubsplanner.dto.ChangeLogSeqRow;
+import com.adesso.urlaubsplanner.model.ChangeLogEntry;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.repository.ChangeLogEntryRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service maintaining the change feed of vacation requests and users
+ *
+ * Entries are written in the transaction of the change itself (propagation MANDATORY),
+ * so the feed contains exactly the committed changes. Consumers page through it with
+ * the last sequence number they have seen. Sequence numbers come from a database sequence,
+ * so writers do not wait for each other, but they may commit out of order. Readers therefore
+ * only see entries up to a high-water mark: the highest sequence number below which no gap
+ * can still be filled. A gap holds the mark back while its number is in flight on this
+ * instance; gaps of this instance's rollbacks are passed at once, all others once the entry
+ * after them is older than the settle period (rolled back on another instance, or compacted).
+ * Compaction keeps only the latest entry per
+ * entity and region once entries are older than the retention period; a consumer that
+ * fell further behind still converges to the current state, it just skips intermediate ones.
+ * When an employee moves to another region, the old region's feed gets MOVED markers
+ * for the user and their requests, so region-filtered consumers drop them.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChangeLogService {
+
+    public static final int MAX_PAGE_SIZE = 1000;
+
+    private static final Duration COMPACTION_LOCK_AT_MOST = Duration.ofHours(1);
+    private static final Duration COMPACTION_LOCK_AT_LEAST = Duration.ofMinutes(10);
+
+    private final ChangeLogEntryRepository changeLogEntryRepository;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${urlaubsplaner.changes.retention-days:30}")
+    private int retentionDays;
+
+    @Value("${urlaubsplaner.changes.tombstone-retention-days:365}")
+    private int tombstoneRetentionDays;
+
+    @Value("${urlaubsplaner.changes.settle-seconds:60}")
+    private int settleSeconds;
+
+    // Sequence numbers of entries written by uncommitted transactions of this instance
+    private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+    // Sequence numbers this instance took but never committed, until the high-water mark passes them
+    private final NavigableSet<Long> abandoned = new ConcurrentSkipListSet<>();
+    private final AtomicLong highWaterMark = new AtomicLong();
+    private final ReentrantLock highWaterMarkLock = new ReentrantLock();
+
+    /**
+     * Move the sequence past existing entries (a database whose log predates the sequence)
+     */
+    @PostConstruct
+    void initSequence() {
+        transactionTemplate.executeWithoutResult(status -> {
+            Long maxSeq = changeLogEntryRepository.findMaxSeq();
+            long next = ((Number) entityManager.createNativeQuery("SELECT NEXT VALUE FOR change_log_seq")
+                    .getSingleResult()).longValue();
+            if (maxSeq != null && next <= maxSeq) {
+                entityManager.createNativeQuery("ALTER SEQUENCE change_log_seq RESTART WITH " + (maxSeq + 1))
+                        .executeUpdate();
+            } else {
+                abandoned.add(next);
+            }
+        });
+    }
+
+    /**
+     * Record the state of a vacation request after a change
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRequestChange(String operation, VacationRequest request, Long regionId, String changedBy) {
+        // Flush first so the payload carries the incremented entity version
+        entityManager.flush();
+        append(ChangeLogEntry.VACATION_REQUEST, request.getId(), operation, regionId, changedBy, toJson(request));
+    }
+
+    /**
+     * Record the state of a user after a change; password hashes never enter the feed
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserChange(String operation, User user, String changedBy) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("id", user.getId());
+        payload.put("username", user.getUsername());
+        payload.put("fullName", user.getFullName());
+        payload.put("role", user.getRole());
+        payload.put("regionId", regionIdOf(user));
+        payload.put("active", user.getActive());
+        payload.put("totalVacationDays", user.getTotalVacationDays());
+        payload.put("carriedOverDays", user.getCarriedOverDays());
+        payload.put("usedVacationDays", user.getUsedVacationDays());
+        append(ChangeLogEntry.USER, user.getId(), operation, regionIdOf(user), changedBy, toJson(payload));
+    }
+
+    /**
+     * Record an employee's move between regions: MOVED markers in the previous region's feed
+     * and the requests' current state in the new one (the user entry itself follows via recordUserChange)
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordRegionMove(User user, Long previousRegionId, List<VacationRequest> requests, String changedBy) {
+        Long regionId = regionIdOf(user);
+        if (Objects.equals(previousRegionId, regionId)) {
+            return;
+        }
+        if (previousRegionId != null) {
+            String payload = toJson(Collections.singletonMap("regionId", regionId));
+            append(ChangeLogEntry.USER, user.getId(), ChangeLogEntry.MOVED, previousRegionId, changedBy, payload);
+            for (VacationRequest request : requests) {
+                append(ChangeLogEntry.VACATION_REQUEST, request.getId(), ChangeLogEntry.MOVED, previousRegionId,
+                        changedBy, payload);
+            }
+        }
+        for (VacationRequest request : requests) {
+            append(ChangeLogEntry.VACATION_REQUEST, request.getId(), "UPDATED", regionId, changedBy, toJson(request));
+        }
+    }
+
+    /**
+     * Record the deletion of a user
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordUserDeleted(User user, String changedBy) {
+        append(ChangeLogEntry.USER, user.getId(), ChangeLogEntry.DELETED, regionIdOf(user), changedBy, null);
+    }
+
+    /**
+     * Get the entries after a sequence number, optionally limited to one region
+     */
+    @Transactional(readOnly = true)
+    public ChangeFeedDTO getChanges(long since, int limit, Long regionId) {
+        if (since < 0) {
+            throw new IllegalArgumentException("since must not be negative");
+        }
+        int pageSize = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long upTo = advanceHighWaterMark();
+        // One extra row tells whether another page follows
+        PageRequest page = PageRequest.ofSize(pageSize + 1);
+        List<ChangeLogEntry> entries = regionId != null
+                ? changeLogEntryRepository.findBySeqGreaterThanAndSeqLessThanEqualAndRegionIdOrderBySeqAsc(
+                        since, upTo, regionId, page)
+                : changeLogEntryRepository.findBySeqGreaterThanAndSeqLessThanEqualOrderBySeqAsc(since, upTo, page);
+
+        boolean hasMore = entries.size() > pageSize;
+        if (hasMore) {
+            entries = entries.subList(0, pageSize);
+        }
+        long nextSince = entries.isEmpty() ? since : entries.get(entries.size() - 1).getSeq();
+        return new ChangeFeedDTO(since, nextSince, hasMore, entries);
+    }
+
+    /**
+     * Compact entries older than the retention period, nightly on one instance of a cluster
+     */
+    @Scheduled(cron = "${urlaubsplaner.changes.compaction-cron:0 30 3 * * *}")
+    public void scheduledCompaction() {
+        schedulerLockService.runLocked("change-log-compaction", COMPACTION_LOCK_AT_MOST, COMPACTION_LOCK_AT_LEAST,
+                () -> transactionTemplate.executeWithoutResult(status -> compact()));
+    }
+
+    /**
+     * Compact now instead of waiting for the nightly run, under the same lock
+     *
+     * @return number of removed entries
+     * @throws IllegalStateException if a compaction is running or has just run on any instance
+     */
+    public int compactNow() {
+        AtomicInteger removed = new AtomicInteger();
+        boolean ran = schedulerLockService.runLocked("change-log-compaction", COMPACTION_LOCK_AT_MOST, Duration.ZERO,
+                () -> removed.set(transactionTemplate.execute(status -> compact())));
+        if (!ran) {
+            throw new IllegalStateException("Change log compaction is running or has just run");
+        }
+        return removed.get();
+    }
+
+    /**
+     * Keep only the latest entry per entity among old entries and drop expired deletion markers
+     */
+    private int compact() {
+        LocalDateTime now = LocalDateTime.now();
+        int superseded = changeLogEntryRepository.deleteSupersededBefore(now.minusDays(retentionDays));
+        int tombstones = changeLogEntryRepository.deleteTombstonesBefore(now.minusDays(tombstoneRetentionDays));
+        log.info("Change log compacted: {} superseded entries and {} deletion markers removed", superseded, tombstones);
+        return superseded + tombstones;
+    }
+
+    private void append(String entityType, Long entityId, String operation, Long regionId, String changedBy,
+                        String payload) {
+        ChangeLogEntry entry = new ChangeLogEntry(null, entityType, entityId, operation, regionId,
+                changedBy, LocalDateTime.now(), payload);
+        // The sequence number is assigned on persist, the row inserted at the latest on commit
+        entityManager.persist(entry);
+        Long seq = entry.getSeq();
+        inFlight.add(seq);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED) {
+                    abandoned.add(seq);
+                }
+                inFlight.remove(seq);
+            }
+        });
+    }
+
+    /**
+     * Move the high-water mark over all sequence numbers that are settled: committed, or gaps
+     * that can no longer be filled. Only one reader advances it at a time; the others use the
+     * mark as it is.
+     */
+    private long advanceHighWaterMark() {
+        if (!highWaterMarkLock.tryLock()) {
+            return highWaterMark.get();
+        }
+        try {
+            long mark = highWaterMark.get();
+            LocalDateTime settled = LocalDateTime.now().minusSeconds(settleSeconds);
+            List<ChangeLogSeqRow> rows;
+            do {
+                rows = changeLogEntryRepository.findSeqRowsAfter(mark, PageRequest.ofSize(MAX_PAGE_SIZE));
+                for (ChangeLogSeqRow row : rows) {
+                    if (row.seq() != mark + 1 && !gapSettled(mark, row, settled)) {
+                        return publishHighWaterMark(mark);
+                    }
+                    mark = row.seq();
+                }
+            } while (rows.size() == MAX_PAGE_SIZE);
+            return publishHighWaterMark(mark);
+        } finally {
+            highWaterMarkLock.unlock();
+        }
+    }
+
+    private long publishHighWaterMark(long mark) {
+        highWaterMark.set(mark);
+        abandoned.headSet(mark, true).clear();
+        return mark;
+    }
+
+    /**
+     * Check whether the gap between the mark and the next entry can no longer be filled
+     */
+    private boolean gapSettled(long mark, ChangeLogSeqRow next, LocalDateTime settled) {
+        if (!inFlight.subSet(mark, false, next.seq(), false).isEmpty()) {
+            return false;
+        }
+        return abandoned.subSet(mark, false, next.seq(), false).size() == next.seq() - mark - 1
+                || next.changedAt().isBefore(settled);
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize change log payload", e);
+        }
+    }
+
+    private Long regionIdOf(User user) {
+        return user.getRegion() != null ? user.getRegion().getId() : null;
+    }
+}
@@ -3,20 +3,26 @@ package com.adesso.urlaubsplanner.service;
 import com.adesso.urlaubsplanner.model.User;
 import com.adesso.urlaubsplanner.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Collections;
 
 /**
  * Custom UserDetailsService for Spring Security authentication
+ *
+ * Also stores the rehashed password when a login finds a hash with an outdated BCrypt cost.
  */
+@Slf4j
 @Service
 @RequiredArgsConstructor
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
 
     private final UserRepository userRepository;
 
@@ -31,4 +37,19 @@ public class CustomUserDetailsService implements UserDetailsService {
                 .authorities(Collections.singletonList(new SimpleGrantedAuthority("ROLE_" + user.getRole().name())))
                 .build();
     }
+
+    /**
+     * Replace the hash of a user after a successful login; skipped if the password was changed meanwhile
+     */
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        int updated = userRepository.replacePasswordHash(user.getUsername(), user.getPassword(), newPassword);
+        if (updated > 0) {
+            log.debug("Password hash of {} migrated to the configured cost", user.getUsername());
+        }
+        return org.springframework.security.core.userdetails.User.withUserDetails(user)
+                .password(newPassword)
+                .build();
+    }
 }
@@ -0,0 +1,160 @@
+package com.adesso.urlaubsplanner.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service tracking a data version per region for HTTP conditional requests
+ *
+ * Every write in VacationService/AdminService bumps the version of the affected
+ * region and of {@link #GLOBAL}. Versions are bumped after the transaction commits,
+ * so an ETag is never handed out for data a reader could not see yet. Each bump is
+ * announced as a {@link RegionDataChanged} event. Changes are also published on the
+ * {@link InvalidationBus}, so other instances of a cluster bump their versions as well.
+ */
+@Service
+@RequiredArgsConstructor
+public class DataVersionService {
+
+    /**
+     * Version key covering all regions (Super Manager and admin views)
+     */
+    public static final long GLOBAL = 0L;
+
+    private final ApplicationEventPublisher eventPublisher;
+    private final InvalidationBus invalidationBus;
+
+    private final Map<Long, RegionVersion> versions = new ConcurrentHashMap<>();
+
+    // Distinguishes ETags across restarts, when all counters start at zero again
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    /**
+     * Mark data of a region (null = user without region) as changed
+     */
+    public void markChanged(Long regionId) {
+        invalidationBus.publish(regionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(regionId);
+                }
+            });
+        } else {
+            bump(regionId);
+        }
+    }
+
+    /**
+     * Mark every region as changed (bulk jobs touching all users)
+     */
+    public void markAllChanged() {
+        invalidationBus.publishAll();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bumpAll();
+                }
+            });
+        } else {
+            bumpAll();
+        }
+    }
+
+    /**
+     * Bump versions for a change made by another instance
+     */
+    @EventListener
+    public void onRemoteInvalidation(InvalidationBus.RemoteInvalidation invalidation) {
+        if (!InvalidationBus.DATA.equals(invalidation.topic())) {
+            return;
+        }
+        if (invalidation.allRegions()) {
+            bumpAll();
+        } else {
+            bump(invalidation.regionId());
+        }
+    }
+
+    /**
+     * Current version of a region key
+     */
+    public long getVersion(long regionKey) {
+        return version(regionKey).counter.get();
+    }
+
+    /**
+     * Time of the last change of a region key
+     */
+    public Instant getLastModified(long regionKey) {
+        return version(regionKey).lastModified;
+    }
+
+    /**
+     * Strong ETag for a region key
+     */
+    public String getETag(long regionKey) {
+        return getETag(regionKey, getVersion(regionKey));
+    }
+
+    /**
+     * Strong ETag for a specific version of a region key (e.g. of a cached snapshot)
+     */
+    public String getETag(long regionKey, long version) {
+        return "\"r" + regionKey + "-" + epoch + "-" + version + "\"";
+    }
+
+    /**
+     * Strong ETag for a per-user or per-page variant of a region key's current version
+     */
+    public String getETag(long regionKey, String variant) {
+        return "\"r" + regionKey + "-" + epoch + "-" + getVersion(regionKey) + "-" + variant + "\"";
+    }
+
+    private void bump(Long regionId) {
+        if (regionId != null) {
+            version(regionId).increment();
+        }
+        version(GLOBAL).increment();
+        eventPublisher.publishEvent(new RegionDataChanged(regionId));
+    }
+
+    private void bumpAll() {
+        versions.forEach((regionKey, version) -> {
+            version.increment();
+            eventPublisher.publishEvent(new RegionDataChanged(regionKey == GLOBAL ? null : regionKey));
+        });
+    }
+
+    private RegionVersion version(long regionKey) {
+        return versions.computeIfAbsent(regionKey, k -> new RegionVersion());
+    }
+
+    private static class RegionVersion {
+
+        private final AtomicLong counter = new AtomicLong();
+        private volatile Instant lastModified = Instant.now();
+
+        void increment() {
+            counter.incrementAndGet();
+            lastModified = Instant.now();
+        }
+    }
+
+    /**
+     * Event published after a region's data version was bumped (regionId null = users without region)
+     */
+    public record RegionDataChanged(Long regionId) {
+    }
+}
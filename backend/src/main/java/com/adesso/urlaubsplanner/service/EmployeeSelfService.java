@@ -0,0 +1,86 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.EmployeeSelfServiceDTO;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the authenticated user's own balance and requests
+ *
+ * Three queries per view: the user with region, the open/upcoming requests and one
+ * page of history (plus its count query).
+ */
+@Service
+@RequiredArgsConstructor
+public class EmployeeSelfService {
+
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private final UserRepository userRepository;
+    private final VacationRequestRepository vacationRequestRepository;
+
+    /**
+     * Region key whose data version covers the user's view (0 = no region)
+     */
+    public long getRegionKey(String username) {
+        User user = findUser(username);
+        return user.getRegion() != null ? user.getRegion().getId() : DataVersionService.GLOBAL;
+    }
+
+    /**
+     * Get balance, pending and upcoming requests and one page of history
+     */
+    @Transactional(readOnly = true)
+    public EmployeeSelfServiceDTO getSelfService(String username, int page, int size) {
+        User user = findUser(username);
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+
+        Map<Boolean, List<VacationRequest>> open = vacationRequestRepository
+                .findOpenAndUpcoming(username, LocalDate.now()).stream()
+                .collect(Collectors.partitioningBy(request -> request.getStatus() == VacationStatus.PENDING));
+        List<VacationRequest> pending = open.get(true);
+        long pendingDays = pending.stream().mapToLong(VacationRequest::getDaysRequested).sum();
+
+        Page<VacationRequest> history = vacationRequestRepository.findByEmployeeName(username,
+                PageRequest.of(Math.max(0, page), pageSize, Sort.by(Sort.Direction.DESC, "startDate")));
+
+        return new EmployeeSelfServiceDTO(
+                user.getUsername(),
+                user.getFullName(),
+                user.getRole(),
+                user.getRegion() != null ? user.getRegion().getName() : null,
+                user.getTotalVacationDays(),
+                user.getCarriedOverDays(),
+                user.getUsedVacationDays(),
+                user.getRemainingVacationDays(),
+                pendingDays,
+                user.getRemainingVacationDays() - pendingDays,
+                pending,
+                open.get(false),
+                history.getContent(),
+                history.getNumber(),
+                history.getSize(),
+                history.getTotalElements(),
+                history.getTotalPages()
+        );
+    }
+
+    private User findUser(String username) {
+        return userRepository.findWithRegionByUsername(username)
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + username));
+    }
+}
@@ -0,0 +1,45 @@
+package com.adesso.urlaubsplanner.service;
+
+/**
+ * Bus announcing data changes to the other instances of a cluster
+ *
+ * DataVersionService publishes every change while the writing transaction is still open.
+ * Changes made by other instances arrive as {@link RemoteInvalidation} events, upon which
+ * the data versions (ETags) are bumped and the statistics snapshots recomputed. Changes of
+ * the capacity rules travel on their own topic and reset the rule caches; users created, moved
+ * or deleted reset the search index's cache of user regions.
+ * The transport is chosen with urlaubsplaner.cluster.transport: "local" (single instance)
+ * or "jdbc" (cache_invalidations table in the shared database).
+ */
+public interface InvalidationBus {
+
+    String DATA = "DATA";
+    String CAPACITY_RULES = "CAPACITY_RULES";
+    String USERS = "USERS";
+
+    /**
+     * Announce a change of a region (null = users without region)
+     */
+    void publish(Long regionId);
+
+    /**
+     * Announce a change of all regions
+     */
+    void publishAll();
+
+    /**
+     * Announce a change of the capacity rules
+     */
+    void publishRulesChanged();
+
+    /**
+     * Announce that a user was created, moved to another region or deleted
+     */
+    void publishUsersChanged();
+
+    /**
+     * Event for a change made by another instance
+     */
+    record RemoteInvalidation(String topic, Long regionId, boolean allRegions) {
+    }
+}
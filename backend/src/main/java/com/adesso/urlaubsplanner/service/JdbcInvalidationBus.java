@@ -0,0 +1,181 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.CacheInvalidation;
+import com.adesso.urlaubsplanner.repository.CacheInvalidationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Invalidation bus over the cache_invalidations table of a shared database
+ *
+ * Changes are inserted in the writing transaction and every instance polls for rows with a
+ * higher id than the highest it has seen, skipping its own. Identity values are taken at
+ * insert time, not at commit, so a row may become visible after rows with higher ids: skipped
+ * ids are remembered as gaps and polled again until they show up or the gap timeout passes
+ * (rolled back inserts never show up).
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "urlaubsplaner.cluster.transport", havingValue = "jdbc")
+@RequiredArgsConstructor
+public class JdbcInvalidationBus implements InvalidationBus {
+
+    private static final int BATCH_SIZE = 500;
+    // Larger jumps are identity caching, not transactions still in flight
+    private static final int MAX_TRACKED_GAP = 1000;
+
+    private final CacheInvalidationRepository cacheInvalidationRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${urlaubsplaner.cluster.poll-interval-ms:250}")
+    private long pollIntervalMillis;
+
+    @Value("${urlaubsplaner.cluster.gap-timeout-ms:30000}")
+    private long gapTimeoutMillis;
+
+    @Value("${urlaubsplaner.cluster.retention-minutes:10}")
+    private long retentionMinutes;
+
+    private final String origin = UUID.randomUUID().toString();
+
+    // Poller thread only
+    private long highestSeen;
+    private final Map<Long, Long> gaps = new LinkedHashMap<>();
+
+    private ScheduledExecutorService poller;
+    private Counter received;
+
+    @Override
+    public void publish(Long regionId) {
+        insert(DATA, regionId, false);
+    }
+
+    @Override
+    public void publishAll() {
+        insert(DATA, null, true);
+    }
+
+    @Override
+    public void publishRulesChanged() {
+        insert(CAPACITY_RULES, null, true);
+    }
+
+    @Override
+    public void publishUsersChanged() {
+        insert(USERS, null, true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        received = meterRegistry.counter("urlaubsplaner.cluster.invalidations", "direction", "received");
+        highestSeen = readOnlyTransaction().execute(status -> cacheInvalidationRepository.maxId());
+        poller = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "invalidation-poller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        poller.scheduleWithFixedDelay(this::poll, pollIntervalMillis, pollIntervalMillis, TimeUnit.MILLISECONDS);
+        poller.scheduleWithFixedDelay(this::purge, 1, 1, TimeUnit.MINUTES);
+        log.info("Polling cache invalidations every {} ms as instance {}", pollIntervalMillis, origin);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (poller != null) {
+            poller.shutdownNow();
+        }
+    }
+
+    private void insert(String topic, Long regionId, boolean allRegions) {
+        meterRegistry.counter("urlaubsplaner.cluster.invalidations", "direction", "published").increment();
+        CacheInvalidation row = new CacheInvalidation(null, origin, regionId, allRegions, topic, LocalDateTime.now());
+        // Joins the writing transaction: the row becomes visible together with the change
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> cacheInvalidationRepository.save(row));
+    }
+
+    private void poll() {
+        try {
+            long now = System.currentTimeMillis();
+            List<CacheInvalidation> rows = readOnlyTransaction().execute(status ->
+                    cacheInvalidationRepository.findByIdGreaterThanOrderByIdAsc(highestSeen, PageRequest.of(0, BATCH_SIZE)));
+            for (CacheInvalidation row : rows) {
+                if (row.getId() - highestSeen - 1 <= MAX_TRACKED_GAP) {
+                    for (long id = highestSeen + 1; id < row.getId(); id++) {
+                        gaps.put(id, now);
+                    }
+                }
+                highestSeen = row.getId();
+                deliver(row);
+            }
+            if (!gaps.isEmpty()) {
+                pollGaps(now);
+            }
+        } catch (RuntimeException e) {
+            // The executor would cancel the task; keep polling once the database is back
+            log.warn("Polling cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    private void pollGaps(long now) {
+        List<CacheInvalidation> late = readOnlyTransaction().execute(status ->
+                cacheInvalidationRepository.findAllById(gaps.keySet()));
+        for (CacheInvalidation row : late) {
+            gaps.remove(row.getId());
+            deliver(row);
+        }
+        // Insertion order is id order, so the oldest gaps come first
+        Iterator<Long> firstMissing = gaps.values().iterator();
+        while (firstMissing.hasNext() && now - firstMissing.next() > gapTimeoutMillis) {
+            firstMissing.remove();
+        }
+    }
+
+    private void deliver(CacheInvalidation row) {
+        if (!origin.equals(row.getOrigin())) {
+            received.increment();
+            String topic = row.getTopic() != null ? row.getTopic() : DATA;
+            eventPublisher.publishEvent(new RemoteInvalidation(topic, row.getRegionId(), row.isAllRegions()));
+        }
+    }
+
+    private void purge() {
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minusMinutes(retentionMinutes);
+            Integer deleted = new TransactionTemplate(transactionManager).execute(status ->
+                    cacheInvalidationRepository.deleteCreatedBefore(cutoff));
+            log.debug("Purged {} cache invalidations", deleted);
+        } catch (RuntimeException e) {
+            log.warn("Purging cache invalidations failed: {}", e.getMessage());
+        }
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+}
@@ -0,0 +1,112 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.adesso.urlaubsplanner.repository.AuditLogRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Audit log store on the audit_logs table (default)
+ * Entries are inserted in the caller's transaction. Time range queries read only the partitions
+ * of their range; the other lookups read the table, which archival bounds to the retention period.
+ */
+@Service
+@ConditionalOnProperty(name = "urlaubsplaner.audit.store", havingValue = "jpa", matchIfMissing = true)
+@RequiredArgsConstructor
+public class JpaAuditLogStore implements AuditLogStore {
+
+    private final AuditLogRepository auditLogRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    @Override
+    public void append(AuditLog entry) {
+        auditLogRepository.save(entry);
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return auditLogRepository.findAllByOrderByTimestampDesc();
+    }
+
+    @Override
+    public List<AuditLog> findByPerformedBy(String performedBy) {
+        return auditLogRepository.findByPerformedByOrderByTimestampDesc(performedBy);
+    }
+
+    @Override
+    public List<AuditLog> findByTargetUser(String targetUser) {
+        return auditLogRepository.findByTargetUserOrderByTimestampDesc(targetUser);
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return auditLogRepository.findByActionOrderByTimestampDesc(action);
+    }
+
+    /**
+     * Only the table's partitions of the range are read
+     */
+    @Override
+    public List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end) {
+        return auditLogRepository.findByPartitionMonthBetweenAndTimestampBetweenOrderByTimestampDesc(
+                AuditLog.partitionOf(start), AuditLog.partitionOf(end), start, end);
+    }
+
+    @Override
+    public List<AuditLog> findByIds(Collection<Long> ids) {
+        return auditLogRepository.findAllById(ids);
+    }
+
+    @Override
+    public void scan(Consumer<AuditLog> consumer) {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        template.executeWithoutResult(status -> {
+            try (Stream<AuditLog> rows = auditLogRepository.streamAll()) {
+                rows.forEach(entry -> {
+                    consumer.accept(entry);
+                    // Keep the persistence context small while streaming
+                    entityManager.detach(entry);
+                });
+            }
+        });
+    }
+
+    /**
+     * Archives month by month; rows of a month inserted after its snapshot stay until the next run
+     */
+    @Override
+    public Map<Integer, Long> archiveBefore(int cutoffMonth, Archiver archiver) {
+        TransactionTemplate readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+        Map<Integer, Long> archived = new LinkedHashMap<>();
+        for (Integer month : auditLogRepository.findPartitionsBefore(cutoffMonth)) {
+            ArchivedRange range = readOnly.execute(status -> {
+                try (Stream<AuditLog> rows = auditLogRepository.streamPartition(month)) {
+                    // Keep the persistence context small while streaming
+                    return archiver.write(month, rows.peek(entityManager::detach).iterator());
+                }
+            });
+            if (range == null || range.count() == 0) {
+                continue;
+            }
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    auditLogRepository.deletePartition(month, range.lastId()));
+            archived.put(month, range.count());
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,28 @@
+package com.adesso.urlaubsplanner.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+/**
+ * Invalidation bus of a single instance (default); there is nobody to tell
+ */
+@Service
+@ConditionalOnProperty(name = "urlaubsplaner.cluster.transport", havingValue = "local", matchIfMissing = true)
+public class LocalInvalidationBus implements InvalidationBus {
+
+    @Override
+    public void publish(Long regionId) {
+    }
+
+    @Override
+    public void publishAll() {
+    }
+
+    @Override
+    public void publishRulesChanged() {
+    }
+
+    @Override
+    public void publishUsersChanged() {
+    }
+}
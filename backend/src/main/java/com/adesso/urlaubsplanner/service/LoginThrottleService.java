@@ -0,0 +1,293 @@
+package com.adesso.urlaubsplanner.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.event.AbstractAuthenticationEvent;
+import org.springframework.security.authentication.event.AbstractAuthenticationFailureEvent;
+import org.springframework.security.authentication.event.AuthenticationFailureServiceExceptionEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.stereotype.Service;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket throttle for failed logins, per username, per client IP and per known client
+ *
+ * Only failed authentications take a token; a request is rejected up front (before any password
+ * hashing) while one of its buckets is empty. The user bucket is keyed by username alone, so
+ * guessing one account from many addresses is bounded as well. To keep such an attack from locking
+ * the owner out, a client IP that has logged in successfully as the user before (a known client)
+ * gets a separate, larger allowance keyed by username and IP, which is checked and charged instead
+ * of the user bucket. Known clients expire after a number of days without a successful login.
+ * Behind a load balancer the client IP is the one resolved by the container from X-Forwarded-For
+ * (server.forward-headers-strategy). Each bucket is a single AtomicLong holding the time at which
+ * it is full again (GCRA form of the token bucket), updated with CAS, so checks are lock-free.
+ * Full buckets carry no state and are evicted; the number of tracked keys is bounded.
+ */
+@Service
+@RequiredArgsConstructor
+public class LoginThrottleService {
+
+    private static final String METRIC = "urlaubsplaner.login.throttle";
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${urlaubsplaner.login-throttle.enabled:true}")
+    private boolean enabled;
+
+    @Value("${urlaubsplaner.login-throttle.user.capacity:5}")
+    private int userCapacity;
+
+    @Value("${urlaubsplaner.login-throttle.user.refill-seconds:60}")
+    private long userRefillSeconds;
+
+    @Value("${urlaubsplaner.login-throttle.ip.capacity:50}")
+    private int ipCapacity;
+
+    @Value("${urlaubsplaner.login-throttle.ip.refill-seconds:2}")
+    private long ipRefillSeconds;
+
+    @Value("${urlaubsplaner.login-throttle.known-client.capacity:10}")
+    private int knownClientCapacity;
+
+    @Value("${urlaubsplaner.login-throttle.known-client.refill-seconds:60}")
+    private long knownClientRefillSeconds;
+
+    @Value("${urlaubsplaner.login-throttle.known-client.ttl-days:30}")
+    private long knownClientTtlDays;
+
+    @Value("${urlaubsplaner.login-throttle.max-tracked-keys:100000}")
+    private int maxTrackedKeys;
+
+    private final Map<String, AtomicLong> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> ipBuckets = new ConcurrentHashMap<>();
+    private final Map<String, AtomicLong> knownClientBuckets = new ConcurrentHashMap<>();
+    // Username|IP of successful logins -> time of the last one
+    private final Map<String, Long> knownClients = new ConcurrentHashMap<>();
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    private Counter userRejections;
+    private Counter ipRejections;
+    private Counter knownClientRejections;
+    private Counter userFailures;
+    private Counter ipFailures;
+    private Counter knownClientFailures;
+    private Counter untracked;
+
+    @PostConstruct
+    void registerMeters() {
+        userRejections = meterRegistry.counter(METRIC, "outcome", "rejected", "scope", "user");
+        ipRejections = meterRegistry.counter(METRIC, "outcome", "rejected", "scope", "ip");
+        knownClientRejections = meterRegistry.counter(METRIC, "outcome", "rejected", "scope", "known-client");
+        userFailures = meterRegistry.counter(METRIC, "outcome", "charged", "scope", "user");
+        ipFailures = meterRegistry.counter(METRIC, "outcome", "charged", "scope", "ip");
+        knownClientFailures = meterRegistry.counter(METRIC, "outcome", "charged", "scope", "known-client");
+        untracked = meterRegistry.counter(METRIC, "outcome", "untracked", "scope", "any");
+        Gauge.builder(METRIC + ".tracked", userBuckets, Map::size).tag("scope", "user").register(meterRegistry);
+        Gauge.builder(METRIC + ".tracked", ipBuckets, Map::size).tag("scope", "ip").register(meterRegistry);
+        Gauge.builder(METRIC + ".tracked", knownClientBuckets, Map::size).tag("scope", "known-client")
+                .register(meterRegistry);
+        Gauge.builder(METRIC + ".known-clients", knownClients, Map::size).register(meterRegistry);
+    }
+
+    /**
+     * Seconds until a login attempt is allowed again, or 0 if it is allowed now
+     * Either argument may be null when it is not known yet; the username is checked against the user
+     * bucket, or against its known-client bucket when the client IP has logged in as that user before.
+     */
+    public long retryAfterSeconds(String username, String clientIp) {
+        if (!enabled) {
+            return 0;
+        }
+        long now = System.currentTimeMillis();
+        if (clientIp != null) {
+            long wait = waitMillis(ipBuckets.get(clientIp), ipCapacity, interval(ipRefillSeconds), now);
+            if (wait > 0) {
+                ipRejections.increment();
+                return toSeconds(wait);
+            }
+        }
+        if (username != null) {
+            String clientKey = clientKey(username, clientIp);
+            if (isKnownClient(clientKey, now)) {
+                long wait = waitMillis(knownClientBuckets.get(clientKey), knownClientCapacity,
+                        interval(knownClientRefillSeconds), now);
+                if (wait > 0) {
+                    knownClientRejections.increment();
+                    return toSeconds(wait);
+                }
+            } else {
+                long wait = waitMillis(userBuckets.get(username), userCapacity, interval(userRefillSeconds), now);
+                if (wait > 0) {
+                    userRejections.increment();
+                    return toSeconds(wait);
+                }
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Take a token from the buckets of a failed authentication
+     */
+    @EventListener
+    public void onFailure(AbstractAuthenticationFailureEvent event) {
+        // Failures to verify at all (hashing overload) say nothing about the credentials
+        if (!enabled || event instanceof AuthenticationFailureServiceExceptionEvent) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        String username = event.getAuthentication() != null ? event.getAuthentication().getName() : null;
+        String clientIp = clientIpOf(event);
+        if (username != null && !username.isEmpty()) {
+            String clientKey = clientKey(username, clientIp);
+            if (isKnownClient(clientKey, now)) {
+                charge(knownClientBuckets, clientKey, interval(knownClientRefillSeconds), now);
+                knownClientFailures.increment();
+            } else {
+                charge(userBuckets, username, interval(userRefillSeconds), now);
+                userFailures.increment();
+            }
+        }
+        if (clientIp != null) {
+            charge(ipBuckets, clientIp, interval(ipRefillSeconds), now);
+            ipFailures.increment();
+        }
+    }
+
+    /**
+     * Remember the client IP of a successful login as a known client of the user
+     */
+    @EventListener
+    public void onSuccess(AuthenticationSuccessEvent event) {
+        String clientIp = clientIpOf(event);
+        if (!enabled || clientIp == null || event.getAuthentication().getName() == null) {
+            return;
+        }
+        String clientKey = clientKey(event.getAuthentication().getName(), clientIp);
+        if (!knownClients.containsKey(clientKey) && knownClients.size() >= maxTrackedKeys) {
+            evictFullBuckets();
+            if (knownClients.size() >= maxTrackedKeys) {
+                untracked.increment();
+                return;
+            }
+        }
+        knownClients.put(clientKey, System.currentTimeMillis());
+    }
+
+    /**
+     * Drop full buckets, which are equivalent to untracked keys, and expired known clients
+     */
+    @Scheduled(fixedDelay = 30_000)
+    public void evictFullBuckets() {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            long now = System.currentTimeMillis();
+            userBuckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+            ipBuckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+            knownClientBuckets.entrySet().removeIf(entry -> entry.getValue().get() <= now);
+            knownClients.entrySet().removeIf(entry -> entry.getValue() <= now - knownClientTtlMillis());
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * Client IP of a request; with server.forward-headers-strategy=native the container has already
+     * replaced the load balancer's address with the client's from X-Forwarded-For of trusted proxies
+     */
+    public static String clientIpOf(HttpServletRequest request) {
+        return request.getRemoteAddr();
+    }
+
+    /**
+     * Client IP of the request being handled on this thread, or null outside of a request
+     */
+    public static String currentClientIp() {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes) {
+            return clientIpOf(attributes.getRequest());
+        }
+        return null;
+    }
+
+    private static String clientKey(String username, String clientIp) {
+        return username + '|' + (clientIp != null ? clientIp : "");
+    }
+
+    private boolean isKnownClient(String clientKey, long now) {
+        Long lastLogin = knownClients.get(clientKey);
+        return lastLogin != null && lastLogin > now - knownClientTtlMillis();
+    }
+
+    private long knownClientTtlMillis() {
+        return TimeUnit.DAYS.toMillis(knownClientTtlDays);
+    }
+
+    /**
+     * GCRA: a bucket holds the time at which it is full again; every failure moves it one interval on
+     */
+    private void charge(Map<String, AtomicLong> buckets, String key, long interval, long now) {
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            if (buckets.size() >= maxTrackedKeys) {
+                evictFullBuckets();
+                if (buckets.size() >= maxTrackedKeys) {
+                    // Saturated by distinct keys; the other scope still throttles
+                    untracked.increment();
+                    return;
+                }
+            }
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        long current;
+        long next;
+        do {
+            current = bucket.get();
+            next = Math.max(current, now) + interval;
+        } while (!bucket.compareAndSet(current, next));
+    }
+
+    /**
+     * Time until the bucket holds a token again; it is empty once its full time lies capacity intervals ahead
+     */
+    private static long waitMillis(AtomicLong bucket, int capacity, long interval, long now) {
+        if (bucket == null) {
+            return 0;
+        }
+        long fullAt = bucket.get();
+        return Math.max(0, fullAt - now - (long) (capacity - 1) * interval);
+    }
+
+    private static long interval(long refillSeconds) {
+        return TimeUnit.SECONDS.toMillis(refillSeconds);
+    }
+
+    private static long toSeconds(long millis) {
+        return Math.max(1, (millis + 999) / 1000);
+    }
+
+    private static String clientIpOf(AbstractAuthenticationEvent event) {
+        if (event.getAuthentication() != null
+                && event.getAuthentication().getDetails() instanceof WebAuthenticationDetails details) {
+            return details.getRemoteAddress();
+        }
+        // Tokens built by AuthService carry no details; events are published on the request thread
+        return currentClientIp();
+    }
+}
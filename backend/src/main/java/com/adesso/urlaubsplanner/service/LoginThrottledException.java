@@ -0,0 +1,17 @@
+package com.adesso.urlaubsplanner.service;
+
+import lombok.Getter;
+
+/**
+ * Thrown when a login is refused by the login throttle
+ */
+@Getter
+public class LoginThrottledException extends RuntimeException {
+
+    private final long retryAfterSeconds;
+
+    public LoginThrottledException(long retryAfterSeconds) {
+        super("Too many failed login attempts, try again in " + retryAfterSeconds + " seconds");
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -1,17 +1,33 @@
 package com.adesso.urlaubsplanner.service;
 
+import com.adesso.urlaubsplanner.dto.ManagerDashboardDTO;
 import com.adesso.urlaubsplanner.dto.TeamCalendarEventDTO;
 import com.adesso.urlaubsplanner.dto.TeamStatisticsDTO;
 import com.adesso.urlaubsplanner.model.*;
+import com.adesso.urlaubsplanner.repository.AbsenceDayCounterRepository;
+import com.adesso.urlaubsplanner.repository.RegionRepository;
 import com.adesso.urlaubsplanner.repository.UserRepository;
 import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import io.micrometer.core.annotation.Timed;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.util.EnumMap;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -19,10 +35,19 @@ import java.util.stream.Collectors;
  */
 @Service
 @RequiredArgsConstructor
+@Timed("urlaubsplaner.manager.queries")
 public class ManagerService {
 
     private final UserRepository userRepository;
     private final VacationRequestRepository vacationRequestRepository;
+    private final RegionRepository regionRepository;
+    private final RegionTaskExecutor regionTaskExecutor;
+    private final PlatformTransactionManager transactionManager;
+    private final AbsenceDayCounterRepository absenceDayCounterRepository;
+    private final CapacityRuleService capacityRuleService;
+
+    @Value("${urlaubsplaner.overload.threshold:0.5}")
+    private double overloadThreshold;
 
     /**
      * Get vacation requests for employees in the manager's region
@@ -46,6 +71,26 @@ public class ManagerService {
         return vacationRequestRepository.findByEmployeeRegion(managerRegion.getId());
     }
 
+    /**
+     * Resolve the region key a manager may observe
+     * Super Managers get {@link VacationEventService#ALL_REGIONS}
+     */
+    public long getManagerRegionKey(String managerUsername) {
+        User manager = userRepository.findByUsername(managerUsername)
+                .orElseThrow(() -> new IllegalArgumentException("Manager not found: " + managerUsername));
+
+        if (manager.getRole() == Role.SUPER_MANAGER) {
+            return VacationEventService.ALL_REGIONS;
+        }
+
+        Region managerRegion = manager.getRegion();
+        if (managerRegion == null) {
+            throw new IllegalStateException("Manager must be assigned to a region: " + managerUsername);
+        }
+
+        return managerRegion.getId();
+    }
+
     /**
      * Get all employees in the manager's region
      */
@@ -71,19 +116,28 @@ public class ManagerService {
      * Check if a manager has access to a specific vacation request
      */
     public boolean hasAccessToRequest(String managerUsername, Long requestId) {
-        User manager = userRepository.findByUsername(managerUsername)
-                .orElseThrow(() -> new IllegalArgumentException("Manager not found: " + managerUsername));
-
         VacationRequest request = vacationRequestRepository.findById(requestId)
                 .orElseThrow(() -> new IllegalArgumentException("Request not found: " + requestId));
 
-        // Super Managers have access to all requests
-        if (manager.getRole().name().equals("SUPER_MANAGER")) {
+        return hasAccessToEmployee(managerUsername, request.getEmployeeName());
+    }
+
+    /**
+     * Check if a manager may see an employee's data (same region, or Super Manager)
+     */
+    public boolean hasAccessToEmployee(String managerUsername, String employeeName) {
+        User manager = userRepository.findByUsername(managerUsername)
+                .orElseThrow(() -> new IllegalArgumentException("Manager not found: " + managerUsername));
+
+        // Super Managers have access to all employees
+        if (manager.getRole() == Role.SUPER_MANAGER) {
             return true;
         }
+        if (manager.getRole() != Role.MANAGER) {
+            return false;
+        }
 
-        // Get employee who made the request
-        User employee = userRepository.findByUsername(request.getEmployeeName())
+        User employee = userRepository.findByUsername(employeeName)
                 .orElse(null);
 
         if (employee == null) {
@@ -105,50 +159,95 @@ public class ManagerService {
      * Get team statistics for employees in manager's region
      */
     public List<TeamStatisticsDTO> getTeamStatistics(String managerUsername) {
-        List<User> employees = getEmployeesInManagerRegion(managerUsername);
-        
+        return computeTeamStatistics(getManagerRegionKey(managerUsername));
+    }
+
+    /**
+     * Compute team statistics of one region ({@link VacationEventService#ALL_REGIONS} = all users)
+     * Loads the region's users and requests with one query each
+     */
+    @Transactional(readOnly = true)
+    public List<TeamStatisticsDTO> computeTeamStatistics(long regionKey) {
+        List<User> employees;
+        List<VacationRequest> requests;
+        if (regionKey == VacationEventService.ALL_REGIONS) {
+            employees = userRepository.findAll();
+            requests = vacationRequestRepository.findAll();
+        } else {
+            employees = userRepository.findByRegionId(regionKey);
+            requests = vacationRequestRepository.findByEmployeeRegion(regionKey);
+        }
+        return buildTeamStatistics(employees, requests);
+    }
+
+    private List<TeamStatisticsDTO> buildTeamStatistics(List<User> employees, List<VacationRequest> requests) {
+        Map<String, List<VacationRequest>> requestsByEmployee = requests.stream()
+                .filter(req -> req.getStatus() == VacationStatus.APPROVED)
+                .collect(Collectors.groupingBy(VacationRequest::getEmployeeName));
+
         return employees.stream()
                 .filter(emp -> emp.getRole() == Role.EMPLOYEE || emp.getRole() == Role.MANAGER)
-                .map(emp -> {
-                    // Get all approved requests for this employee
-                    List<VacationRequest> requests = vacationRequestRepository.findByEmployeeName(emp.getUsername());
-                    
-                    // Calculate days by type
-                    Map<AbsenceType, Integer> daysByType = new HashMap<>();
-                    for (AbsenceType type : AbsenceType.values()) {
-                        daysByType.put(type, 0);
-                    }
-                    
-                    for (VacationRequest req : requests) {
-                        if (req.getStatus() == VacationStatus.APPROVED) {
-                            AbsenceType type = req.getAbsenceType();
-                            daysByType.put(type, daysByType.get(type) + req.getDaysRequested().intValue());
-                        }
-                    }
-                    
-                    TeamStatisticsDTO dto = new TeamStatisticsDTO();
-                    dto.setUserId(emp.getId());
-                    dto.setUsername(emp.getUsername());
-                    dto.setFullName(emp.getFullName());
-                    dto.setTotalVacationDays(emp.getTotalVacationDays());
-                    dto.setUsedVacationDays(emp.getUsedVacationDays());
-                    dto.setRemainingVacationDays(emp.getRemainingVacationDays());
-                    dto.setSickDays(daysByType.get(AbsenceType.SICK_LEAVE));
-                    dto.setHomeOfficeDays(daysByType.get(AbsenceType.HOME_OFFICE));
-                    dto.setBusinessTripDays(daysByType.get(AbsenceType.BUSINESS_TRIP));
-                    dto.setTrainingDays(daysByType.get(AbsenceType.TRAINING));
-                    dto.setRegionName(emp.getRegion() != null ? emp.getRegion().getName() : "Global");
-                    
-                    return dto;
-                })
+                .map(emp -> toTeamStatistics(emp, requestsByEmployee.getOrDefault(emp.getUsername(), List.of())))
                 .collect(Collectors.toList());
     }
 
+    private TeamStatisticsDTO toTeamStatistics(User emp, List<VacationRequest> approvedRequests) {
+        // Calculate days by type
+        Map<AbsenceType, Integer> daysByType = new EnumMap<>(AbsenceType.class);
+        for (AbsenceType type : AbsenceType.values()) {
+            daysByType.put(type, 0);
+        }
+
+        for (VacationRequest req : approvedRequests) {
+            AbsenceType type = req.getAbsenceType();
+            daysByType.put(type, daysByType.get(type) + req.getDaysRequested().intValue());
+        }
+
+        TeamStatisticsDTO dto = new TeamStatisticsDTO();
+        dto.setUserId(emp.getId());
+        dto.setUsername(emp.getUsername());
+        dto.setFullName(emp.getFullName());
+        dto.setTotalVacationDays(emp.getTotalVacationDays());
+        dto.setUsedVacationDays(emp.getUsedVacationDays());
+        dto.setRemainingVacationDays(emp.getRemainingVacationDays());
+        dto.setSickDays(daysByType.get(AbsenceType.SICK_LEAVE));
+        dto.setHomeOfficeDays(daysByType.get(AbsenceType.HOME_OFFICE));
+        dto.setBusinessTripDays(daysByType.get(AbsenceType.BUSINESS_TRIP));
+        dto.setTrainingDays(daysByType.get(AbsenceType.TRAINING));
+        dto.setRegionName(emp.getRegion() != null ? emp.getRegion().getName() : "Global");
+
+        return dto;
+    }
+
     /**
      * Get team calendar events for manager's region
      */
     public List<TeamCalendarEventDTO> getTeamCalendar(String managerUsername, LocalDate startDate, LocalDate endDate) {
-        List<VacationRequest> requests = getVacationRequestsForManagerRegion(managerUsername);
+        return computeTeamCalendar(getManagerRegionKey(managerUsername), startDate, endDate);
+    }
+
+    /**
+     * Compute calendar events of one region ({@link VacationEventService#ALL_REGIONS} = all regions)
+     * Employee names are resolved from one user query instead of a lookup per event
+     */
+    @Transactional(readOnly = true)
+    public List<TeamCalendarEventDTO> computeTeamCalendar(long regionKey, LocalDate startDate, LocalDate endDate) {
+        List<VacationRequest> requests;
+        List<User> employees;
+        if (regionKey == VacationEventService.ALL_REGIONS) {
+            requests = vacationRequestRepository.findAllByOrderByCreatedAtDesc();
+            employees = userRepository.findAll();
+        } else {
+            requests = vacationRequestRepository.findByEmployeeRegion(regionKey);
+            employees = userRepository.findByRegionId(regionKey);
+        }
+        return buildTeamCalendar(requests, employees, startDate, endDate);
+    }
+
+    private List<TeamCalendarEventDTO> buildTeamCalendar(List<VacationRequest> requests, List<User> employees,
+                                                         LocalDate startDate, LocalDate endDate) {
+        Map<String, String> fullNames = employees.stream()
+                .collect(Collectors.toMap(User::getUsername, User::getFullName));
         
         return requests.stream()
                 .filter(req -> {
@@ -162,12 +261,10 @@ public class ManagerService {
                     return req.getStatus() == VacationStatus.APPROVED || req.getStatus() == VacationStatus.PENDING;
                 })
                 .map(req -> {
-                    User employee = userRepository.findByUsername(req.getEmployeeName()).orElse(null);
-                    
                     TeamCalendarEventDTO dto = new TeamCalendarEventDTO();
                     dto.setId(req.getId());
                     dto.setEmployeeName(req.getEmployeeName());
-                    dto.setEmployeeFullName(employee != null ? employee.getFullName() : req.getEmployeeName());
+                    dto.setEmployeeFullName(fullNames.getOrDefault(req.getEmployeeName(), req.getEmployeeName()));
                     dto.setStartDate(req.getStartDate());
                     dto.setEndDate(req.getEndDate());
                     dto.setAbsenceType(req.getAbsenceType());
@@ -182,28 +279,175 @@ public class ManagerService {
 
     /**
      * Check for team overload (too many absences on same dates)
+     * For Super Managers every region is evaluated against its own headcount and the
+     * overloaded days of all regions are merged (absences summed per day)
      */
     public Map<LocalDate, Integer> getTeamOverloadWarnings(String managerUsername) {
-        List<VacationRequest> requests = getVacationRequestsForManagerRegion(managerUsername);
-        List<User> teamMembers = getEmployeesInManagerRegion(managerUsername);
-        
-        int teamSize = teamMembers.size();
+        long regionKey = getManagerRegionKey(managerUsername);
+        if (regionKey != VacationEventService.ALL_REGIONS) {
+            return computeOverloadWarnings(regionKey);
+        }
+
+        Map<LocalDate, Integer> merged = new HashMap<>();
+        getOverloadWarningsByRegion().values()
+                .forEach(regionWarnings -> regionWarnings.forEach((day, count) -> merged.merge(day, count, Integer::sum)));
+        return merged;
+    }
+
+    /**
+     * Compute overload warnings of a single region against that region's headcount
+     * Reads the precomputed per-day counters; absence types excluded by capacity rules
+     * (e.g. home office) do not count
+     */
+    @Transactional(readOnly = true)
+    public Map<LocalDate, Integer> computeOverloadWarnings(long regionId) {
+        long teamSize = userRepository.countByRegionId(regionId);
+        Set<AbsenceType> excluded = capacityRuleService.getExcludedTypes(regionId);
         Map<LocalDate, Integer> absencesPerDay = new HashMap<>();
-        
-        for (VacationRequest req : requests) {
-            if (req.getStatus() == VacationStatus.APPROVED || req.getStatus() == VacationStatus.PENDING) {
-                LocalDate current = req.getStartDate();
-                while (!current.isAfter(req.getEndDate())) {
-                    absencesPerDay.put(current, absencesPerDay.getOrDefault(current, 0) + 1);
-                    current = current.plusDays(1);
-                }
+
+        for (AbsenceDayCounter counter : absenceDayCounterRepository.findByRegionId(regionId)) {
+            if (!excluded.contains(counter.getAbsenceType())) {
+                int absences = counter.getApprovedCount() + counter.getPendingCount();
+                absencesPerDay.merge(counter.getAbsenceDate(), absences, Integer::sum);
             }
         }
-        
-        // Return days where >50% of team is absent
-        int threshold = (int) Math.ceil(teamSize * 0.5);
+
+        // Return days where the configured share of the team is absent
+        int threshold = Math.max(1, (int) Math.ceil(teamSize * overloadThreshold));
         return absencesPerDay.entrySet().stream()
                 .filter(entry -> entry.getValue() >= threshold)
                 .collect(Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
     }
+
+    /**
+     * Get all manager dashboard views at once
+     * The region's users and requests are loaded once and every view is derived from
+     * that working set: three queries in total, including the manager lookup.
+     */
+    public ManagerDashboardDTO getDashboard(String managerUsername, LocalDate startDate, LocalDate endDate) {
+        return computeDashboard(getManagerRegionKey(managerUsername), startDate, endDate);
+    }
+
+    /**
+     * Compute the dashboard of one region ({@link VacationEventService#ALL_REGIONS} = all regions)
+     */
+    @Transactional(readOnly = true)
+    public ManagerDashboardDTO computeDashboard(long regionKey, LocalDate startDate, LocalDate endDate) {
+        List<User> users;
+        List<VacationRequest> requests;
+        if (regionKey == VacationEventService.ALL_REGIONS) {
+            users = userRepository.findAll();
+            requests = vacationRequestRepository.findAllByOrderByCreatedAtDesc();
+        } else {
+            users = userRepository.findByRegionId(regionKey);
+            requests = vacationRequestRepository.findByEmployeeRegion(regionKey);
+        }
+
+        return new ManagerDashboardDTO(
+                regionKey,
+                requests,
+                users,
+                buildTeamStatistics(users, requests),
+                buildTeamCalendar(requests, users, startDate, endDate),
+                buildOverloadWarnings(users, requests)
+        );
+    }
+
+    /**
+     * Overload warnings from loaded requests instead of the day counters
+     * Same rules as {@link #computeOverloadWarnings(long)}: each region against its own
+     * headcount, excluded absence types ignored, days of several regions summed
+     */
+    private Map<LocalDate, Integer> buildOverloadWarnings(List<User> users, List<VacationRequest> requests) {
+        Map<String, Long> regionOfUser = new HashMap<>();
+        Map<Long, Long> headcount = new HashMap<>();
+        for (User user : users) {
+            if (user.getRegion() != null) {
+                regionOfUser.put(user.getUsername(), user.getRegion().getId());
+                headcount.merge(user.getRegion().getId(), 1L, Long::sum);
+            }
+        }
+
+        Map<Long, Set<AbsenceType>> excludedByRegion = new HashMap<>();
+        Map<Long, Map<LocalDate, Integer>> absencesByRegion = new HashMap<>();
+        for (VacationRequest request : requests) {
+            Long regionId = regionOfUser.get(request.getEmployeeName());
+            if (regionId == null || request.getStatus() == VacationStatus.REJECTED
+                    || excludedByRegion.computeIfAbsent(regionId, capacityRuleService::getExcludedTypes)
+                            .contains(request.getAbsenceType())) {
+                continue;
+            }
+            Map<LocalDate, Integer> absencesPerDay = absencesByRegion.computeIfAbsent(regionId, key -> new HashMap<>());
+            for (LocalDate day = request.getStartDate(); !day.isAfter(request.getEndDate()); day = day.plusDays(1)) {
+                absencesPerDay.merge(day, 1, Integer::sum);
+            }
+        }
+
+        Map<LocalDate, Integer> warnings = new HashMap<>();
+        absencesByRegion.forEach((regionId, absencesPerDay) -> {
+            int threshold = Math.max(1, (int) Math.ceil(headcount.get(regionId) * overloadThreshold));
+            absencesPerDay.forEach((day, absences) -> {
+                if (absences >= threshold) {
+                    warnings.merge(day, absences, Integer::sum);
+                }
+            });
+        });
+        return warnings;
+    }
+
+    /**
+     * Get team statistics of every region, computed concurrently (Super Manager view)
+     */
+    public Map<String, List<TeamStatisticsDTO>> getTeamStatisticsByRegion() {
+        return computePerRegion(region -> computeTeamStatistics(region.getId()));
+    }
+
+    /**
+     * Get calendar events of every region, computed concurrently (Super Manager view)
+     */
+    public Map<String, List<TeamCalendarEventDTO>> getTeamCalendarByRegion(LocalDate startDate, LocalDate endDate) {
+        return computePerRegion(region -> computeTeamCalendar(region.getId(), startDate, endDate));
+    }
+
+    /**
+     * Get overload warnings of every region, computed concurrently (Super Manager view)
+     */
+    public Map<String, Map<LocalDate, Integer>> getOverloadWarningsByRegion() {
+        return computePerRegion(region -> computeOverloadWarnings(region.getId()));
+    }
+
+    /**
+     * Fork one task per region onto the bounded region executor and join the results
+     * Each task runs in its own read-only transaction (and therefore on its own connection).
+     * Results are keyed by region name in alphabetical order.
+     */
+    private <T> Map<String, T> computePerRegion(Function<Region, T> computation) {
+        List<Region> regions = regionRepository.findAll(Sort.by("name"));
+
+        Map<Region, CompletableFuture<T>> futures = new LinkedHashMap<>();
+        for (Region region : regions) {
+            futures.put(region, regionTaskExecutor.submit(
+                    () -> readOnlyTransaction().execute(status -> computation.apply(region))));
+        }
+
+        Map<String, T> results = new LinkedHashMap<>();
+        futures.forEach((region, future) -> {
+            try {
+                results.put(region.getName(), future.join());
+            } catch (CompletionException e) {
+                if (!(e.getCause() instanceof RejectedExecutionException)) {
+                    throw e;
+                }
+                // Executor saturated: compute this region on the calling thread
+                results.put(region.getName(), readOnlyTransaction().execute(status -> computation.apply(region)));
+            }
+        });
+        return results;
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
 }
@@ -0,0 +1,245 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.config.RequestQueries;
+import com.adesso.urlaubsplanner.dto.EndpointQueryStatsDTO;
+import com.adesso.urlaubsplanner.dto.QueryDiagnosticsDTO;
+import com.adesso.urlaubsplanner.dto.SlowStatementDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayDeque;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service aggregating per-request SQL statistics into a rolling per-endpoint view
+ *
+ * Requests that execute the same statement fingerprint repeatedly are flagged as
+ * N+1 candidates; single statements above the slow threshold are kept separately.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class QueryDiagnosticsService {
+
+    private static final int MAX_SLOW_STATEMENTS = 100;
+    private static final int MAX_REPEATED_PER_BUCKET = 20;
+    private static final int MAX_WARNED_FINGERPRINTS = 1000;
+
+    private final MeterRegistry meterRegistry;
+
+    @Value("${urlaubsplaner.diagnostics.window-minutes:15}")
+    private int windowMinutes;
+
+    @Value("${urlaubsplaner.diagnostics.repeated-statement-threshold:5}")
+    private int repeatedStatementThreshold;
+
+    @Value("${urlaubsplaner.diagnostics.slow-statement-ms:200}")
+    private long slowStatementMillis;
+
+    private final Map<String, EndpointWindow> endpoints = new ConcurrentHashMap<>();
+    private final Set<String> warnedFingerprints = ConcurrentHashMap.newKeySet();
+    private final Deque<SlowStatementDTO> slowStatements = new ArrayDeque<>();
+    private final ReentrantLock slowStatementsLock = new ReentrantLock();
+
+    /**
+     * Record the statements of one finished request
+     */
+    public void record(String method, String uri, RequestQueries queries) {
+        String endpoint = method + " " + uri;
+        Map<String, Integer> repeated = new HashMap<>();
+        queries.getExecutionsByFingerprint().forEach((fingerprint, executions) -> {
+            if (executions >= repeatedStatementThreshold) {
+                repeated.put(fingerprint, executions);
+            }
+        });
+
+        if (!repeated.isEmpty()) {
+            meterRegistry.counter("urlaubsplaner.http.requests.repeated_statements", "uri", uri).increment();
+            repeated.forEach((fingerprint, executions) -> warnOnce(endpoint, fingerprint, executions));
+        }
+        if (queries.getSlowestMillis() >= slowStatementMillis) {
+            recordSlowStatement(endpoint, queries);
+        }
+
+        endpoints.computeIfAbsent(endpoint, key -> new EndpointWindow(windowMinutes))
+                .record(currentMinute(), queries, repeated);
+    }
+
+    /**
+     * Get the top endpoints of the window, by total SQL time ("time") or statements per request ("statements")
+     */
+    public QueryDiagnosticsDTO getDiagnostics(int limit, String sortBy) {
+        long minute = currentMinute();
+        Comparator<EndpointQueryStatsDTO> order = "statements".equals(sortBy)
+                ? Comparator.comparing(EndpointQueryStatsDTO::getAvgStatements)
+                : Comparator.comparing((EndpointQueryStatsDTO stats) -> stats.getAvgSqlMillis() * stats.getRequests());
+
+        List<EndpointQueryStatsDTO> top = endpoints.entrySet().stream()
+                .map(entry -> entry.getValue().snapshot(entry.getKey(), minute))
+                .filter(stats -> stats.getRequests() > 0)
+                .sorted(order.reversed())
+                .limit(limit)
+                .toList();
+
+        Instant windowStart = Instant.now().minusSeconds(TimeUnit.MINUTES.toSeconds(windowMinutes));
+        List<SlowStatementDTO> slow;
+        slowStatementsLock.lock();
+        try {
+            slow = slowStatements.stream()
+                    .filter(statement -> statement.getTimestamp().isAfter(windowStart))
+                    .sorted(Comparator.comparing(SlowStatementDTO::getMillis).reversed())
+                    .limit(limit)
+                    .toList();
+        } finally {
+            slowStatementsLock.unlock();
+        }
+
+        return new QueryDiagnosticsDTO(windowMinutes, "statements".equals(sortBy) ? "statements" : "time", top, slow);
+    }
+
+    /**
+     * Drop all collected statistics
+     */
+    public void reset() {
+        endpoints.clear();
+        warnedFingerprints.clear();
+        slowStatementsLock.lock();
+        try {
+            slowStatements.clear();
+        } finally {
+            slowStatementsLock.unlock();
+        }
+    }
+
+    private void warnOnce(String endpoint, String fingerprint, int executions) {
+        if (warnedFingerprints.size() < MAX_WARNED_FINGERPRINTS && warnedFingerprints.add(endpoint + "|" + fingerprint)) {
+            log.warn("Possible N+1 on {}: statement executed {} times in one request: {}", endpoint, executions, fingerprint);
+        }
+    }
+
+    private void recordSlowStatement(String endpoint, RequestQueries queries) {
+        log.warn("Slow statement on {} ({} ms): {}", endpoint, queries.getSlowestMillis(), queries.getSlowestFingerprint());
+        slowStatementsLock.lock();
+        try {
+            if (slowStatements.size() == MAX_SLOW_STATEMENTS) {
+                slowStatements.removeFirst();
+            }
+            slowStatements.addLast(new SlowStatementDTO(Instant.now(), endpoint,
+                    queries.getSlowestMillis(), queries.getSlowestFingerprint()));
+        } finally {
+            slowStatementsLock.unlock();
+        }
+    }
+
+    private static long currentMinute() {
+        return TimeUnit.MILLISECONDS.toMinutes(System.currentTimeMillis());
+    }
+
+    /**
+     * Per-minute buckets of one endpoint; a bucket is reused once its minute left the window
+     */
+    private static class EndpointWindow {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Bucket[] buckets;
+
+        EndpointWindow(int minutes) {
+            buckets = new Bucket[Math.max(1, minutes)];
+            for (int i = 0; i < buckets.length; i++) {
+                buckets[i] = new Bucket();
+            }
+        }
+
+        void record(long minute, RequestQueries queries, Map<String, Integer> repeated) {
+            lock.lock();
+            try {
+                Bucket bucket = buckets[(int) (minute % buckets.length)];
+                if (bucket.minute != minute) {
+                    bucket.reset(minute);
+                }
+                bucket.requests++;
+                bucket.statements += queries.getStatements();
+                bucket.maxStatements = Math.max(bucket.maxStatements, queries.getStatements());
+                bucket.sqlMillis += queries.getSqlMillis();
+                bucket.maxSqlMillis = Math.max(bucket.maxSqlMillis, queries.getSqlMillis());
+                if (!repeated.isEmpty()) {
+                    bucket.repeatedStatementRequests++;
+                    repeated.forEach((fingerprint, executions) -> {
+                        if (bucket.repeated.containsKey(fingerprint) || bucket.repeated.size() < MAX_REPEATED_PER_BUCKET) {
+                            bucket.repeated.merge(fingerprint, executions, Math::max);
+                        }
+                    });
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+
+        EndpointQueryStatsDTO snapshot(String endpoint, long minute) {
+            long requests = 0;
+            long statements = 0;
+            int maxStatements = 0;
+            long sqlMillis = 0;
+            long maxSqlMillis = 0;
+            long repeatedStatementRequests = 0;
+            Map<String, Integer> repeated = new HashMap<>();
+
+            lock.lock();
+            try {
+                for (Bucket bucket : buckets) {
+                    if (minute - bucket.minute >= buckets.length) {
+                        continue;
+                    }
+                    requests += bucket.requests;
+                    statements += bucket.statements;
+                    maxStatements = Math.max(maxStatements, bucket.maxStatements);
+                    sqlMillis += bucket.sqlMillis;
+                    maxSqlMillis = Math.max(maxSqlMillis, bucket.maxSqlMillis);
+                    repeatedStatementRequests += bucket.repeatedStatementRequests;
+                    bucket.repeated.forEach((fingerprint, executions) -> repeated.merge(fingerprint, executions, Math::max));
+                }
+            } finally {
+                lock.unlock();
+            }
+
+            return new EndpointQueryStatsDTO(endpoint, requests,
+                    requests > 0 ? (double) statements / requests : 0.0, maxStatements,
+                    requests > 0 ? (double) sqlMillis / requests : 0.0, maxSqlMillis,
+                    repeatedStatementRequests, repeated);
+        }
+    }
+
+    private static class Bucket {
+        private long minute = Long.MIN_VALUE / 2;
+        private long requests;
+        private long statements;
+        private int maxStatements;
+        private long sqlMillis;
+        private long maxSqlMillis;
+        private long repeatedStatementRequests;
+        private final Map<String, Integer> repeated = new HashMap<>();
+
+        void reset(long minute) {
+            this.minute = minute;
+            requests = 0;
+            statements = 0;
+            maxStatements = 0;
+            sqlMillis = 0;
+            maxSqlMillis = 0;
+            repeatedStatementRequests = 0;
+            repeated.clear();
+        }
+    }
+}
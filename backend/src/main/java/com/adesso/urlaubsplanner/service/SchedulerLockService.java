@@ -0,0 +1,87 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.SchedulerLock;
+import com.adesso.urlaubsplanner.repository.SchedulerLockRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Runs scheduled jobs on one instance of a cluster at a time, via lock rows in the shared database
+ *
+ * Every instance fires the same cron triggers; the first one to move a job's lockedUntil into the
+ * future runs the job, the others skip it. The lock expires after lockAtMostFor even if its holder
+ * dies, and is kept for at least lockAtLeastFor, so an instance whose clock or trigger lags slightly
+ * does not run the job a second time. Lock changes commit on their own, outside the job's transactions.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SchedulerLockService {
+
+    private final SchedulerLockRepository schedulerLockRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final EntityManager entityManager;
+
+    private final String instance = UUID.randomUUID().toString();
+
+    /**
+     * Run a job if no other instance holds its lock
+     *
+     * @return true if the job ran here
+     */
+    public boolean runLocked(String name, Duration lockAtMostFor, Duration lockAtLeastFor, Runnable job) {
+        LocalDateTime started = LocalDateTime.now();
+        if (!acquire(name, started, started.plus(lockAtMostFor))) {
+            log.info("Skipping job {}: running or recently run on another instance", name);
+            return false;
+        }
+        try {
+            job.run();
+            return true;
+        } finally {
+            LocalDateTime keepUntil = started.plus(lockAtLeastFor);
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = keepUntil.isAfter(now) ? keepUntil : now;
+            try {
+                newTransaction().executeWithoutResult(status -> schedulerLockRepository.release(name, until, instance));
+            } catch (RuntimeException e) {
+                // The lock expires on its own after lockAtMostFor
+                log.warn("Could not release scheduler lock {}: {}", name, e.getMessage());
+            }
+        }
+    }
+
+    private boolean acquire(String name, LocalDateTime now, LocalDateTime until) {
+        int updated = Objects.requireNonNull(newTransaction().execute(status ->
+                schedulerLockRepository.acquire(name, now, until, instance)));
+        if (updated == 1) {
+            return true;
+        }
+        // First run of the job anywhere: create the row already locked
+        // (persist, not save: save() would merge into a row another instance just created)
+        try {
+            newTransaction().executeWithoutResult(status ->
+                    entityManager.persist(new SchedulerLock(name, until, now, instance)));
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            return false;
+        }
+    }
+
+    private TransactionTemplate newTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        return template;
+    }
+}
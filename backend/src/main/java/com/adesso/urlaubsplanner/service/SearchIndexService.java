@@ -0,0 +1,623 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.RequestSearchRow;
+import com.adesso.urlaubsplanner.dto.SearchHitDTO;
+import com.adesso.urlaubsplanner.dto.SearchResultDTO;
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory inverted index over audit details and request notes / approval reasons
+ *
+ * Terms map to ascending posting lists of document numbers; the sorted term map answers prefix
+ * queries ("urlaub*"). Every document carries its type, timestamp, action (audit action or request
+ * status) and region, so filters are checked on the matching documents only and a query never
+ * reads the tables. Results are ranked by document timestamp, newest first. Writes are indexed after
+ * their transaction commits; a changed request replaces its previous document, and once the replaced
+ * documents exceed a share of the index they are compacted away. The index is rebuilt
+ * from the stores at startup; while it runs, the scan and live writes check under the write lock
+ * what the other already indexed, so no entry is indexed twice and no request goes back to an older state.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SearchIndexService {
+
+    public static final String AUDIT = "AUDIT";
+    public static final String REQUEST = "REQUEST";
+    public static final int MAX_LIMIT = 200;
+
+    private static final byte TYPE_AUDIT = 0;
+    private static final byte TYPE_REQUEST = 1;
+    private static final long NO_REGION = -1L;
+    private static final int MIN_TOKEN_LENGTH = 2;
+    private static final int MAX_TOKEN_LENGTH = 40;
+    private static final int MIN_COMPACTION_DOCS = 1024;
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final AuditLogStore auditLogStore;
+    private final VacationRequestRepository vacationRequestRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+    private final InvalidationBus invalidationBus;
+
+    @Value("${urlaubsplaner.search.compact-deleted-ratio:0.3}")
+    private double compactDeletedRatio;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private final Map<Long, Integer> requestDocs = new HashMap<>();
+    private final Map<String, Integer> actionCodes = new HashMap<>();
+    private final List<String> actionNames = new ArrayList<>();
+    private final BitSet deleted = new BitSet();
+    private int deletedDocs;
+    private byte[] types = new byte[1024];
+    private long[] entityIds = new long[1024];
+    private long[] timestamps = new long[1024];
+    private long[] regionIds = new long[1024];
+    private int[] actions = new int[1024];
+    private int documents;
+
+    private final Map<String, Long> userRegions = new ConcurrentHashMap<>();
+    // While the rebuild runs (guarded by the write lock): audit ids indexed by either path
+    // (ids are dense sequence numbers, so a bit set stays small) and requests indexed live
+    private final BitSet rebuildAuditIds = new BitSet();
+    private final Set<Long> liveRequestIds = new HashSet<>();
+    private volatile boolean rebuilding;
+    private volatile boolean ready;
+
+    /**
+     * Index an audit entry once the current transaction committed
+     */
+    public void indexAudit(AuditLog entry) {
+        afterCommit(() -> addAudit(entry));
+    }
+
+    /**
+     * Index the current state of a request once the current transaction committed
+     */
+    public void indexRequest(VacationRequest request, Long regionId) {
+        RequestSearchRow row = new RequestSearchRow(request.getId(), regionId, request.getStatus(),
+                request.getCreatedAt(), request.getNotes(), request.getApprovalReason());
+        afterCommit(() -> addRequest(row, true));
+    }
+
+    /**
+     * Drop the cached region of a user once the current transaction committed
+     * Called when a user is created, moved to another region or deleted, so later audit entries
+     * are indexed under the user's current region; other instances drop all their cached regions.
+     */
+    public void forgetUser(String username) {
+        invalidationBus.publishUsersChanged();
+        afterCommit(() -> userRegions.remove(username));
+    }
+
+    /**
+     * Drop all cached user regions after another instance changed users
+     */
+    @EventListener
+    public void onRemoteInvalidation(InvalidationBus.RemoteInvalidation invalidation) {
+        if (InvalidationBus.USERS.equals(invalidation.topic())) {
+            userRegions.clear();
+        }
+    }
+
+    /**
+     * Find documents containing all query terms, newest first
+     * Terms ending with "*" match as prefix; type, action, region and time filters are optional.
+     */
+    public SearchResultDTO search(String query, String type, String action, Long regionId,
+                                  LocalDateTime from, LocalDateTime to, int limit) {
+        if (!ready) {
+            throw new IllegalStateException("Search index is being built");
+        }
+        long started = System.nanoTime();
+        List<QueryTerm> queryTerms = parse(query);
+        if (queryTerms.isEmpty()) {
+            throw new IllegalArgumentException("Query must contain at least one term of " + MIN_TOKEN_LENGTH + " characters");
+        }
+        if (type != null && !AUDIT.equals(type) && !REQUEST.equals(type)) {
+            throw new IllegalArgumentException("Unknown type: " + type);
+        }
+        Byte typeCode = type == null ? null : AUDIT.equals(type) ? TYPE_AUDIT : TYPE_REQUEST;
+        int pageSize = Math.max(1, Math.min(limit, MAX_LIMIT));
+        long fromMillis = from != null ? toMillis(from) : Long.MIN_VALUE;
+        long untilMillis = to != null ? toMillis(to) : Long.MAX_VALUE;
+        long region = regionId != null ? regionId : NO_REGION;
+
+        long total = 0;
+        List<SearchHitDTO> results = new ArrayList<>(pageSize);
+
+        lock.readLock().lock();
+        try {
+            Integer actionCode = action != null ? actionCodes.get(action) : null;
+            if (action != null && actionCode == null) {
+                return new SearchResultDTO(query, 0L, elapsedMillis(started), List.of());
+            }
+
+            List<Clause> clauses = new ArrayList<>();
+            for (QueryTerm term : queryTerms) {
+                Clause clause = resolve(term);
+                if (clause == null) {
+                    return new SearchResultDTO(query, 0L, elapsedMillis(started), List.of());
+                }
+                clauses.add(clause);
+            }
+            Clause driver = clauses.stream().min((a, b) -> Long.compare(a.cost(), b.cost())).orElseThrow();
+
+            // Document numbers follow indexing order, not time; keep the newest page in a bounded heap
+            PriorityQueue<Integer> newest = new PriorityQueue<>(pageSize + 1, this::compareByTime);
+            DocIterator candidates = driver.descending();
+            for (int doc = candidates.next(); doc >= 0; doc = candidates.next()) {
+                if (deleted.get(doc)
+                        || (typeCode != null && types[doc] != typeCode)
+                        || (actionCode != null && actions[doc] != actionCode)
+                        || (regionId != null && regionIds[doc] != region)
+                        || timestamps[doc] < fromMillis || timestamps[doc] > untilMillis
+                        || !matchesAll(clauses, driver, doc)) {
+                    continue;
+                }
+                total++;
+                newest.add(doc);
+                if (newest.size() > pageSize) {
+                    newest.poll();
+                }
+            }
+            while (!newest.isEmpty()) {
+                int doc = newest.poll();
+                results.add(new SearchHitDTO(types[doc] == TYPE_AUDIT ? AUDIT : REQUEST, entityIds[doc],
+                        toDateTime(timestamps[doc]), actionNames.get(actions[doc]),
+                        regionIds[doc] != NO_REGION ? regionIds[doc] : null, null, null));
+            }
+            Collections.reverse(results);
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        hydrate(results);
+        return new SearchResultDTO(query, total, elapsedMillis(started), results);
+    }
+
+    /**
+     * Rebuild the index from the audit store and the request table in the background
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        Thread thread = new Thread(this::rebuild, "search-index-rebuild");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            rebuilding = true;
+            ready = false;
+            terms.clear();
+            requestDocs.clear();
+            deleted.clear();
+            deletedDocs = 0;
+            rebuildAuditIds.clear();
+            liveRequestIds.clear();
+            documents = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        try {
+            for (User user : userRepository.findAll()) {
+                userRegions.putIfAbsent(user.getUsername(), user.getRegion() != null ? user.getRegion().getId() : NO_REGION);
+            }
+            auditLogStore.scan(this::addAudit);
+            TransactionTemplate template = new TransactionTemplate(transactionManager);
+            template.setReadOnly(true);
+            template.executeWithoutResult(status -> {
+                try (Stream<RequestSearchRow> rows = vacationRequestRepository.streamSearchRows()) {
+                    rows.forEach(row -> addRequest(row, false));
+                }
+            });
+            log.info("Search index built in {} ms: {} documents, {} terms",
+                    System.currentTimeMillis() - started, documents, terms.size());
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed; search stays unavailable", e);
+            return;
+        } finally {
+            lock.writeLock().lock();
+            try {
+                rebuilding = false;
+                rebuildAuditIds.clear();
+                liveRequestIds.clear();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        ready = true;
+    }
+
+    private void addAudit(AuditLog entry) {
+        String username = entry.getTargetUser() != null ? entry.getTargetUser() : entry.getPerformedBy();
+        long regionId = username != null ? regionOf(username) : NO_REGION;
+        Set<String> tokens = tokenize(entry.getDetails());
+        if (tokens.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            // The scan may read an entry whose live indexing is still pending, or the other way round
+            if (rebuilding && entry.getId() != null && !markRebuildAudit(entry.getId())) {
+                return;
+            }
+            add(TYPE_AUDIT, entry.getId() != null ? entry.getId() : -1L, toMillis(entry.getTimestamp()),
+                    entry.getAction(), regionId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index a request's current state; during the rebuild a scanned row never replaces a live one
+     */
+    private void addRequest(RequestSearchRow row, boolean live) {
+        Set<String> tokens = tokenize(row.notes());
+        tokens.addAll(tokenize(row.approvalReason()));
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) {
+                if (live) {
+                    liveRequestIds.add(row.id());
+                } else if (liveRequestIds.contains(row.id())) {
+                    return;
+                }
+            }
+            Integer previous = requestDocs.remove(row.id());
+            if (previous != null) {
+                deleted.set(previous);
+                deletedDocs++;
+            }
+            if (!tokens.isEmpty()) {
+                int doc = add(TYPE_REQUEST, row.id(), toMillis(row.createdAt().atStartOfDay()), row.status().name(),
+                        row.regionId() != null ? row.regionId() : NO_REGION, tokens);
+                requestDocs.put(row.id(), doc);
+            }
+            if (deletedDocs >= MIN_COMPACTION_DOCS && deletedDocs > documents * compactDeletedRatio) {
+                compact();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drop replaced documents and renumber the rest in their order; caller holds the write lock
+     */
+    private void compact() {
+        long started = System.currentTimeMillis();
+        int[] renumbered = new int[documents];
+        int live = 0;
+        for (int doc = 0; doc < documents; doc++) {
+            if (deleted.get(doc)) {
+                renumbered[doc] = -1;
+                continue;
+            }
+            types[live] = types[doc];
+            entityIds[live] = entityIds[doc];
+            timestamps[live] = timestamps[doc];
+            regionIds[live] = regionIds[doc];
+            actions[live] = actions[doc];
+            renumbered[doc] = live++;
+        }
+        for (Iterator<Postings> it = terms.values().iterator(); it.hasNext(); ) {
+            Postings postings = it.next();
+            postings.renumber(renumbered);
+            if (postings.size == 0) {
+                it.remove();
+            }
+        }
+        requestDocs.replaceAll((id, doc) -> renumbered[doc]);
+        log.debug("Search index compacted in {} ms: {} of {} documents removed",
+                System.currentTimeMillis() - started, deletedDocs, documents);
+        documents = live;
+        deleted.clear();
+        deletedDocs = 0;
+    }
+
+    int documentCount() {
+        lock.readLock().lock();
+        try {
+            return documents;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Record an audit id as indexed during the rebuild; false if it already was (caller holds the write lock)
+     */
+    private boolean markRebuildAudit(long id) {
+        if (id < 0 || id > Integer.MAX_VALUE) {
+            return true;
+        }
+        if (rebuildAuditIds.get((int) id)) {
+            return false;
+        }
+        rebuildAuditIds.set((int) id);
+        return true;
+    }
+
+    /**
+     * Older first: by timestamp, then by indexing order
+     */
+    private int compareByTime(int a, int b) {
+        int byTime = Long.compare(timestamps[a], timestamps[b]);
+        return byTime != 0 ? byTime : Integer.compare(a, b);
+    }
+
+    /**
+     * Append a document; caller holds the write lock
+     */
+    private int add(byte type, long entityId, long timestamp, String action, long regionId, Set<String> tokens) {
+        int doc = documents;
+        if (doc == types.length) {
+            int capacity = doc * 2;
+            types = Arrays.copyOf(types, capacity);
+            entityIds = Arrays.copyOf(entityIds, capacity);
+            timestamps = Arrays.copyOf(timestamps, capacity);
+            regionIds = Arrays.copyOf(regionIds, capacity);
+            actions = Arrays.copyOf(actions, capacity);
+        }
+        types[doc] = type;
+        entityIds[doc] = entityId;
+        timestamps[doc] = timestamp;
+        regionIds[doc] = regionId;
+        actions[doc] = actionCodes.computeIfAbsent(action, key -> {
+            actionNames.add(key);
+            return actionNames.size() - 1;
+        });
+        for (String token : tokens) {
+            terms.computeIfAbsent(token, key -> new Postings()).add(doc);
+        }
+        documents++;
+        return doc;
+    }
+
+    /**
+     * Exact terms resolve to their posting list, prefixes to the union of all matching lists
+     */
+    private Clause resolve(QueryTerm term) {
+        if (!term.prefix()) {
+            Postings postings = terms.get(term.text());
+            return postings != null ? new ExactClause(postings) : null;
+        }
+        BitSet union = new BitSet(documents);
+        for (Postings postings : terms.subMap(term.text(), true, term.text() + Character.MAX_VALUE, false).values()) {
+            for (int i = 0; i < postings.size; i++) {
+                union.set(postings.docs[i]);
+            }
+        }
+        return union.isEmpty() ? null : new PrefixClause(union);
+    }
+
+    private boolean matchesAll(List<Clause> clauses, Clause driver, int doc) {
+        for (Clause clause : clauses) {
+            if (clause != driver && !clause.contains(doc)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Load subject and text of the returned page from the stores (one lookup per type)
+     */
+    private void hydrate(List<SearchHitDTO> hits) {
+        List<Long> auditIds = hits.stream().filter(hit -> AUDIT.equals(hit.getType())).map(SearchHitDTO::getId).toList();
+        List<Long> requestIds = hits.stream().filter(hit -> REQUEST.equals(hit.getType())).map(SearchHitDTO::getId).toList();
+        Map<Long, AuditLog> audits = auditIds.isEmpty() ? Map.of() : auditLogStore.findByIds(auditIds).stream()
+                .collect(Collectors.toMap(AuditLog::getId, Function.identity(), (a, b) -> a));
+        Map<Long, VacationRequest> requests = requestIds.isEmpty() ? Map.of() : vacationRequestRepository.findAllById(requestIds)
+                .stream().collect(Collectors.toMap(VacationRequest::getId, Function.identity()));
+
+        for (SearchHitDTO hit : hits) {
+            if (AUDIT.equals(hit.getType())) {
+                AuditLog entry = audits.get(hit.getId());
+                if (entry != null) {
+                    hit.setSubject(entry.getTargetUser() != null ? entry.getTargetUser() : entry.getPerformedBy());
+                    hit.setText(entry.getDetails());
+                }
+            } else {
+                VacationRequest request = requests.get(hit.getId());
+                if (request != null) {
+                    hit.setSubject(request.getEmployeeName());
+                    hit.setText(Stream.of(request.getNotes(), request.getApprovalReason())
+                            .filter(text -> text != null && !text.isBlank())
+                            .collect(Collectors.joining(" | ")));
+                }
+            }
+        }
+    }
+
+    /**
+     * Current region of a user, cached until {@link #forgetUser}; audit entries keep the region they were indexed with
+     * The lookup runs inside computeIfAbsent, so a concurrent forgetUser cannot leave a value read before the change.
+     */
+    private long regionOf(String username) {
+        return userRegions.computeIfAbsent(username, key -> userRepository.findByUsername(key)
+                .map(user -> user.getRegion() != null ? user.getRegion().getId() : NO_REGION)
+                .orElse(NO_REGION));
+    }
+
+    static Set<String> tokenize(String text) {
+        Set<String> tokens = new LinkedHashSet<>();
+        if (text == null || text.isBlank()) {
+            return tokens;
+        }
+        for (String token : TOKEN_SEPARATOR.split(text.toLowerCase(Locale.ROOT))) {
+            if (token.length() >= MIN_TOKEN_LENGTH) {
+                tokens.add(token.length() > MAX_TOKEN_LENGTH ? token.substring(0, MAX_TOKEN_LENGTH) : token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Split a query into terms; a trailing "*" on a word makes its last term a prefix
+     */
+    private static List<QueryTerm> parse(String query) {
+        List<QueryTerm> queryTerms = new ArrayList<>();
+        if (query == null) {
+            return queryTerms;
+        }
+        for (String word : query.trim().split("\\s+")) {
+            boolean prefix = word.endsWith("*");
+            List<String> tokens = new ArrayList<>(tokenize(prefix ? word.substring(0, word.length() - 1) : word));
+            for (int i = 0; i < tokens.size(); i++) {
+                queryTerms.add(new QueryTerm(tokens.get(i), prefix && i == tokens.size() - 1));
+            }
+        }
+        return queryTerms;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
+    }
+
+    private record QueryTerm(String text, boolean prefix) {
+    }
+
+    /**
+     * Ascending document numbers of one term; appended under the write lock
+     */
+    private static class Postings {
+        private int[] docs = new int[4];
+        private int size;
+
+        void add(int doc) {
+            if (size > 0 && docs[size - 1] == doc) {
+                return;
+            }
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+            }
+            docs[size++] = doc;
+        }
+
+        /**
+         * Map to new document numbers, dropping removed ones (-1); ascending order is kept
+         */
+        void renumber(int[] renumbered) {
+            int kept = 0;
+            for (int i = 0; i < size; i++) {
+                int doc = renumbered[docs[i]];
+                if (doc >= 0) {
+                    docs[kept++] = doc;
+                }
+            }
+            size = kept;
+        }
+    }
+
+    /**
+     * Document numbers in descending order, -1 when exhausted
+     */
+    private interface DocIterator {
+        int next();
+    }
+
+    private interface Clause {
+        long cost();
+
+        DocIterator descending();
+
+        boolean contains(int doc);
+    }
+
+    private record ExactClause(Postings postings) implements Clause {
+        public long cost() {
+            return postings.size;
+        }
+
+        public DocIterator descending() {
+            int[] docs = postings.docs;
+            int[] index = {postings.size};
+            return () -> --index[0] >= 0 ? docs[index[0]] : -1;
+        }
+
+        public boolean contains(int doc) {
+            return Arrays.binarySearch(postings.docs, 0, postings.size, doc) >= 0;
+        }
+    }
+
+    private record PrefixClause(BitSet docs) implements Clause {
+        public long cost() {
+            return docs.cardinality();
+        }
+
+        public DocIterator descending() {
+            int[] current = {docs.length()};
+            return () -> current[0] > 0 ? (current[0] = docs.previousSetBit(current[0] - 1)) : -1;
+        }
+
+        public boolean contains(int doc) {
+            return docs.get(doc);
+        }
+    }
+}
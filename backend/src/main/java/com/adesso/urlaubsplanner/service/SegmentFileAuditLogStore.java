@@ -0,0 +1,772 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Audit log store appending entries to rolling memory-mapped segment files (urlaubsplaner.audit.store=segment)
+ *
+ * Record layout: int payload length, int CRC32 of the payload, long timestamp (epoch millis), JSON payload.
+ * A single writer thread drains the append queue, writes the batch and forces it to disk once
+ * (group commit); callers wait until their batch is durable. Entries of a transaction are written
+ * just before it commits, and a failed write fails the transaction. If the transaction still rolls
+ * back afterwards, a rollback marker record hides the entry (the hidden ids are kept in memory and
+ * rebuilt from the markers at startup). So every committed change has its entry; only when the
+ * marker cannot be written either does an entry of a rolled back change remain visible. Failed
+ * appends are counted in the metric urlaubsplaner.audit.append.failures.
+ *
+ * The writer keeps timestamps non-decreasing in append order. Every segment knows its time bounds,
+ * keeps a sparse timestamp index (every 64th record) and the performers, targets and actions it
+ * contains, so queries only read matching segments and range queries only the matching part of them.
+ * Indexes live in memory and are rebuilt from the segments at startup; a torn tail is cut off there.
+ * A batch that fails to write is rolled back to the last commit (zeroed on disk and in the indexes).
+ *
+ * Retention works on whole segments: once every entry of a closed segment is older than the
+ * archive cutoff, its entries are handed to the archiver month by month and the file is deleted.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = "urlaubsplaner.audit.store", havingValue = "segment")
+@RequiredArgsConstructor
+public class SegmentFileAuditLogStore implements AuditLogStore {
+
+    private static final int HEADER_BYTES = 16;
+    private static final int SPARSE_INDEX_INTERVAL = 64;
+    private static final int MAX_BATCH = 512;
+    private static final String SEGMENT_PREFIX = "segment-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    // Action of the marker records; their details hold the id of the rolled back entry
+    static final String ROLLED_BACK = "AUDIT_ROLLED_BACK";
+
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    @Value("${urlaubsplaner.audit.segment.dir:data/audit-segments}")
+    private String segmentDir;
+
+    @Value("${urlaubsplaner.audit.segment.size-mb:64}")
+    private int segmentSizeMb;
+
+    @Value("${urlaubsplaner.audit.segment.queue-capacity:10000}")
+    private int queueCapacity;
+
+    @Value("${urlaubsplaner.audit.segment.commit-timeout-ms:5000}")
+    private long commitTimeoutMillis;
+
+    private final List<Segment> segments = new CopyOnWriteArrayList<>();
+    private final Set<Long> rolledBack = ConcurrentHashMap.newKeySet();
+    private Counter appendFailures;
+    private BlockingQueue<PendingAppend> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    // Owned by the writer thread after startup
+    private long nextSeq = 1;
+    private long lastTimestamp = Long.MIN_VALUE;
+
+    @PostConstruct
+    void open() throws IOException {
+        appendFailures = meterRegistry.counter("urlaubsplaner.audit.append.failures");
+        Path dir = Files.createDirectories(Path.of(segmentDir));
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(dir)) {
+            files = listing.filter(path -> path.getFileName().toString().startsWith(SEGMENT_PREFIX)
+                            && path.getFileName().toString().endsWith(SEGMENT_SUFFIX))
+                    .sorted()
+                    .toList();
+        }
+        for (Path file : files) {
+            Segment segment = Segment.open(file, segmentSize());
+            recover(segment);
+            segments.add(segment);
+            if (segment.count > 0) {
+                nextSeq = segment.lastSeq + 1;
+                lastTimestamp = segment.maxTimestamp;
+            }
+        }
+        if (segments.isEmpty()) {
+            roll();
+        }
+
+        queue = new ArrayBlockingQueue<>(queueCapacity);
+        running = true;
+        writer = new Thread(this::writeLoop, "audit-segment-writer");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Audit segment store opened: {} segments in {}, next sequence {}", segments.size(), dir, nextSeq);
+    }
+
+    @PreDestroy
+    void close() throws InterruptedException {
+        running = false;
+        writer.join(commitTimeoutMillis);
+        // Appends that raced with shutdown and missed the writer's last batch
+        for (PendingAppend pending = queue.poll(); pending != null; pending = queue.poll()) {
+            pending.done().completeExceptionally(new IllegalStateException("Audit log store is closed"));
+        }
+        for (Segment segment : segments) {
+            try {
+                segment.channel.close();
+            } catch (IOException e) {
+                log.warn("Could not close audit segment {}", segment.path, e);
+            }
+        }
+    }
+
+    @Override
+    public void append(AuditLog entry) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            appendAndWait(entry);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void beforeCommit(boolean readOnly) {
+                appendAndWait(entry);
+            }
+
+            @Override
+            public void afterCompletion(int status) {
+                if (status != STATUS_COMMITTED && entry.getId() != null) {
+                    markRolledBack(entry);
+                }
+            }
+        });
+    }
+
+    /**
+     * Hide the entry of a rolled back transaction, here and (via a marker record) after a restart
+     */
+    private void markRolledBack(AuditLog entry) {
+        rolledBack.add(entry.getId());
+        try {
+            appendAndWait(new AuditLog(ROLLED_BACK, entry.getPerformedBy(), String.valueOf(entry.getId())));
+        } catch (RuntimeException e) {
+            // The transaction is already over; the entry stays hidden until the next restart
+            log.error("Rollback of audit entry #{} could not be recorded", entry.getId(), e);
+        }
+    }
+
+    @Override
+    public List<AuditLog> findAll() {
+        return query(segment -> true, Long.MIN_VALUE, Long.MAX_VALUE, entry -> true);
+    }
+
+    @Override
+    public List<AuditLog> findByPerformedBy(String performedBy) {
+        return query(segment -> segment.performers.contains(performedBy), Long.MIN_VALUE, Long.MAX_VALUE,
+                entry -> performedBy.equals(entry.getPerformedBy()));
+    }
+
+    @Override
+    public List<AuditLog> findByTargetUser(String targetUser) {
+        return query(segment -> segment.targets.contains(targetUser), Long.MIN_VALUE, Long.MAX_VALUE,
+                entry -> targetUser.equals(entry.getTargetUser()));
+    }
+
+    @Override
+    public List<AuditLog> findByAction(String action) {
+        return query(segment -> segment.actions.contains(action), Long.MIN_VALUE, Long.MAX_VALUE,
+                entry -> action.equals(entry.getAction()));
+    }
+
+    @Override
+    public List<AuditLog> findByTimestampBetween(LocalDateTime start, LocalDateTime end) {
+        long from = toMillis(start);
+        long to = toMillis(end);
+        return query(segment -> segment.overlaps(from, to), from, to, entry -> true);
+    }
+
+    /**
+     * Records of a segment have consecutive ids, so the sparse index also locates an id
+     */
+    @Override
+    public List<AuditLog> findByIds(Collection<Long> ids) {
+        List<AuditLog> result = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            for (Segment segment : segments) {
+                int offset = segment.offsetOf(id);
+                if (offset >= 0) {
+                    AuditLog entry = decode(segment, offset, segment.buffer.getInt(offset));
+                    if (visible(entry)) {
+                        result.add(entry);
+                    }
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void scan(Consumer<AuditLog> consumer) {
+        for (Segment segment : segments) {
+            int offset = 0;
+            int limit = segment.committed;
+            while (offset + HEADER_BYTES <= limit) {
+                int length = segment.buffer.getInt(offset);
+                AuditLog entry = decode(segment, offset, length);
+                if (visible(entry)) {
+                    consumer.accept(entry);
+                }
+                offset += HEADER_BYTES + length;
+            }
+        }
+    }
+
+    /**
+     * Archive closed segments whose entries all lie before the cutoff, then delete their files
+     * The active segment is never archived, so expired entries in it wait for the next run after it rolled.
+     */
+    @Override
+    public Map<Integer, Long> archiveBefore(int cutoffMonth, Archiver archiver) {
+        long cutoff = monthStart(cutoffMonth);
+        Map<Integer, Long> archived = new LinkedHashMap<>();
+        List<Segment> snapshot = List.copyOf(segments);
+        for (Segment segment : snapshot.subList(0, snapshot.size() - 1)) {
+            if (!segment.endsBefore(cutoff)) {
+                break;
+            }
+            if (segment.count > 0) {
+                YearMonth last = YearMonth.from(toDateTime(segment.maxTimestamp));
+                for (YearMonth month = YearMonth.from(toDateTime(segment.minTimestamp)); !month.isAfter(last);
+                     month = month.plusMonths(1)) {
+                    int partition = month.getYear() * 100 + month.getMonthValue();
+                    long from = monthStart(partition);
+                    long to = toMillis(month.plusMonths(1).atDay(1).atStartOfDay());
+                    ArchivedRange range = archiver.write(partition, new SegmentIterator(segment, from, to));
+                    if (range.count() > 0) {
+                        archived.merge(partition, range.count(), Long::sum);
+                    }
+                }
+            }
+            drop(segment);
+        }
+        return archived;
+    }
+
+    private void appendAndWait(AuditLog entry) {
+        try {
+            enqueueAndWait(entry);
+        } catch (RuntimeException e) {
+            appendFailures.increment();
+            throw e;
+        }
+    }
+
+    private void enqueueAndWait(AuditLog entry) {
+        if (!running) {
+            throw new IllegalStateException("Audit log store is closed");
+        }
+        PendingAppend pending = new PendingAppend(entry, new CompletableFuture<>());
+        try {
+            if (!queue.offer(pending, commitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new IllegalStateException("Audit log queue is full");
+            }
+            if (!running && !writer.isAlive() && queue.remove(pending)) {
+                throw new IllegalStateException("Audit log store is closed");
+            }
+            pending.done().get(commitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while writing the audit log", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Audit log append failed", e.getCause());
+        } catch (TimeoutException e) {
+            throw new IllegalStateException("Audit log append timed out", e);
+        }
+    }
+
+    /**
+     * Rollback markers and the entries they hide are not returned by any query
+     */
+    private boolean visible(AuditLog entry) {
+        return !ROLLED_BACK.equals(entry.getAction()) && !rolledBack.contains(entry.getId());
+    }
+
+    /**
+     * Scan matching segments oldest first and return the matching entries newest first
+     */
+    private List<AuditLog> query(Predicate<Segment> segmentFilter, long from, long to, Predicate<AuditLog> filter) {
+        List<AuditLog> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (!segmentFilter.test(segment)) {
+                continue;
+            }
+            int offset = segment.startOffset(from);
+            int limit = segment.committed;
+            while (offset + HEADER_BYTES <= limit) {
+                int length = segment.buffer.getInt(offset);
+                long timestamp = segment.buffer.getLong(offset + 8);
+                if (timestamp > to) {
+                    break;
+                }
+                if (timestamp >= from) {
+                    AuditLog entry = decode(segment, offset, length);
+                    if (filter.test(entry) && visible(entry)) {
+                        result.add(entry);
+                    }
+                }
+                offset += HEADER_BYTES + length;
+            }
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private void writeLoop() {
+        List<PendingAppend> batch = new ArrayList<>(MAX_BATCH);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingAppend first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, MAX_BATCH - 1);
+                writeBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void writeBatch(List<PendingAppend> batch) {
+        List<PendingAppend> written = new ArrayList<>(batch.size());
+        Segment segment = segments.get(segments.size() - 1);
+        long committedSeq = nextSeq;
+        long committedTimestamp = lastTimestamp;
+        try {
+            for (PendingAppend pending : batch) {
+                AuditLog entry = pending.entry();
+                long timestamp = Math.max(toMillis(entry.getTimestamp()), lastTimestamp);
+                entry.setId(nextSeq);
+                entry.setTimestamp(toDateTime(timestamp));
+                entry.setPartitionMonth(AuditLog.partitionOf(entry.getTimestamp()));
+                byte[] payload = objectMapper.writeValueAsBytes(entry);
+                if (HEADER_BYTES + payload.length > segment.buffer.capacity()) {
+                    pending.done().completeExceptionally(new IllegalArgumentException("Audit entry exceeds the segment size"));
+                    continue;
+                }
+                if (!segment.fits(HEADER_BYTES + payload.length)) {
+                    segment.commit();
+                    committedSeq = nextSeq;
+                    committedTimestamp = lastTimestamp;
+                    written.forEach(done -> done.done().complete(null));
+                    written.clear();
+                    segment = roll();
+                }
+                segment.write(timestamp, payload, entry);
+                written.add(pending);
+                nextSeq++;
+                lastTimestamp = timestamp;
+            }
+            segment.commit();
+            written.forEach(pending -> pending.done().complete(null));
+        } catch (Exception e) {
+            log.error("Audit segment write failed for a batch of {} entries", batch.size(), e);
+            // Records after the last commit were never acknowledged; discard them so the next batch overwrites them
+            nextSeq = committedSeq;
+            lastTimestamp = committedTimestamp;
+            try {
+                segment.rollback();
+            } catch (RuntimeException rollbackFailure) {
+                log.error("Audit segment {} could not be rolled back", segment.path, rollbackFailure);
+            }
+            batch.forEach(pending -> pending.done().completeExceptionally(e));
+        }
+    }
+
+    private Segment roll() throws IOException {
+        Path path = Path.of(segmentDir).resolve(String.format("%s%020d%s", SEGMENT_PREFIX, nextSeq, SEGMENT_SUFFIX));
+        Segment segment = Segment.open(path, segmentSize());
+        segments.add(segment);
+        return segment;
+    }
+
+    /**
+     * Remove an archived segment; readers still scanning it keep their mapping until they finish
+     */
+    private void drop(Segment segment) {
+        segments.remove(segment);
+        try {
+            segment.channel.close();
+            Files.deleteIfExists(segment.path);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not delete archived audit segment " + segment.path, e);
+        }
+        log.info("Audit segment {} archived and deleted ({} entries)", segment.path.getFileName(), segment.count);
+    }
+
+    /**
+     * Rebuild the indexes of a segment and cut off a torn tail left by a crash
+     */
+    private void recover(Segment segment) throws IOException {
+        int offset = 0;
+        int capacity = segment.buffer.capacity();
+        while (offset + HEADER_BYTES <= capacity) {
+            int length = segment.buffer.getInt(offset);
+            if (length == 0) {
+                break;
+            }
+            if (length < 0 || offset + HEADER_BYTES + length > capacity || !checksumMatches(segment, offset, length)) {
+                log.warn("Audit segment {} has a torn record at offset {}; truncating", segment.path, offset);
+                segment.buffer.put(offset, new byte[Math.min(capacity - offset, HEADER_BYTES + Math.max(length, 0))]);
+                segment.buffer.putInt(offset, 0);
+                segment.buffer.force();
+                break;
+            }
+            AuditLog entry = decode(segment, offset, length);
+            segment.index(offset, segment.buffer.getLong(offset + 8), entry);
+            if (ROLLED_BACK.equals(entry.getAction())) {
+                rolledBack.add(Long.valueOf(entry.getDetails()));
+            }
+            offset += HEADER_BYTES + length;
+        }
+        segment.position = offset;
+        segment.syncedPosition = offset;
+        segment.markCommitted();
+    }
+
+    private boolean checksumMatches(Segment segment, int offset, int length) {
+        byte[] payload = new byte[length];
+        segment.buffer.get(offset + HEADER_BYTES, payload);
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        return (int) crc.getValue() == segment.buffer.getInt(offset + 4);
+    }
+
+    private AuditLog decode(Segment segment, int offset, int length) {
+        byte[] payload = new byte[length];
+        segment.buffer.get(offset + HEADER_BYTES, payload);
+        try {
+            return objectMapper.readValue(payload, AuditLog.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt audit record in " + segment.path + " at offset " + offset, e);
+        }
+    }
+
+    private int segmentSize() {
+        return segmentSizeMb * 1024 * 1024;
+    }
+
+    private static long toMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static LocalDateTime toDateTime(long millis) {
+        return LocalDateTime.ofEpochSecond(Math.floorDiv(millis, 1000L), (int) Math.floorMod(millis, 1000L) * 1_000_000,
+                ZoneOffset.UTC);
+    }
+
+    private static long monthStart(int partition) {
+        return toMillis(LocalDate.of(partition / 100, partition % 100, 1).atStartOfDay());
+    }
+
+    private record PendingAppend(AuditLog entry, CompletableFuture<Void> done) {
+    }
+
+    /**
+     * Visible committed records of a segment within [from, to), oldest first
+     */
+    private class SegmentIterator implements Iterator<AuditLog> {
+
+        private final Segment segment;
+        private final long to;
+        private final int limit;
+        private int offset;
+        private AuditLog next;
+
+        SegmentIterator(Segment segment, long from, long to) {
+            this.segment = segment;
+            this.to = to;
+            this.limit = segment.committed;
+            this.offset = segment.startOffset(from);
+            while (offset + HEADER_BYTES <= limit && segment.buffer.getLong(offset + 8) < from) {
+                offset += HEADER_BYTES + segment.buffer.getInt(offset);
+            }
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public AuditLog next() {
+            if (next == null) {
+                throw new NoSuchElementException();
+            }
+            AuditLog entry = next;
+            advance();
+            return entry;
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && offset + HEADER_BYTES <= limit && segment.buffer.getInt(offset) > 0
+                    && segment.buffer.getLong(offset + 8) < to) {
+                int length = segment.buffer.getInt(offset);
+                AuditLog entry = decode(segment, offset, length);
+                offset += HEADER_BYTES + length;
+                if (visible(entry)) {
+                    next = entry;
+                }
+            }
+        }
+    }
+
+    /**
+     * One memory-mapped segment file with its in-memory indexes
+     * Written by the writer thread only; readers see records up to the committed offset.
+     */
+    private static class Segment {
+
+        private final Path path;
+        private final FileChannel channel;
+        private final MappedByteBuffer buffer;
+        private final ReentrantLock indexLock = new ReentrantLock();
+        private final Set<String> performers = ConcurrentHashMap.newKeySet();
+        private final Set<String> targets = ConcurrentHashMap.newKeySet();
+        private final Set<String> actions = ConcurrentHashMap.newKeySet();
+        private int[] sparseOffsets = new int[64];
+        private long[] sparseTimestamps = new long[64];
+        private int sparseCount;
+        private long minTimestamp = Long.MAX_VALUE;
+        private long maxTimestamp = Long.MIN_VALUE;
+        private long firstSeq;
+        private long lastSeq;
+        private long count;
+        private int position;
+        private int syncedPosition;
+        private volatile int committed;
+        // Index state as of the last commit, restored by rollback()
+        private long committedCount;
+        private int committedSparseCount;
+        private long committedLastSeq;
+        private long committedMinTimestamp = Long.MAX_VALUE;
+        private long committedMaxTimestamp = Long.MIN_VALUE;
+
+        private Segment(Path path, FileChannel channel, MappedByteBuffer buffer) {
+            this.path = path;
+            this.channel = channel;
+            this.buffer = buffer;
+        }
+
+        static Segment open(Path path, int size) throws IOException {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                    StandardOpenOption.WRITE);
+            return new Segment(path, channel, channel.map(FileChannel.MapMode.READ_WRITE, 0, size));
+        }
+
+        boolean fits(int recordBytes) {
+            return position + recordBytes <= buffer.capacity();
+        }
+
+        /**
+         * Write a record; the length goes last, so a record is never seen half written
+         */
+        void write(long timestamp, byte[] payload, AuditLog entry) {
+            CRC32 crc = new CRC32();
+            crc.update(payload);
+            buffer.put(position + HEADER_BYTES, payload);
+            buffer.putLong(position + 8, timestamp);
+            buffer.putInt(position + 4, (int) crc.getValue());
+            buffer.putInt(position, payload.length);
+            index(position, timestamp, entry);
+            position += HEADER_BYTES + payload.length;
+        }
+
+        /**
+         * Force the written records to disk and make them visible to readers
+         */
+        void commit() {
+            if (position > syncedPosition) {
+                buffer.force(syncedPosition, position - syncedPosition);
+                syncedPosition = position;
+                markCommitted();
+            }
+        }
+
+        /**
+         * Discard records written since the last commit, on disk and in the indexes
+         * The bytes are zeroed so recovery cannot mistake them for records after later, shorter writes.
+         */
+        void rollback() {
+            if (position > syncedPosition) {
+                buffer.put(syncedPosition, new byte[position - syncedPosition]);
+                buffer.force(syncedPosition, position - syncedPosition);
+                position = syncedPosition;
+            }
+            indexLock.lock();
+            try {
+                count = committedCount;
+                sparseCount = committedSparseCount;
+                lastSeq = committedLastSeq;
+                minTimestamp = committedMinTimestamp;
+                maxTimestamp = committedMaxTimestamp;
+            } finally {
+                indexLock.unlock();
+            }
+            // Performers, targets and actions may keep extra names; they only narrow the segments to scan
+        }
+
+        void markCommitted() {
+            indexLock.lock();
+            try {
+                committedCount = count;
+                committedSparseCount = sparseCount;
+                committedLastSeq = lastSeq;
+                committedMinTimestamp = minTimestamp;
+                committedMaxTimestamp = maxTimestamp;
+            } finally {
+                indexLock.unlock();
+            }
+            committed = position;
+        }
+
+        void index(int offset, long timestamp, AuditLog entry) {
+            indexLock.lock();
+            try {
+                if (count % SPARSE_INDEX_INTERVAL == 0) {
+                    if (sparseCount == sparseOffsets.length) {
+                        sparseOffsets = Arrays.copyOf(sparseOffsets, sparseCount * 2);
+                        sparseTimestamps = Arrays.copyOf(sparseTimestamps, sparseCount * 2);
+                    }
+                    sparseOffsets[sparseCount] = offset;
+                    sparseTimestamps[sparseCount] = timestamp;
+                    sparseCount++;
+                }
+                if (count == 0) {
+                    firstSeq = entry.getId();
+                }
+                minTimestamp = Math.min(minTimestamp, timestamp);
+                maxTimestamp = Math.max(maxTimestamp, timestamp);
+                lastSeq = Math.max(lastSeq, entry.getId() != null ? entry.getId() : 0);
+                count++;
+            } finally {
+                indexLock.unlock();
+            }
+            performers.add(entry.getPerformedBy());
+            if (entry.getTargetUser() != null) {
+                targets.add(entry.getTargetUser());
+            }
+            actions.add(entry.getAction());
+        }
+
+        boolean endsBefore(long cutoff) {
+            indexLock.lock();
+            try {
+                return count == 0 || maxTimestamp < cutoff;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+
+        boolean overlaps(long from, long to) {
+            indexLock.lock();
+            try {
+                return count > 0 && minTimestamp <= to && maxTimestamp >= from;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+
+        /**
+         * Offset of the record with an id, or -1 if it is not in this segment
+         */
+        int offsetOf(long seq) {
+            int offset;
+            long skip;
+            indexLock.lock();
+            try {
+                if (count == 0 || seq < firstSeq || seq > lastSeq) {
+                    return -1;
+                }
+                long position = seq - firstSeq;
+                offset = sparseOffsets[(int) (position / SPARSE_INDEX_INTERVAL)];
+                skip = position % SPARSE_INDEX_INTERVAL;
+            } finally {
+                indexLock.unlock();
+            }
+            for (long i = 0; i < skip; i++) {
+                offset += HEADER_BYTES + buffer.getInt(offset);
+            }
+            return offset + HEADER_BYTES <= committed ? offset : -1;
+        }
+
+        /**
+         * Offset of the last sparse index point before the first record at or after a timestamp
+         */
+        int startOffset(long from) {
+            indexLock.lock();
+            try {
+                int low = 0;
+                int high = sparseCount - 1;
+                int start = 0;
+                while (low <= high) {
+                    int mid = (low + high) >>> 1;
+                    if (sparseTimestamps[mid] < from) {
+                        start = sparseOffsets[mid];
+                        low = mid + 1;
+                    } else {
+                        high = mid - 1;
+                    }
+                }
+                return start;
+            } finally {
+                indexLock.unlock();
+            }
+        }
+    }
+}
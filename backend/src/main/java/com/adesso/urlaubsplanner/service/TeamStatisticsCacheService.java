@@ -0,0 +1,141 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.TeamStatisticsCacheStatusDTO;
+import com.adesso.urlaubsplanner.dto.TeamStatisticsDTO;
+import com.adesso.urlaubsplanner.model.Region;
+import com.adesso.urlaubsplanner.repository.RegionRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Service serving team statistics from precomputed per-region snapshots
+ *
+ * Snapshots are recomputed on the bounded {@link RegionTaskExecutor} on a fixed cadence
+ * and whenever a region's data changes. A snapshot whose data version is outdated is
+ * still served while it is younger than the staleness bound (a recomputation is already
+ * queued); beyond that the caller computes a fresh one synchronously.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TeamStatisticsCacheService {
+
+    private final ManagerService managerService;
+    private final DataVersionService dataVersionService;
+    private final RegionRepository regionRepository;
+    private final RegionTaskExecutor regionTaskExecutor;
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+
+    @Value("${urlaubsplaner.statistics.max-staleness-ms:5000}")
+    private long maxStalenessMillis;
+
+    /**
+     * Get the team statistics snapshot of a region key
+     */
+    public Snapshot getSnapshot(long regionKey) {
+        Snapshot snapshot = snapshots.get(regionKey);
+        long currentVersion = dataVersionService.getVersion(regionKey);
+
+        if (snapshot != null && snapshot.version() == currentVersion) {
+            return snapshot;
+        }
+        if (snapshot != null && snapshot.age().toMillis() < maxStalenessMillis) {
+            scheduleRefresh(regionKey);
+            return snapshot;
+        }
+        return compute(regionKey);
+    }
+
+    /**
+     * Recompute snapshots of all regions on a fixed cadence
+     */
+    @Scheduled(fixedDelayString = "${urlaubsplaner.statistics.refresh-interval-ms:60000}",
+               initialDelayString = "${urlaubsplaner.statistics.initial-delay-ms:10000}")
+    public void refreshAll() {
+        scheduleRefresh(VacationEventService.ALL_REGIONS);
+        for (Region region : regionRepository.findAll()) {
+            scheduleRefresh(region.getId());
+        }
+    }
+
+    /**
+     * Recompute affected snapshots as soon as region data changed
+     */
+    @EventListener
+    public void onRegionDataChanged(DataVersionService.RegionDataChanged event) {
+        if (event.regionId() != null) {
+            scheduleRefresh(event.regionId());
+        }
+        scheduleRefresh(VacationEventService.ALL_REGIONS);
+    }
+
+    /**
+     * Get compute time and age of all snapshots
+     */
+    public List<TeamStatisticsCacheStatusDTO> getStatus() {
+        return snapshots.values().stream()
+                .sorted(Comparator.comparing(Snapshot::regionKey))
+                .map(s -> new TeamStatisticsCacheStatusDTO(
+                        s.regionKey(),
+                        s.version(),
+                        dataVersionService.getVersion(s.regionKey()),
+                        s.computedAt(),
+                        s.age().toMillis(),
+                        s.computeMillis(),
+                        s.statistics().size()))
+                .toList();
+    }
+
+    private void scheduleRefresh(long regionKey) {
+        if (refreshing.add(regionKey)) {
+            boolean queued = regionTaskExecutor.tryExecute(() -> {
+                try {
+                    compute(regionKey);
+                } catch (RuntimeException e) {
+                    log.warn("Team statistics precomputation failed for region {}", regionKey, e);
+                } finally {
+                    refreshing.remove(regionKey);
+                }
+            });
+            if (!queued) {
+                refreshing.remove(regionKey);
+            }
+        }
+    }
+
+    private Snapshot compute(long regionKey) {
+        // Read the version first: changes during the computation leave the snapshot outdated
+        long version = dataVersionService.getVersion(regionKey);
+        long start = System.nanoTime();
+        List<TeamStatisticsDTO> statistics = List.copyOf(managerService.computeTeamStatistics(regionKey));
+        long computeMillis = (System.nanoTime() - start) / 1_000_000;
+
+        Snapshot snapshot = new Snapshot(regionKey, version, Instant.now(), computeMillis, statistics);
+        return snapshots.merge(regionKey, snapshot, (old, fresh) -> fresh.version() >= old.version() ? fresh : old);
+    }
+
+    /**
+     * Immutable statistics snapshot of one region key
+     */
+    public record Snapshot(long regionKey, long version, Instant computedAt, long computeMillis,
+                           List<TeamStatisticsDTO> statistics) {
+
+        public Duration age() {
+            return Duration.between(computedAt, Instant.now());
+        }
+    }
+}
@@ -0,0 +1,394 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.VacationEventDTO;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Service for pushing vacation request events to manager dashboards via Server-Sent Events
+ *
+ * Super Managers subscribe to {@link #ALL_REGIONS} and receive every event. Each region keeps
+ * a bounded replay buffer so reconnecting clients can resume from their Last-Event-ID.
+ *
+ * Publishing never writes to a connection: every subscriber has a bounded queue, drained by a
+ * small sender pool one subscriber at a time, so events stay in order per subscriber and a slow
+ * client only delays itself. A subscriber whose queue overflows, or whose current write has been
+ * stuck too long, is dropped; its client reconnects and catches up from the replay buffer.
+ * Registration and the replay snapshot happen under the publish lock, so a new subscriber gets
+ * every event exactly once.
+ *
+ * Event ids are "stream-sequence", where the stream id is chosen at startup. A Last-Event-ID that
+ * cannot be replayed (unknown, issued by another instance or before a restart, or older than the
+ * replay buffer) gets a "reset" event instead, telling the client to refetch its views.
+ */
+@Slf4j
+@Service
+public class VacationEventService {
+
+    /**
+     * Subscription key for Super Managers (events from every region)
+     */
+    public static final long ALL_REGIONS = 0L;
+
+    private static final long EMITTER_TIMEOUT_MS = 30 * 60 * 1000L;
+    private static final int REPLAY_BUFFER_SIZE = 256;
+    // Room for a full replay plus the events arriving meanwhile
+    private static final int SUBSCRIBER_QUEUE_SIZE = 2 * REPLAY_BUFFER_SIZE;
+    private static final long STALLED_SEND_MS = 10_000L;
+    private static final int SENDER_THREADS = 8;
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, List<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final Map<Long, ReplayBuffer> replayBuffers = new ConcurrentHashMap<>();
+    private final ReentrantLock publishLock = new ReentrantLock();
+    private final String streamId = UUID.randomUUID().toString().substring(0, 8);
+    private long eventSequence;
+
+    private final AtomicInteger senderNumber = new AtomicInteger();
+    private final ExecutorService senders = Executors.newFixedThreadPool(SENDER_THREADS, r -> {
+        Thread thread = new Thread(r, "sse-sender-" + senderNumber.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Register a new subscriber for a region and replay missed events
+     * If the missed events cannot be replayed, the subscriber gets a reset event first
+     */
+    public SseEmitter subscribe(long regionKey, String lastEventId) {
+        SseEmitter emitter = new SseEmitter(EMITTER_TIMEOUT_MS);
+        Subscriber subscriber = new Subscriber(regionKey, emitter);
+        emitter.onCompletion(subscriber::closed);
+        emitter.onTimeout(subscriber::closed);
+        emitter.onError(e -> subscriber.closed());
+
+        // The emitter commits the response headers only with its first write
+        subscriber.enqueue(HEARTBEAT);
+        publishLock.lock();
+        try {
+            if (lastEventId != null) {
+                List<BufferedEvent> missed = replayBuffer(regionKey).eventsAfter(sequenceOf(lastEventId));
+                if (missed == null) {
+                    subscriber.enqueue(new ResetEvent(eventSequence));
+                } else {
+                    missed.forEach(subscriber::enqueue);
+                }
+            }
+            subscribers.computeIfAbsent(regionKey, k -> new CopyOnWriteArrayList<>()).add(subscriber);
+        } finally {
+            publishLock.unlock();
+        }
+        return emitter;
+    }
+
+    /**
+     * Push an event to subscribers of its region once the surrounding transaction committed
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onVacationEvent(VacationEventDTO event) {
+        publishLock.lock();
+        try {
+            // Ids are assigned under the lock, so every replay buffer is in id order
+            BufferedEvent buffered = new BufferedEvent(++eventSequence, event);
+            if (event.getRegionId() != null) {
+                publish(event.getRegionId(), buffered);
+            }
+            publish(ALL_REGIONS, buffered);
+        } finally {
+            publishLock.unlock();
+        }
+    }
+
+    /**
+     * Send a heartbeat comment so proxies keep idle connections open, and drop stalled subscribers
+     */
+    @Scheduled(fixedRate = 15000)
+    public void sendHeartbeat() {
+        long now = System.currentTimeMillis();
+        subscribers.values().forEach(regionSubscribers -> regionSubscribers.forEach(subscriber -> {
+            if (subscriber.stalledSince(now) > STALLED_SEND_MS) {
+                log.debug("Dropping stalled SSE subscriber of region {}", subscriber.regionKey);
+                subscriber.drop();
+            } else {
+                subscriber.enqueue(HEARTBEAT);
+            }
+        }));
+    }
+
+    /**
+     * Get the number of open subscriptions per region key
+     */
+    public Map<Long, Integer> getSubscriberCounts() {
+        Map<Long, Integer> counts = new ConcurrentHashMap<>();
+        subscribers.forEach((region, list) -> counts.put(region, list.size()));
+        return counts;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.values().forEach(list -> list.forEach(Subscriber::drop));
+        senders.shutdown();
+    }
+
+    /**
+     * Sequence of a Last-Event-ID issued by this stream, -1 if it was not (guarded by the publish lock)
+     */
+    private long sequenceOf(String lastEventId) {
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(streamId)) {
+            return -1;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            return sequence >= 0 && sequence <= eventSequence ? sequence : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private String eventId(long sequence) {
+        return streamId + "-" + sequence;
+    }
+
+    private void publish(long regionKey, BufferedEvent buffered) {
+        replayBuffer(regionKey).add(buffered);
+        List<Subscriber> regionSubscribers = subscribers.get(regionKey);
+        if (regionSubscribers != null) {
+            regionSubscribers.forEach(subscriber -> subscriber.enqueue(buffered));
+        }
+    }
+
+    private ReplayBuffer replayBuffer(long regionKey) {
+        return replayBuffers.computeIfAbsent(regionKey, k -> new ReplayBuffer());
+    }
+
+    /**
+     * One SSE connection with its own bounded queue
+     *
+     * At most one drain task runs per subscriber; emitter calls only happen in that task,
+     * so a blocked write never holds up publishers or other subscribers.
+     */
+    private class Subscriber {
+
+        private final long regionKey;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue = new ArrayBlockingQueue<>(SUBSCRIBER_QUEUE_SIZE);
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean closed = new AtomicBoolean();
+        private volatile long sendingSince;
+
+        Subscriber(long regionKey, SseEmitter emitter) {
+            this.regionKey = regionKey;
+            this.emitter = emitter;
+        }
+
+        void enqueue(Object item) {
+            if (closed.get()) {
+                return;
+            }
+            if (!queue.offer(item)) {
+                log.debug("Dropping slow SSE subscriber of region {}", regionKey);
+                drop();
+                return;
+            }
+            scheduleDrain();
+        }
+
+        long stalledSince(long now) {
+            long since = sendingSince;
+            return since == 0 ? 0 : now - since;
+        }
+
+        /**
+         * Unsubscribe and complete the emitter from the drain task
+         */
+        void drop() {
+            if (closed.compareAndSet(false, true)) {
+                unregister();
+                queue.clear();
+                scheduleDrain();
+            }
+        }
+
+        /**
+         * The emitter completed, timed out or failed on its own
+         */
+        void closed() {
+            closed.set(true);
+            unregister();
+            queue.clear();
+        }
+
+        private void unregister() {
+            List<Subscriber> regionSubscribers = subscribers.get(regionKey);
+            if (regionSubscribers != null) {
+                regionSubscribers.remove(this);
+            }
+        }
+
+        private void scheduleDrain() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    senders.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Object item;
+                while (!closed.get() && (item = queue.poll()) != null) {
+                    sendingSince = System.currentTimeMillis();
+                    boolean sent = send(item == HEARTBEAT
+                            ? SseEmitter.event().comment("heartbeat")
+                            : ((OutgoingEvent) item).toSse());
+                    sendingSince = 0;
+                    if (!sent) {
+                        closed();
+                        return;
+                    }
+                }
+                if (closed.get()) {
+                    complete();
+                }
+            } finally {
+                draining.set(false);
+            }
+            // Items offered between the last poll and the flag reset
+            if (!queue.isEmpty() && !closed.get()) {
+                scheduleDrain();
+            }
+        }
+
+        private void complete() {
+            try {
+                emitter.complete();
+            } catch (IllegalStateException e) {
+                // Already completed by the container
+            }
+        }
+
+        private boolean send(SseEmitter.SseEventBuilder event) {
+            try {
+                emitter.send(event);
+                return true;
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping SSE subscriber: {}", e.getMessage());
+                emitter.completeWithError(e);
+                return false;
+            }
+        }
+    }
+
+    /**
+     * Queued event; SSE builders are not reusable, so one is created per send
+     */
+    private interface OutgoingEvent {
+
+        SseEmitter.SseEventBuilder toSse();
+    }
+
+    /**
+     * Event as kept in the replay buffer
+     */
+    private class BufferedEvent implements OutgoingEvent {
+
+        private final long id;
+        private final VacationEventDTO event;
+
+        BufferedEvent(long id, VacationEventDTO event) {
+            this.id = id;
+            this.event = event;
+        }
+
+        long id() {
+            return id;
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event()
+                    .id(eventId(id))
+                    .name("vacation")
+                    .data(event, MediaType.APPLICATION_JSON);
+        }
+    }
+
+    /**
+     * Tells a reconnecting client that its missed events are gone; its id resumes the stream from now
+     */
+    private class ResetEvent implements OutgoingEvent {
+
+        private final long id;
+
+        ResetEvent(long id) {
+            this.id = id;
+        }
+
+        @Override
+        public SseEmitter.SseEventBuilder toSse() {
+            return SseEmitter.event()
+                    .id(eventId(id))
+                    .name("reset")
+                    .data("refetch");
+        }
+    }
+
+    /**
+     * Bounded buffer of the most recent events of one region (guarded by the publish lock)
+     */
+    private static class ReplayBuffer {
+
+        private final Deque<BufferedEvent> events = new ArrayDeque<>();
+        private long evictedUpTo;
+
+        void add(BufferedEvent event) {
+            if (events.size() == REPLAY_BUFFER_SIZE) {
+                evictedUpTo = events.removeFirst().id();
+            }
+            events.addLast(event);
+        }
+
+        /**
+         * Events after the given sequence, or null if some of them were already evicted
+         */
+        List<BufferedEvent> eventsAfter(long lastEventId) {
+            if (lastEventId < evictedUpTo) {
+                return null;
+            }
+            List<BufferedEvent> result = new ArrayList<>();
+            for (BufferedEvent event : events) {
+                if (event.id() > lastEventId) {
+                    result.add(event);
+                }
+            }
+            return result;
+        }
+    }
+}
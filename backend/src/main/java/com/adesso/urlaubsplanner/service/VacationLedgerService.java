@@ -0,0 +1,223 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationBalance;
+import com.adesso.urlaubsplanner.model.VacationYearClosing;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import com.adesso.urlaubsplanner.repository.VacationBalanceRepository;
+import com.adesso.urlaubsplanner.repository.VacationYearClosingRepository;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for the per-user, per-year vacation ledger
+ *
+ * Approvals add their days to the ledger entries of the years the absence covers.
+ * The yearly rollover closes the previous year for all users in batches, carries remaining
+ * days (capped) into the current year and resets the users' current-year counters. A closed
+ * year is marked, so running the rollover again changes nothing.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class VacationLedgerService {
+
+    private static final int ROLLOVER_BATCH_SIZE = 500;
+    private static final String ROLLOVER_LOCK = "ledger-rollover";
+    private static final Duration ROLLOVER_LOCK_AT_MOST = Duration.ofHours(6);
+    private static final Duration ROLLOVER_LOCK_AT_LEAST = Duration.ofMinutes(10);
+
+    private final VacationBalanceRepository vacationBalanceRepository;
+    private final VacationYearClosingRepository vacationYearClosingRepository;
+    private final UserRepository userRepository;
+    private final AuditLogService auditLogService;
+    private final DataVersionService dataVersionService;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManager entityManager;
+    private final SchedulerLockService schedulerLockService;
+
+    @Value("${urlaubsplaner.ledger.max-carry-over-days:5}")
+    private int maxCarryOverDays;
+
+    /**
+     * Book the days of an approved absence on the user's ledger, split by calendar year
+     * The user's used-days counter covers the current year only; days of other years live in the ledger alone.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApprovedDays(User user, LocalDate startDate, LocalDate endDate) {
+        for (int year = startDate.getYear(); year <= endDate.getYear(); year++) {
+            LocalDate from = year == startDate.getYear() ? startDate : LocalDate.of(year, 1, 1);
+            LocalDate to = year == endDate.getYear() ? endDate : LocalDate.of(year, 12, 31);
+            bookDays(user, year, (int) ChronoUnit.DAYS.between(from, to) + 1);
+        }
+    }
+
+    private void bookDays(User user, int year, int days) {
+        if (vacationBalanceRepository.addUsedDays(user.getUsername(), year, days) == 0) {
+            openBalance(user, year);
+            vacationBalanceRepository.addUsedDays(user.getUsername(), year, days);
+        }
+        if (year == LocalDate.now().getYear()) {
+            user.setUsedVacationDays(user.getUsedVacationDays() + days);
+        }
+    }
+
+    /**
+     * Get all ledger entries of a user, newest year first
+     */
+    public List<VacationBalance> getBalances(String username) {
+        return vacationBalanceRepository.findByUsernameOrderByYearDesc(username);
+    }
+
+    /**
+     * Close the previous year shortly after New Year, on one instance of a cluster
+     */
+    @Scheduled(cron = "${urlaubsplaner.ledger.rollover-cron:0 5 0 1 1 *}")
+    public void scheduledRollover() {
+        int fromYear = LocalDate.now().getYear() - 1;
+        schedulerLockService.runLocked(ROLLOVER_LOCK, ROLLOVER_LOCK_AT_MOST, ROLLOVER_LOCK_AT_LEAST,
+                () -> closeYear(fromYear, "SYSTEM"));
+    }
+
+    /**
+     * Close the previous year for all users and carry remaining days into the current one
+     *
+     * @return number of processed users
+     * @throws IllegalArgumentException if fromYear is not the previous year
+     * @throws IllegalStateException if the year is already closed or its rollover is running
+     */
+    public int rollover(int fromYear, String performedBy) {
+        int previousYear = LocalDate.now().getYear() - 1;
+        if (fromYear != previousYear) {
+            throw new IllegalArgumentException("Only the previous year (" + previousYear + ") can be closed");
+        }
+        AtomicInteger processed = new AtomicInteger(-1);
+        if (!schedulerLockService.runLocked(ROLLOVER_LOCK, ROLLOVER_LOCK_AT_MOST, Duration.ZERO,
+                () -> processed.set(closeYear(fromYear, performedBy)))) {
+            throw new IllegalStateException("The rollover of " + fromYear + " is running");
+        }
+        if (processed.get() < 0) {
+            throw new IllegalStateException("Vacation year " + fromYear + " is already closed");
+        }
+        return processed.get();
+    }
+
+    /**
+     * Roll a year over in batches and mark it closed (caller holds the rollover lock)
+     * Each batch of users runs in its own transaction; re-running an interrupted rollover yields
+     * the same balances.
+     *
+     * @return number of processed users, -1 if the year was already closed
+     */
+    private int closeYear(int fromYear, String performedBy) {
+        if (vacationYearClosingRepository.existsById(fromYear)) {
+            log.info("Vacation year {} is already closed", fromYear);
+            return -1;
+        }
+        int toYear = fromYear + 1;
+        int processed = 0;
+        int pageNumber = 0;
+        Page<User> page;
+
+        do {
+            PageRequest pageRequest = PageRequest.of(pageNumber++, ROLLOVER_BATCH_SIZE, Sort.by("id"));
+            page = transactionTemplate.execute(status -> {
+                Page<User> users = userRepository.findAll(pageRequest);
+                rolloverBatch(users.getContent(), fromYear, toYear);
+                entityManager.flush();
+                entityManager.clear();
+                return users;
+            });
+            processed += page.getNumberOfElements();
+        } while (page.hasNext());
+
+        vacationYearClosingRepository.save(new VacationYearClosing(fromYear, LocalDateTime.now(), performedBy, processed));
+        dataVersionService.markAllChanged();
+
+        auditLogService.logAction(
+            "LEDGER_ROLLOVER",
+            performedBy,
+            String.format("Closed vacation year %d for %d users (max carry-over: %d days)",
+                fromYear, processed, maxCarryOverDays)
+        );
+        log.info("Vacation ledger rollover {} -> {} processed {} users", fromYear, toYear, processed);
+
+        return processed;
+    }
+
+    /**
+     * Create the empty ledger entry of a year in its own transaction
+     * A concurrent first approval may create it at the same time; the loser just books on the winner's row.
+     */
+    private void openBalance(User user, int year) {
+        int carriedOver = year == LocalDate.now().getYear() ? user.getCarriedOverDays() : 0;
+        VacationBalance balance = new VacationBalance(user.getUsername(), year, user.getTotalVacationDays(), carriedOver);
+        TransactionTemplate newTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            newTransaction.executeWithoutResult(status -> vacationBalanceRepository.saveAndFlush(balance));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ledger entry {}/{} was opened concurrently", user.getUsername(), year);
+        }
+    }
+
+    private void rolloverBatch(List<User> users, int fromYear, int toYear) {
+        // The users' counters belong to the current year; a late rollover must not overwrite them
+        boolean toCurrentYear = toYear == LocalDate.now().getYear();
+        List<String> usernames = users.stream().map(User::getUsername).toList();
+        Map<String, VacationBalance> closing = byUsername(vacationBalanceRepository.findByYearAndUsernameIn(fromYear, usernames));
+        Map<String, VacationBalance> opening = byUsername(vacationBalanceRepository.findByYearAndUsernameIn(toYear, usernames));
+
+        for (User user : users) {
+            VacationBalance closed = closing.get(user.getUsername());
+            if (closed == null) {
+                // Every approval is booked on the ledger, so a missing entry means no days were used
+                closed = new VacationBalance(user.getUsername(), fromYear,
+                        user.getTotalVacationDays(), user.getCarriedOverDays());
+                vacationBalanceRepository.save(closed);
+            }
+
+            int carryOver = Math.max(0, Math.min(closed.getRemainingDays(), maxCarryOverDays));
+
+            // The next year may already hold days approved in advance
+            VacationBalance opened = opening.get(user.getUsername());
+            if (opened == null) {
+                opened = new VacationBalance(user.getUsername(), toYear, user.getTotalVacationDays(), carryOver);
+            } else {
+                opened.setCarriedOverDays(carryOver);
+            }
+            vacationBalanceRepository.save(opened);
+
+            if (toCurrentYear) {
+                user.setCarriedOverDays(carryOver);
+                user.setUsedVacationDays(opened.getUsedDays());
+            }
+        }
+    }
+
+    private Map<String, VacationBalance> byUsername(List<VacationBalance> balances) {
+        return balances.stream().collect(Collectors.toMap(VacationBalance::getUsername, Function.identity()));
+    }
+}
@@ -1,12 +1,16 @@
 package com.adesso.urlaubsplanner.service;
 
+import com.adesso.urlaubsplanner.dto.VacationEventDTO;
 import com.adesso.urlaubsplanner.dto.VacationRequestDTO;
 import com.adesso.urlaubsplanner.model.User;
 import com.adesso.urlaubsplanner.model.VacationRequest;
 import com.adesso.urlaubsplanner.model.VacationStatus;
 import com.adesso.urlaubsplanner.repository.UserRepository;
 import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -23,11 +27,19 @@ public class VacationService {
     private final VacationRequestRepository vacationRequestRepository;
     private final UserRepository userRepository;
     private final AuditLogService auditLogService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DataVersionService dataVersionService;
+    private final VacationLedgerService vacationLedgerService;
+    private final CapacityRuleService capacityRuleService;
+    private final MeterRegistry meterRegistry;
+    private final ChangeLogService changeLogService;
+    private final SearchIndexService searchIndexService;
 
     /**
      * Create a new vacation request
      */
     @Transactional
+    @Timed(value = "urlaubsplaner.vacation.operations", extraTags = {"operation", "create"})
     public VacationRequest createVacationRequest(VacationRequestDTO dto) {
         // Validate dates
         if (dto.getEndDate().isBefore(dto.getStartDate())) {
@@ -46,6 +58,12 @@ public class VacationService {
                     user.getRemainingVacationDays() + ", Requested: " + daysRequested);
         }
 
+        // Check capacity rules of the user's region
+        capacityRuleService.findViolation(user, dto.getAbsenceType(), dto.getStartDate(), dto.getEndDate(), false)
+                .ifPresent(violation -> {
+                    throw new IllegalArgumentException(violation);
+                });
+
         VacationRequest request = new VacationRequest();
         request.setEmployeeName(dto.getEmployeeName());
         request.setStartDate(dto.getStartDate());
@@ -56,6 +74,7 @@ public class VacationService {
         request.setStatus(VacationStatus.PENDING);
 
         VacationRequest saved = vacationRequestRepository.save(request);
+        capacityRuleService.recordCreated(user, saved.getAbsenceType(), saved.getStartDate(), saved.getEndDate());
         
         // Audit log
         auditLogService.logRequestAction(
@@ -70,6 +89,8 @@ public class VacationService {
                 daysRequested)
         );
 
+        publishEvent("CREATED", saved, user, dto.getEmployeeName());
+
         return saved;
     }
 
@@ -91,6 +112,7 @@ public class VacationService {
      * Approve a vacation request with optional reason
      */
     @Transactional
+    @Timed(value = "urlaubsplaner.vacation.operations", extraTags = {"operation", "approve"})
     public VacationRequest approveVacationRequest(Long id, String approvedBy, String reason) {
         VacationRequest request = vacationRequestRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Vacation request not found: " + id));
@@ -99,16 +121,25 @@ public class VacationService {
             throw new IllegalStateException("Only pending requests can be approved");
         }
 
+        User user = userRepository.findByUsername(request.getEmployeeName())
+                .orElseThrow(() -> new IllegalArgumentException("User not found: " + request.getEmployeeName()));
+
+        // Re-check capacity rules; approved requests may have filled the region since submission
+        capacityRuleService.findViolation(user, request.getAbsenceType(),
+                        request.getStartDate(), request.getEndDate(), true)
+                .ifPresent(violation -> {
+                    throw new IllegalStateException(violation);
+                });
+
         request.setStatus(VacationStatus.APPROVED);
         request.setApprovedBy(approvedBy);
         request.setApprovalReason(reason);
+        capacityRuleService.recordApproved(user, request.getAbsenceType(), request.getStartDate(), request.getEndDate());
         
-        // Update user's used vacation days
-        User user = userRepository.findByUsername(request.getEmployeeName())
-                .orElseThrow(() -> new IllegalArgumentException("User not found: " + request.getEmployeeName()));
-        
-        user.setUsedVacationDays(user.getUsedVacationDays() + request.getDaysRequested().intValue());
+        // Book the days on the ledger per year (and the user's counter for days in the current year)
+        vacationLedgerService.recordApprovedDays(user, request.getStartDate(), request.getEndDate());
         userRepository.save(user);
+        changeLogService.recordUserChange("UPDATED", user, approvedBy);
 
         VacationRequest saved = vacationRequestRepository.save(request);
         
@@ -130,6 +161,8 @@ public class VacationService {
             details
         );
 
+        publishEvent("APPROVED", saved, user, approvedBy);
+
         return saved;
     }
 
@@ -137,6 +170,7 @@ public class VacationService {
      * Reject a vacation request with optional reason
      */
     @Transactional
+    @Timed(value = "urlaubsplaner.vacation.operations", extraTags = {"operation", "reject"})
     public VacationRequest rejectVacationRequest(Long id, String rejectedBy, String reason) {
         VacationRequest request = vacationRequestRepository.findById(id)
                 .orElseThrow(() -> new IllegalArgumentException("Vacation request not found: " + id));
@@ -166,7 +200,43 @@ public class VacationService {
             id,
             details
         );
+
+        User user = userRepository.findByUsername(request.getEmployeeName()).orElse(null);
+        capacityRuleService.recordRejected(user, request.getAbsenceType(), request.getStartDate(), request.getEndDate());
+        publishEvent("REJECTED", saved, user, rejectedBy);
         
         return saved;
     }
+
+    /**
+     * Record the change in the change log, publish a change event, reindex the request's text and
+     * bump the region's data version; all but the change log entry take effect after commit
+     */
+    private void publishEvent(String type, VacationRequest request, User employee, String performedBy) {
+        Long regionId = employee != null ? regionIdOf(employee) : null;
+        changeLogService.recordRequestChange(type, request, regionId, performedBy);
+        searchIndexService.indexRequest(request, regionId);
+        dataVersionService.markChanged(regionId);
+        // The number of region tag values is capped by MetricsConfig
+        meterRegistry.counter("urlaubsplaner.vacation.requests",
+                "event", type.toLowerCase(),
+                "region", regionId != null ? regionId.toString() : "none",
+                "absence_type", request.getAbsenceType().name()).increment();
+        eventPublisher.publishEvent(new VacationEventDTO(
+                type,
+                request.getId(),
+                request.getEmployeeName(),
+                regionId,
+                request.getAbsenceType(),
+                request.getStatus(),
+                request.getStartDate(),
+                request.getEndDate(),
+                performedBy,
+                System.currentTimeMillis()
+        ));
+    }
+
+    private Long regionIdOf(User user) {
+        return user.getRegion() != null ? user.getRegion().getId() : null;
+    }
 }
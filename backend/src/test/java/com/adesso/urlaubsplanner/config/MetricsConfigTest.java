@@ -0,0 +1,29 @@
+package com.adesso.urlaubsplanner.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Region tag cap: regions beyond the limit share the "other" series
+ */
+class MetricsConfigTest {
+
+    private static final String METRIC = "urlaubsplaner.vacation.requests";
+
+    @Test
+    void regionsBeyondLimitAreCountedAsOther() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        registry.config().meterFilter(new MetricsConfig.RegionTagLimit(2));
+
+        for (String region : new String[]{"1", "2", "3", "4", "1"}) {
+            registry.counter(METRIC, "event", "created", "region", region).increment();
+        }
+
+        assertThat(registry.find(METRIC).counters()).hasSize(3);
+        assertThat(registry.get(METRIC).tag("region", "1").counter().count()).isEqualTo(2);
+        assertThat(registry.get(METRIC).tag("region", "2").counter().count()).isEqualTo(1);
+        assertThat(registry.get(METRIC).tag("region", "other").counter().count()).isEqualTo(2);
+    }
+}
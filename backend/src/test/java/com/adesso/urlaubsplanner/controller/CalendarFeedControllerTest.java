@@ -0,0 +1,81 @@
+package com.adesso.urlaubsplanner.controller;
+
+import com.adesso.urlaubsplanner.dto.VacationRequestDTO;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import com.adesso.urlaubsplanner.service.CalendarFeedService;
+import com.adesso.urlaubsplanner.service.VacationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * iCalendar feed: window-aware ETag and DTSTAMP from the request's last change
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@DirtiesContext
+class CalendarFeedControllerTest {
+
+    private static final String EMPLOYEE = "lisa.weber";
+    private static final DateTimeFormatter ICS_TIMESTAMP = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private VacationRequestRepository vacationRequestRepository;
+
+    @Autowired
+    private CalendarFeedService calendarFeedService;
+
+    @Test
+    void feedCarriesWindowInETagAndLastChangeAsDtstamp() throws Exception {
+        LocalDate start = LocalDate.now().plusDays(30);
+        VacationRequest created = vacationService.createVacationRequest(new VacationRequestDTO(EMPLOYEE, start, start,
+                AbsenceType.VACATION, null, null));
+        vacationService.approveVacationRequest(created.getId(), "michael.klein", null);
+        VacationRequest approved = vacationRequestRepository.findById(created.getId()).orElseThrow();
+        assertThat(approved.getLastModifiedAt()).isAfterOrEqualTo(created.getLastModifiedAt());
+
+        MockHttpServletResponse response = feed();
+
+        assertThat(response.getHeader("ETag")).contains("@" + calendarFeedService.getWindowStart());
+        String event = response.getContentAsString()
+                .split("UID:vacation-" + approved.getId() + "@urlaubsplaner")[1].split("END:VEVENT")[0];
+        assertThat(event).contains("DTSTAMP:" + approved.getLastModifiedAt().atZone(ZoneId.systemDefault())
+                .withZoneSameInstant(ZoneOffset.UTC).format(ICS_TIMESTAMP));
+        assertThat(event).contains("STATUS:CONFIRMED");
+    }
+
+    private MockHttpServletResponse feed() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/calendar/me.ics").with(user(EMPLOYEE).roles("EMPLOYEE")))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse();
+    }
+}
@@ -0,0 +1,117 @@
+package com.adesso.urlaubsplanner.controller;
+
+import com.adesso.urlaubsplanner.dto.VacationEventDTO;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import com.adesso.urlaubsplanner.service.VacationEventService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * Resuming the manager event stream: known ids replay, all others get a reset event
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ManagerEventStreamTest {
+
+    private static final String MANAGER = "anna.wagner";
+    private static final Pattern EVENT_ID = Pattern.compile("id:(\\S+)");
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private VacationEventService vacationEventService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private Long regionId;
+
+    @BeforeEach
+    void setUp() {
+        regionId = userRepository.findWithRegionByUsername(MANAGER).orElseThrow().getRegion().getId();
+    }
+
+    @Test
+    void replaysEventsAfterKnownId() throws Exception {
+        MockHttpServletResponse first = subscribe(null);
+        publish(1L);
+        String firstId = eventId(awaitContent(first, "event:vacation"));
+
+        publish(2L);
+        String replayed = awaitContent(subscribe(firstId), "event:vacation");
+        assertThat(replayed).contains("\"requestId\":2").doesNotContain("\"requestId\":1").doesNotContain("event:reset");
+    }
+
+    @Test
+    void foreignIdGetsReset() throws Exception {
+        assertThat(awaitContent(subscribe("other-instance-3"), "event:reset")).doesNotContain("event:vacation");
+    }
+
+    @Test
+    void idFromBeforeRestartGetsReset() throws Exception {
+        MockHttpServletResponse first = subscribe(null);
+        publish(3L);
+        String firstId = eventId(awaitContent(first, "event:vacation"));
+        String streamId = firstId.substring(0, firstId.lastIndexOf('-'));
+
+        // Same stream id, but a sequence this instance never issued
+        String reset = awaitContent(subscribe(streamId + "-999999"), "event:reset");
+        assertThat(eventId(reset)).startsWith(streamId + "-");
+    }
+
+    private void publish(Long requestId) {
+        LocalDate start = LocalDate.now().plusDays(10);
+        vacationEventService.onVacationEvent(new VacationEventDTO("CREATED", requestId, "max.mustermann", regionId,
+                AbsenceType.VACATION, VacationStatus.PENDING, start, start.plusDays(1), "max.mustermann",
+                System.currentTimeMillis()));
+    }
+
+    private MockHttpServletResponse subscribe(String lastEventId) throws Exception {
+        var request = get("/api/manager/team/events").with(user(MANAGER).roles("MANAGER"));
+        if (lastEventId != null) {
+            request.header("Last-Event-ID", lastEventId);
+        }
+        MvcResult result = mockMvc.perform(request)
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return result.getResponse();
+    }
+
+    /**
+     * Wait until the events sent so far contain the expected text
+     */
+    private String awaitContent(MockHttpServletResponse response, String expected) throws Exception {
+        long deadline = System.currentTimeMillis() + 10_000;
+        String content = response.getContentAsString();
+        while (!content.contains(expected) && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = response.getContentAsString();
+        }
+        assertThat(content).contains(expected);
+        return content;
+    }
+
+    private String eventId(String content) {
+        Matcher matcher = EVENT_ID.matcher(content);
+        assertThat(matcher.find()).isTrue();
+        return matcher.group(1);
+    }
+}
@@ -0,0 +1,83 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Reading archived audit months: range filter and the cap on returned entries
+ */
+class AuditArchiveServiceTest {
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+
+    @TempDir
+    Path archiveDir;
+
+    private AuditArchiveService auditArchiveService;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        auditArchiveService = new AuditArchiveService(mock(AuditLogStore.class), objectMapper,
+                mock(SchedulerLockService.class));
+        ReflectionTestUtils.setField(auditArchiveService, "archiveDir", archiveDir.toString());
+        ReflectionTestUtils.setField(auditArchiveService, "archiveReadLimit", 3);
+
+        writeArchive(202301, entry(1, "2023-01-10T10:00"), entry(2, "2023-01-20T10:00"));
+        writeArchive(202302, entry(3, "2023-02-10T10:00"), entry(4, "2023-02-20T10:00"));
+        writeArchive(202303, entry(5, "2023-03-10T10:00"), entry(6, "2023-03-20T10:00"));
+    }
+
+    @Test
+    void returnsNewestEntriesUpToLimit() {
+        List<AuditLog> logs = auditArchiveService.readArchived(LocalDateTime.parse("2023-01-01T00:00"),
+                LocalDateTime.parse("2023-12-31T23:59"));
+
+        assertThat(logs).extracting(AuditLog::getId).containsExactly(6L, 5L, 4L);
+    }
+
+    @Test
+    void filtersByRange() {
+        List<AuditLog> logs = auditArchiveService.readArchived(LocalDateTime.parse("2023-01-15T00:00"),
+                LocalDateTime.parse("2023-02-15T00:00"));
+
+        assertThat(logs).extracting(AuditLog::getId).containsExactly(3L, 2L);
+    }
+
+    private AuditLog entry(long id, String timestamp) {
+        AuditLog entry = new AuditLog("LOGIN", "admin", "entry " + id);
+        entry.setId(id);
+        entry.setTimestamp(LocalDateTime.parse(timestamp));
+        entry.setPartitionMonth(AuditLog.partitionOf(entry.getTimestamp()));
+        return entry;
+    }
+
+    private void writeArchive(int month, AuditLog... entries) throws IOException {
+        Path file = archiveDir.resolve(String.format("audit-%d-%d-%d.ndjson.gz", month, entries[0].getId(),
+                entries[entries.length - 1].getId()));
+        try (Writer writer = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)),
+                StandardCharsets.UTF_8)) {
+            for (AuditLog entry : entries) {
+                writer.write(objectMapper.writeValueAsString(entry));
+                writer.write('\n');
+            }
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.VacationRequestDTO;
+import com.adesso.urlaubsplanner.model.AbsenceDayCounter;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.CapacityRule;
+import com.adesso.urlaubsplanner.model.Role;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.repository.AbsenceDayCounterRepository;
+import com.adesso.urlaubsplanner.repository.RegionRepository;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Capacity counters: role-scoped rules, users leaving the counted set and lock-free counter updates
+ */
+@SpringBootTest
+@DirtiesContext
+class CapacityRuleServiceTest {
+
+    @Autowired
+    private CapacityRuleService capacityRuleService;
+
+    @Autowired
+    private VacationService vacationService;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RegionRepository regionRepository;
+
+    @Autowired
+    private AbsenceDayCounterRepository absenceDayCounterRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long dortmundId;
+
+    @BeforeEach
+    void setUp() {
+        dortmundId = regionRepository.findByName("Dortmund").orElseThrow().getId();
+    }
+
+    @Test
+    void roleScopedRuleCountsOnlyItsRole() {
+        LocalDate day = LocalDate.now().plusDays(200);
+        CapacityRule rule = createRule(Role.MANAGER, 1);
+
+        request("max.mustermann", day);
+        request("sarah.mueller", day);
+        // Two employees are absent, but the rule only limits managers
+        request("anna.wagner", day);
+        assertThatThrownBy(() -> request("manager", day))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("Capacity exceeded");
+
+        capacityRuleService.deleteRule(rule.getId(), "admin");
+    }
+
+    @Test
+    void deactivatedAndDeletedUsersStopCounting() {
+        LocalDate day = LocalDate.now().plusDays(220);
+        CapacityRule rule = createRule(null, 1);
+
+        request("max.mustermann", day);
+        assertThatThrownBy(() -> request("sarah.mueller", day)).isInstanceOf(IllegalArgumentException.class);
+
+        adminService.deactivateUser(userRepository.findByUsername("max.mustermann").orElseThrow().getId(), "admin");
+        request("sarah.mueller", day);
+
+        adminService.deleteUser(userRepository.findByUsername("sarah.mueller").orElseThrow().getId(), "admin");
+        assertThat(countedOn(day)).isZero();
+        request("employee", day);
+
+        capacityRuleService.deleteRule(rule.getId(), "admin");
+    }
+
+    @Test
+    void existingCountersAreUpdatedWithoutRegionLock() throws Exception {
+        LocalDate day = LocalDate.now().plusDays(240);
+        User user = userRepository.findWithRegionByUsername("anna.wagner").orElseThrow();
+        transactionTemplate.executeWithoutResult(status ->
+                capacityRuleService.recordCreated(user, AbsenceType.TRAINING, day, day));
+
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                regionRepository.findLockedById(dortmundId).orElseThrow();
+                locked.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(locked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            Future<?> update = executor.submit(() -> transactionTemplate.executeWithoutResult(status ->
+                    capacityRuleService.recordCreated(user, AbsenceType.TRAINING, day, day)));
+            update.get(5, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+            executor.awaitTermination(30, TimeUnit.SECONDS);
+        }
+
+        AbsenceDayCounter counter = absenceDayCounterRepository.findByRegionIdAndAbsenceDateBetween(dortmundId, day, day)
+                .get(0);
+        assertThat(counter.getRole()).isEqualTo(Role.MANAGER);
+        assertThat(counter.getPendingCount()).isEqualTo(2);
+    }
+
+    private CapacityRule createRule(Role role, int maxConcurrent) {
+        CapacityRule rule = new CapacityRule();
+        rule.setRegionId(dortmundId);
+        rule.setRole(role);
+        rule.setAbsenceType(AbsenceType.VACATION);
+        rule.setMaxConcurrent(maxConcurrent);
+        return capacityRuleService.createRule(rule, "admin");
+    }
+
+    private void request(String username, LocalDate day) {
+        vacationService.createVacationRequest(new VacationRequestDTO(username, day, day, AbsenceType.VACATION,
+                null, null));
+    }
+
+    private int countedOn(LocalDate day) {
+        return absenceDayCounterRepository.findByRegionIdAndAbsenceDateBetween(dortmundId, day, day).stream()
+                .mapToInt(counter -> counter.getPendingCount() + counter.getApprovedCount())
+                .sum();
+    }
+}
@@ -0,0 +1,134 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.ChangeLogEntry;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.repository.ChangeLogEntryRepository;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Change feed high-water mark (out-of-order commits, rollbacks) and the compaction lock
+ */
+@SpringBootTest
+@DirtiesContext
+class ChangeLogServiceTest {
+
+    @Autowired
+    private ChangeLogService changeLogService;
+
+    @Autowired
+    private ChangeLogEntryRepository changeLogEntryRepository;
+
+    @Autowired
+    private SchedulerLockService schedulerLockService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private User user;
+    private long since;
+
+    @BeforeEach
+    void setUp() {
+        user = userRepository.findByUsername("max.mustermann").orElseThrow();
+        Long maxSeq = changeLogEntryRepository.findMaxSeq();
+        since = maxSeq != null ? maxSeq : 0;
+    }
+
+    @Test
+    void uncommittedEntryHoldsBackLaterEntries() throws Exception {
+        CountDownLatch written = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> slow = executor.submit(() -> transactionTemplate.executeWithoutResult(status -> {
+                changeLogService.recordUserChange("UPDATED", user, "slow");
+                written.countDown();
+                try {
+                    release.await(30, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }));
+            assertThat(written.await(10, TimeUnit.SECONDS)).isTrue();
+
+            record("fast");
+            assertThat(changes()).isEmpty();
+
+            release.countDown();
+            slow.get(10, TimeUnit.SECONDS);
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertThat(changes()).extracting(ChangeLogEntry::getChangedBy).containsExactly("slow", "fast");
+    }
+
+    @Test
+    void rolledBackEntryDoesNotStallFeed() {
+        transactionTemplate.executeWithoutResult(status -> {
+            changeLogService.recordUserChange("UPDATED", user, "rolled-back");
+            status.setRollbackOnly();
+        });
+        record("after-rollback");
+
+        assertThat(changes()).extracting(ChangeLogEntry::getChangedBy).containsExactly("after-rollback");
+    }
+
+    @Test
+    void manualCompactionWaitsForRunningCompaction() throws Exception {
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Boolean> nightly = executor.submit(() -> schedulerLockService.runLocked("change-log-compaction",
+                    Duration.ofMinutes(5), Duration.ZERO, () -> {
+                        running.countDown();
+                        try {
+                            release.await(30, TimeUnit.SECONDS);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    }));
+            assertThat(running.await(10, TimeUnit.SECONDS)).isTrue();
+
+            assertThatThrownBy(() -> changeLogService.compactNow()).isInstanceOf(IllegalStateException.class);
+
+            release.countDown();
+            assertThat(nightly.get(10, TimeUnit.SECONDS)).isTrue();
+        } finally {
+            release.countDown();
+            executor.shutdown();
+        }
+
+        assertThat(changeLogService.compactNow()).isGreaterThanOrEqualTo(0);
+    }
+
+    private void record(String changedBy) {
+        transactionTemplate.executeWithoutResult(status -> changeLogService.recordUserChange("UPDATED", user, changedBy));
+    }
+
+    private List<ChangeLogEntry> changes() {
+        return changeLogService.getChanges(since, ChangeLogService.MAX_PAGE_SIZE, null).getChanges();
+    }
+}
@@ -0,0 +1,140 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.UrlaubsplannerApplication;
+import com.adesso.urlaubsplanner.dto.VacationRequestDTO;
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.CapacityRule;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Two instances with the cluster profile on one shared (file-based) H2 database:
+ * invalidations over the cache_invalidations table and scheduler locks
+ */
+class ClusterInstancesTest {
+
+    private static final String EMPLOYEE = "max.mustermann";
+
+    @TempDir
+    static Path databaseDir;
+
+    private static ConfigurableApplicationContext instanceA;
+    private static ConfigurableApplicationContext instanceB;
+    private static long regionId;
+
+    @BeforeAll
+    static void startInstances() {
+        // A creates the schema and seeds the demo data, B joins the existing database
+        instanceA = start(true);
+        instanceB = start(false);
+        regionId = instanceA.getBean(UserRepository.class).findByUsername(EMPLOYEE).orElseThrow().getRegion().getId();
+    }
+
+    @AfterAll
+    static void stopInstances() {
+        if (instanceB != null) {
+            instanceB.close();
+        }
+        if (instanceA != null) {
+            instanceA.close();
+        }
+    }
+
+    @Test
+    void writeOnOneInstanceChangesETagsOnBoth() throws Exception {
+        DataVersionService versionsA = instanceA.getBean(DataVersionService.class);
+        DataVersionService versionsB = instanceB.getBean(DataVersionService.class);
+        String etagA = versionsA.getETag(regionId);
+        String etagB = versionsB.getETag(regionId);
+
+        LocalDate start = LocalDate.now().plusDays(60);
+        instanceA.getBean(VacationService.class).createVacationRequest(new VacationRequestDTO(EMPLOYEE, start, start,
+                AbsenceType.VACATION, null, null));
+
+        assertThat(versionsA.getETag(regionId)).isNotEqualTo(etagA);
+        awaitTrue(() -> !versionsB.getETag(regionId).equals(etagB));
+    }
+
+    @Test
+    void ruleChangeOnOneInstanceResetsRuleCacheOnOther() throws Exception {
+        CapacityRuleService rulesB = instanceB.getBean(CapacityRuleService.class);
+        // Warm B's rule cache before the change
+        assertThat(rulesB.getExcludedTypes(regionId)).doesNotContain(AbsenceType.BUSINESS_TRIP);
+
+        CapacityRule rule = new CapacityRule();
+        rule.setRegionId(regionId);
+        rule.setAbsenceType(AbsenceType.BUSINESS_TRIP);
+        rule.setCountsTowardsCapacity(false);
+        instanceA.getBean(CapacityRuleService.class).createRule(rule, "admin");
+
+        awaitTrue(() -> rulesB.getExcludedTypes(regionId).contains(AbsenceType.BUSINESS_TRIP));
+    }
+
+    @Test
+    void lockedJobRunsOnOneInstanceOnly() throws Exception {
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch go = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Boolean> onA = executor.submit(job(instanceA, go, runs));
+            Future<Boolean> onB = executor.submit(job(instanceB, go, runs));
+            go.countDown();
+
+            assertThat(List.of(onA.get(30, TimeUnit.SECONDS), onB.get(30, TimeUnit.SECONDS)))
+                    .containsExactlyInAnyOrder(true, false);
+        } finally {
+            go.countDown();
+            executor.shutdown();
+        }
+        assertThat(runs.get()).isEqualTo(1);
+    }
+
+    private static ConfigurableApplicationContext start(boolean seed) {
+        // Arguments, not builder properties: those are defaults that application-cluster.properties overrides
+        return new SpringApplicationBuilder(UrlaubsplannerApplication.class)
+                .profiles("cluster")
+                .run("--spring.datasource.url=jdbc:h2:file:" + databaseDir.resolve("urlaubsdb"),
+                        "--server.port=0",
+                        "--spring.jpa.show-sql=false",
+                        "--urlaubsplaner.cluster.poll-interval-ms=50",
+                        "--urlaubsplaner.demo-data.enabled=" + seed,
+                        "--urlaubsplaner.audit.archive-enabled=false");
+    }
+
+    private static Callable<Boolean> job(ConfigurableApplicationContext instance, CountDownLatch go, AtomicInteger runs) {
+        SchedulerLockService locks = instance.getBean(SchedulerLockService.class);
+        return () -> {
+            go.await(10, TimeUnit.SECONDS);
+            // Held for at least a minute, so the other instance cannot run it right after either
+            return locks.runLocked("cluster-test-job", Duration.ofMinutes(5), Duration.ofMinutes(1), runs::incrementAndGet);
+        };
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("condition met within 10 s").isLessThan(deadline);
+            Thread.sleep(50);
+        }
+    }
+}
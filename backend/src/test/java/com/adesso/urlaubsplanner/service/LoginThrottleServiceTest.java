@@ -0,0 +1,81 @@
+package com.adesso.urlaubsplanner.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.authentication.event.AuthenticationFailureBadCredentialsEvent;
+import org.springframework.security.authentication.event.AuthenticationSuccessEvent;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Login throttle: the username bucket across clients and the known-client allowance
+ */
+class LoginThrottleServiceTest {
+
+    private static final String USERNAME = "max.mustermann";
+    private static final String OWNER_IP = "10.0.0.99";
+
+    private LoginThrottleService loginThrottleService;
+
+    @BeforeEach
+    void setUp() {
+        loginThrottleService = new LoginThrottleService(new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(loginThrottleService, "enabled", true);
+        ReflectionTestUtils.setField(loginThrottleService, "userCapacity", 5);
+        ReflectionTestUtils.setField(loginThrottleService, "userRefillSeconds", 60L);
+        ReflectionTestUtils.setField(loginThrottleService, "ipCapacity", 50);
+        ReflectionTestUtils.setField(loginThrottleService, "ipRefillSeconds", 2L);
+        ReflectionTestUtils.setField(loginThrottleService, "knownClientCapacity", 10);
+        ReflectionTestUtils.setField(loginThrottleService, "knownClientRefillSeconds", 60L);
+        ReflectionTestUtils.setField(loginThrottleService, "knownClientTtlDays", 30L);
+        ReflectionTestUtils.setField(loginThrottleService, "maxTrackedKeys", 1000);
+        loginThrottleService.registerMeters();
+    }
+
+    @Test
+    void failuresFromManyClientsThrottleTheUsername() {
+        for (int i = 1; i <= 5; i++) {
+            loginThrottleService.onFailure(failure("10.0.0." + i));
+        }
+
+        assertThat(loginThrottleService.retryAfterSeconds(USERNAME, "10.0.0.6")).isPositive();
+        assertThat(loginThrottleService.retryAfterSeconds("sarah.mueller", "10.0.0.6")).isZero();
+    }
+
+    @Test
+    void knownClientKeepsItsOwnLargerAllowance() {
+        loginThrottleService.onSuccess(new AuthenticationSuccessEvent(token(OWNER_IP)));
+        for (int i = 1; i <= 5; i++) {
+            loginThrottleService.onFailure(failure("10.0.0." + i));
+        }
+
+        assertThat(loginThrottleService.retryAfterSeconds(USERNAME, "10.0.0.6")).isPositive();
+        assertThat(loginThrottleService.retryAfterSeconds(USERNAME, OWNER_IP)).isZero();
+
+        for (int i = 0; i < 9; i++) {
+            loginThrottleService.onFailure(failure(OWNER_IP));
+        }
+        assertThat(loginThrottleService.retryAfterSeconds(USERNAME, OWNER_IP)).isZero();
+        loginThrottleService.onFailure(failure(OWNER_IP));
+        assertThat(loginThrottleService.retryAfterSeconds(USERNAME, OWNER_IP)).isPositive();
+    }
+
+    private AuthenticationFailureBadCredentialsEvent failure(String clientIp) {
+        UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.unauthenticated(USERNAME, "wrong");
+        token.setDetails(new WebAuthenticationDetails(clientIp, null));
+        return new AuthenticationFailureBadCredentialsEvent(token, new BadCredentialsException("Bad credentials"));
+    }
+
+    private UsernamePasswordAuthenticationToken token(String clientIp) {
+        UsernamePasswordAuthenticationToken token = UsernamePasswordAuthenticationToken.authenticated(USERNAME, null, List.of());
+        token.setDetails(new WebAuthenticationDetails(clientIp, null));
+        return token;
+    }
+}
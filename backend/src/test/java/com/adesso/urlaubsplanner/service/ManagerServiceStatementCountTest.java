@@ -0,0 +1,114 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AbsenceType;
+import com.adesso.urlaubsplanner.model.Region;
+import com.adesso.urlaubsplanner.model.Role;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.model.VacationStatus;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+
+import java.time.LocalDate;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The team, calendar and statistics views must load a region with a fixed number of
+ * statements, independent of its headcount (no lazy region or per-user lookups)
+ */
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({ManagerService.class, RegionTaskExecutor.class})
+class ManagerServiceStatementCountTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 3, 2);
+
+    @Autowired
+    private ManagerService managerService;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private CapacityRuleService capacityRuleService;
+
+    @Test
+    void regionViewsUseConstantStatementCount() {
+        Region small = seedRegion("Small", 5);
+        Region large = seedRegion("Large", 50);
+
+        assertConstant(() -> managerService.computeTeamStatistics(small.getId()),
+                () -> managerService.computeTeamStatistics(large.getId()));
+        assertConstant(() -> managerService.computeTeamCalendar(small.getId(), START, START.plusMonths(1)),
+                () -> managerService.computeTeamCalendar(large.getId(), START, START.plusMonths(1)));
+        assertConstant(() -> managerService.computeDashboard(small.getId(), START, START.plusMonths(1)),
+                () -> managerService.computeDashboard(large.getId(), START, START.plusMonths(1)));
+    }
+
+    @Test
+    void allRegionViewsUseConstantStatementCount() {
+        seedRegion("North", 5);
+        long fewUsers = statementsOf(() -> managerService.computeTeamStatistics(VacationEventService.ALL_REGIONS));
+
+        seedRegion("South", 50);
+        long manyUsers = statementsOf(() -> managerService.computeTeamStatistics(VacationEventService.ALL_REGIONS));
+
+        assertThat(manyUsers).isEqualTo(fewUsers).isEqualTo(2);
+    }
+
+    private void assertConstant(Supplier<?> smallRegion, Supplier<?> largeRegion) {
+        long small = statementsOf(smallRegion);
+        long large = statementsOf(largeRegion);
+        assertThat(large).isEqualTo(small).isEqualTo(2);
+    }
+
+    /**
+     * Run a view on an empty persistence context and count the prepared statements
+     */
+    private long statementsOf(Supplier<?> view) {
+        entityManager.flush();
+        entityManager.clear();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        view.get();
+        return statistics.getPrepareStatementCount();
+    }
+
+    private Region seedRegion(String name, int employees) {
+        Region region = entityManager.persist(new Region(name, name));
+        for (int i = 0; i < employees; i++) {
+            User user = new User();
+            user.setUsername(name.toLowerCase() + i);
+            user.setPassword("{noop}secret");
+            user.setRole(Role.EMPLOYEE);
+            user.setFullName(name + " Employee " + i);
+            user.setRegion(region);
+            entityManager.persist(user);
+
+            entityManager.persist(request(user.getUsername(), START.plusDays(i % 20), VacationStatus.APPROVED));
+            entityManager.persist(request(user.getUsername(), START.plusDays(i % 20 + 5), VacationStatus.PENDING));
+        }
+        return region;
+    }
+
+    private VacationRequest request(String employee, LocalDate start, VacationStatus status) {
+        VacationRequest request = new VacationRequest();
+        request.setEmployeeName(employee);
+        request.setStartDate(start);
+        request.setEndDate(start.plusDays(2));
+        request.setStatus(status);
+        request.setAbsenceType(AbsenceType.VACATION);
+        return request;
+    }
+}
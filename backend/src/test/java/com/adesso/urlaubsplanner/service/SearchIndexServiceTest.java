@@ -0,0 +1,106 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.dto.SearchHitDTO;
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.adesso.urlaubsplanner.model.Region;
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationRequest;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import com.adesso.urlaubsplanner.repository.VacationRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Search index: audit regions after a user moved and compaction of replaced request documents
+ */
+class SearchIndexServiceTest {
+
+    private final UserRepository userRepository = mock(UserRepository.class);
+
+    private SearchIndexService searchIndexService;
+
+    @BeforeEach
+    void setUp() {
+        searchIndexService = new SearchIndexService(mock(AuditLogStore.class), mock(VacationRequestRepository.class),
+                userRepository, mock(PlatformTransactionManager.class), mock(InvalidationBus.class));
+        ReflectionTestUtils.setField(searchIndexService, "compactDeletedRatio", 0.3);
+        ReflectionTestUtils.setField(searchIndexService, "ready", true);
+    }
+
+    @Test
+    void auditsAfterRegionMoveAreIndexedUnderNewRegion() {
+        when(userRepository.findByUsername("max.mustermann")).thenReturn(Optional.of(userIn(1L)));
+        searchIndexService.indexAudit(audit(1L, "Urlaub genehmigt"));
+
+        when(userRepository.findByUsername("max.mustermann")).thenReturn(Optional.of(userIn(2L)));
+        searchIndexService.forgetUser("max.mustermann");
+        searchIndexService.indexAudit(audit(2L, "Urlaub genehmigt"));
+
+        assertThat(searchIndexService.search("genehmigt", SearchIndexService.AUDIT, null, 1L, null, null, 10).getHits())
+                .extracting(SearchHitDTO::getId).containsExactly(1L);
+        assertThat(searchIndexService.search("genehmigt", SearchIndexService.AUDIT, null, 2L, null, null, 10).getHits())
+                .extracting(SearchHitDTO::getId).containsExactly(2L);
+    }
+
+    @Test
+    void userChangesOnOtherInstancesResetCachedRegions() {
+        when(userRepository.findByUsername("max.mustermann")).thenReturn(Optional.of(userIn(1L)));
+        searchIndexService.indexAudit(audit(1L, "Urlaub genehmigt"));
+
+        when(userRepository.findByUsername("max.mustermann")).thenReturn(Optional.of(userIn(2L)));
+        searchIndexService.onRemoteInvalidation(new InvalidationBus.RemoteInvalidation(InvalidationBus.USERS, null, true));
+        searchIndexService.indexAudit(audit(2L, "Urlaub genehmigt"));
+
+        assertThat(searchIndexService.search("genehmigt", SearchIndexService.AUDIT, null, 2L, null, null, 10).getHits())
+                .extracting(SearchHitDTO::getId).containsExactly(2L);
+    }
+
+    @Test
+    void replacedRequestDocumentsAreCompacted() {
+        searchIndexService.indexRequest(request(2L, "anderer Antrag"), 1L);
+        for (int revision = 0; revision < 3000; revision++) {
+            searchIndexService.indexRequest(request(1L, "Familienfeier revision" + revision), 1L);
+        }
+
+        assertThat(searchIndexService.documentCount()).isLessThan(1500);
+        assertThat(searchIndexService.search("familienfeier", null, null, null, null, null, 10).getTotal()).isEqualTo(1L);
+        assertThat(searchIndexService.search("revision2999", null, null, null, null, null, 10).getHits())
+                .extracting(SearchHitDTO::getId).containsExactly(1L);
+        assertThat(searchIndexService.search("revision10", null, null, null, null, null, 10).getTotal()).isZero();
+        assertThat(searchIndexService.search("anderer", null, null, null, null, null, 10).getHits())
+                .extracting(SearchHitDTO::getId).containsExactly(2L);
+    }
+
+    private User userIn(Long regionId) {
+        Region region = new Region();
+        region.setId(regionId);
+        User user = new User();
+        user.setUsername("max.mustermann");
+        user.setRegion(region);
+        return user;
+    }
+
+    private AuditLog audit(Long id, String details) {
+        AuditLog entry = new AuditLog("APPROVE_REQUEST", "anna.wagner", "max.mustermann", 10L, details);
+        entry.setId(id);
+        entry.setTimestamp(LocalDateTime.now());
+        return entry;
+    }
+
+    private VacationRequest request(Long id, String notes) {
+        VacationRequest request = new VacationRequest();
+        request.setId(id);
+        request.setEmployeeName("max.mustermann");
+        request.setNotes(notes);
+        return request;
+    }
+}
@@ -0,0 +1,216 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.AuditLog;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Segment store: torn-tail recovery, failed batches, rolled back transactions and id lookups via the sparse index
+ */
+class SegmentFileAuditLogStoreTest {
+
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private final CountDownLatch blocked = new CountDownLatch(1);
+
+    // Blocks on "BLOCK" entries and fails on "BROKEN" entries so tests can shape the writer's batches
+    private final ObjectMapper objectMapper = new ObjectMapper() {
+        @Override
+        public byte[] writeValueAsBytes(Object value) throws JsonProcessingException {
+            String action = value instanceof AuditLog entry ? entry.getAction() : null;
+            if ("BLOCK".equals(action)) {
+                blocked.countDown();
+                try {
+                    unblock.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            if ("BROKEN".equals(action)) {
+                throw new JsonProcessingException("Cannot serialize") {
+                };
+            }
+            return super.writeValueAsBytes(value);
+        }
+    }.findAndRegisterModules();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path segmentDir;
+
+    private SegmentFileAuditLogStore store;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        store = open();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        unblock.countDown();
+        store.close();
+    }
+
+    @Test
+    void recoveryCutsOffTornTail() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            store.append(new AuditLog("LOGIN", "admin", "entry " + i));
+        }
+        store.close();
+        writeTornRecord();
+
+        store = open();
+        assertThat(store.findAll()).hasSize(3);
+        store.append(new AuditLog("LOGIN", "admin", "after recovery"));
+        store.close();
+
+        store = open();
+        assertThat(store.findAll()).extracting(AuditLog::getId).containsExactlyInAnyOrder(1L, 2L, 3L, 4L);
+    }
+
+    @Test
+    void failedBatchIsRolledBack() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try {
+            Future<?> first = executor.submit(() -> store.append(new AuditLog("BLOCK", "admin", "first batch")));
+            assertThat(blocked.await(10, TimeUnit.SECONDS)).isTrue();
+
+            // Both are queued while the writer is busy, so they end up in the same batch
+            Future<?> good = executor.submit(() -> store.append(new AuditLog("LOGIN", "admin", "same batch")));
+            Future<?> broken = executor.submit(() -> store.append(new AuditLog("BROKEN", "admin", "same batch")));
+            BlockingQueue<?> queue = (BlockingQueue<?>) ReflectionTestUtils.getField(store, "queue");
+            while (queue.size() < 2) {
+                Thread.sleep(10);
+            }
+            unblock.countDown();
+
+            first.get(10, TimeUnit.SECONDS);
+            assertThatThrownBy(() -> good.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+            assertThatThrownBy(() -> broken.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        } finally {
+            executor.shutdown();
+        }
+
+        store.append(new AuditLog("LOGIN", "admin", "after rollback"));
+        assertThat(store.findAll()).extracting(AuditLog::getDetails)
+                .containsExactlyInAnyOrder("first batch", "after rollback");
+        assertThat(meterRegistry.get("urlaubsplaner.audit.append.failures").counter().count()).isEqualTo(2);
+
+        store.close();
+        store = open();
+        assertThat(store.findAll()).extracting(AuditLog::getId).containsExactlyInAnyOrder(1L, 2L);
+    }
+
+    @Test
+    void entryOfRolledBackTransactionIsHidden() throws Exception {
+        inTransaction(new AuditLog("LOGIN", "admin", "committed"), TransactionSynchronization.STATUS_COMMITTED);
+        inTransaction(new AuditLog("LOGIN", "admin", "rolled back"), TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertThat(store.findAll()).extracting(AuditLog::getDetails).containsExactly("committed");
+        assertThat(store.findByAction(SegmentFileAuditLogStore.ROLLED_BACK)).isEmpty();
+        assertThat(store.findByIds(List.of(1L, 2L))).extracting(AuditLog::getId).containsExactly(1L);
+
+        store.close();
+        store = open();
+        assertThat(store.findAll()).extracting(AuditLog::getDetails).containsExactly("committed");
+    }
+
+    @Test
+    void findsIdsAcrossSparseIndexBlocks() {
+        for (int i = 1; i <= 150; i++) {
+            store.append(new AuditLog("LOGIN", "admin", "entry " + i));
+        }
+
+        List<AuditLog> found = store.findByIds(List.of(1L, 63L, 64L, 65L, 129L, 150L, 151L));
+
+        assertThat(found).extracting(AuditLog::getId).containsExactlyInAnyOrder(1L, 63L, 64L, 65L, 129L, 150L);
+        assertThat(found).allSatisfy(entry -> assertThat(entry.getDetails()).isEqualTo("entry " + entry.getId()));
+    }
+
+    @Test
+    void rejectsAppendsAfterClose() throws Exception {
+        store.close();
+
+        assertThatThrownBy(() -> store.append(new AuditLog("LOGIN", "admin", "too late")))
+                .isInstanceOf(IllegalStateException.class);
+        assertThat(meterRegistry.get("urlaubsplaner.audit.append.failures").counter().count()).isEqualTo(1);
+    }
+
+    private SegmentFileAuditLogStore open() throws IOException {
+        SegmentFileAuditLogStore opened = new SegmentFileAuditLogStore(objectMapper, meterRegistry);
+        ReflectionTestUtils.setField(opened, "segmentDir", segmentDir.toString());
+        ReflectionTestUtils.setField(opened, "segmentSizeMb", 1);
+        ReflectionTestUtils.setField(opened, "queueCapacity", 100);
+        ReflectionTestUtils.setField(opened, "commitTimeoutMillis", 5000L);
+        opened.open();
+        return opened;
+    }
+
+    private void inTransaction(AuditLog entry, int status) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            store.append(entry);
+            List<TransactionSynchronization> synchronizations =
+                    new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+            // A rolled back status here means the commit itself failed after the entry was written
+            synchronizations.forEach(synchronization -> synchronization.beforeCommit(false));
+            synchronizations.forEach(synchronization -> synchronization.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    /**
+     * A header promising a record that was never completely written
+     */
+    private void writeTornRecord() throws IOException {
+        Path segment;
+        try (Stream<Path> files = Files.list(segmentDir)) {
+            segment = files.filter(path -> path.getFileName().toString().endsWith(".log")).findFirst().orElseThrow();
+        }
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            ByteBuffer header = ByteBuffer.allocate(16);
+            int offset = 0;
+            while (true) {
+                header.clear();
+                channel.read(header, offset);
+                int length = header.getInt(0);
+                if (length == 0) {
+                    break;
+                }
+                offset += 16 + length;
+            }
+            ByteBuffer torn = ByteBuffer.allocate(16 + 10);
+            torn.putInt(200).putInt(0xDEAD).putLong(System.currentTimeMillis()).put("{\"id\":4,".getBytes());
+            torn.flip();
+            channel.write(torn, offset);
+        }
+    }
+}
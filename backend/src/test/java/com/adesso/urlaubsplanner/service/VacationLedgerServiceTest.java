@@ -0,0 +1,103 @@
+package com.adesso.urlaubsplanner.service;
+
+import com.adesso.urlaubsplanner.model.User;
+import com.adesso.urlaubsplanner.model.VacationBalance;
+import com.adesso.urlaubsplanner.repository.UserRepository;
+import com.adesso.urlaubsplanner.repository.VacationBalanceRepository;
+import com.adesso.urlaubsplanner.repository.VacationYearClosingRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Year rollover (previous year only, once) and booking of absences spanning New Year
+ */
+@SpringBootTest
+@DirtiesContext
+class VacationLedgerServiceTest {
+
+    private static final int CURRENT_YEAR = LocalDate.now().getYear();
+    private static final int PREVIOUS_YEAR = CURRENT_YEAR - 1;
+
+    @Autowired
+    private VacationLedgerService vacationLedgerService;
+
+    @Autowired
+    private VacationBalanceRepository vacationBalanceRepository;
+
+    @Autowired
+    private VacationYearClosingRepository vacationYearClosingRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void onlyPreviousYearCanBeClosed() {
+        assertThatThrownBy(() -> vacationLedgerService.rollover(PREVIOUS_YEAR - 1, "admin"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> vacationLedgerService.rollover(CURRENT_YEAR, "admin"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void closesPreviousYearOnce() {
+        VacationBalance previous = new VacationBalance("thomas.schmidt", PREVIOUS_YEAR, 30, 0);
+        previous.setUsedDays(27);
+        vacationBalanceRepository.save(previous);
+
+        assertThat(vacationLedgerService.rollover(PREVIOUS_YEAR, "admin")).isEqualTo((int) userRepository.count());
+
+        User user = userRepository.findByUsername("thomas.schmidt").orElseThrow();
+        assertThat(user.getCarriedOverDays()).isEqualTo(3);
+        assertThat(vacationBalanceRepository.findByUsernameAndYear("thomas.schmidt", CURRENT_YEAR).orElseThrow()
+                .getCarriedOverDays()).isEqualTo(3);
+        // Users without an entry for the closed year used no days in it
+        assertThat(vacationBalanceRepository.findByUsernameAndYear("peter.schneider", PREVIOUS_YEAR).orElseThrow()
+                .getUsedDays()).isZero();
+        assertThat(vacationYearClosingRepository.existsById(PREVIOUS_YEAR)).isTrue();
+
+        previous = vacationBalanceRepository.findByUsernameAndYear("thomas.schmidt", PREVIOUS_YEAR).orElseThrow();
+        previous.setUsedDays(20);
+        vacationBalanceRepository.save(previous);
+
+        assertThatThrownBy(() -> vacationLedgerService.rollover(PREVIOUS_YEAR, "admin"))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("already closed");
+        assertThat(userRepository.findByUsername("thomas.schmidt").orElseThrow().getCarriedOverDays()).isEqualTo(3);
+    }
+
+    @Test
+    void splitsAbsenceSpanningNewYear() {
+        int previousBefore = usedDays("lisa.weber", PREVIOUS_YEAR);
+        int currentBefore = usedDays("lisa.weber", CURRENT_YEAR);
+        int counterBefore = userRepository.findByUsername("lisa.weber").orElseThrow().getUsedVacationDays();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            User user = userRepository.findByUsername("lisa.weber").orElseThrow();
+            vacationLedgerService.recordApprovedDays(user,
+                    LocalDate.of(PREVIOUS_YEAR, 12, 29), LocalDate.of(CURRENT_YEAR, 1, 2));
+            userRepository.save(user);
+        });
+
+        assertThat(usedDays("lisa.weber", PREVIOUS_YEAR)).isEqualTo(previousBefore + 3);
+        assertThat(usedDays("lisa.weber", CURRENT_YEAR)).isEqualTo(currentBefore + 2);
+        assertThat(userRepository.findByUsername("lisa.weber").orElseThrow().getUsedVacationDays())
+                .isEqualTo(counterBefore + 2);
+    }
+
+    private int usedDays(String username, int year) {
+        return vacationBalanceRepository.findByUsernameAndYear(username, year)
+                .map(VacationBalance::getUsedDays)
+                .orElse(0);
+    }
+}
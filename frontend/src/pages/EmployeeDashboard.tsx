@@ -1,14 +1,14 @@
 import React, { useState, useEffect } from 'react';
 import { Calendar, Plus, TrendingUp } from 'lucide-react';
 import { useAuth } from '../context/AuthContext';
-import { vacationAPI } from '../services/api';
-import { VacationRequest, AbsenceType, AbsenceTypeLabels } from '../types';
+import { meAPI, vacationAPI } from '../services/api';
+import { EmployeeSelfService, AbsenceType, AbsenceTypeLabels } from '../types';
 import Navbar from '../components/Navbar';
 import VacationCard from '../components/VacationCard';
 
 const EmployeeDashboard: React.FC = () => {
   const { user } = useAuth();
-  const [requests, setRequests] = useState<VacationRequest[]>([]);
+  const [me, setMe] = useState<EmployeeSelfService | null>(null);
   const [loading, setLoading] = useState(true);
   const [showForm, setShowForm] = useState(false);
   const [formData, setFormData] = useState({
@@ -28,8 +28,8 @@ const EmployeeDashboard: React.FC = () => {
     if (!user) return;
     
     try {
-      const data = await vacationAPI.getRequestsByEmployee(user.username);
-      setRequests(data);
+      const data = await meAPI.get();
+      setMe(data);
     } catch (err) {
       console.error('Failed to load requests:', err);
     } finally {
@@ -61,8 +61,10 @@ const EmployeeDashboard: React.FC = () => {
     }
   };
 
-  const vacationPercentage = user
-    ? ((user.totalVacationDays - user.remainingVacationDays) / user.totalVacationDays) * 100
+  const requests = me?.history ?? [];
+  const balance = me ?? user;
+  const vacationPercentage = balance && balance.totalVacationDays > 0
+    ? (balance.usedVacationDays / balance.totalVacationDays) * 100
     : 0;
 
   return (
@@ -76,7 +78,7 @@ const EmployeeDashboard: React.FC = () => {
             <div className="flex items-center justify-between">
               <div>
                 <p className="text-primary-100 text-sm">Verfügbare Urlaubstage</p>
-                <p className="text-3xl font-bold mt-1">{user?.remainingVacationDays}</p>
+                <p className="text-3xl font-bold mt-1">{balance?.remainingVacationDays}</p>
               </div>
               <Calendar className="h-12 w-12 text-primary-200" />
             </div>
@@ -87,7 +89,7 @@ const EmployeeDashboard: React.FC = () => {
               <div>
                 <p className="text-gray-500 dark:text-gray-400 text-sm">Genutzte Tage</p>
                 <p className="text-3xl font-bold text-gray-900 dark:text-white mt-1">
-                  {user?.usedVacationDays}
+                  {balance?.usedVacationDays}
                 </p>
               </div>
               <TrendingUp className="h-12 w-12 text-primary-600 dark:text-primary-400" />
@@ -99,7 +101,7 @@ const EmployeeDashboard: React.FC = () => {
               <div>
                 <p className="text-gray-500 dark:text-gray-400 text-sm">Gesamt</p>
                 <p className="text-3xl font-bold text-gray-900 dark:text-white mt-1">
-                  {user?.totalVacationDays}
+                  {balance?.totalVacationDays}
                 </p>
               </div>
               <Calendar className="h-12 w-12 text-gray-400" />
@@ -119,7 +121,7 @@ const EmployeeDashboard: React.FC = () => {
             />
           </div>
           <p className="text-sm text-gray-600 dark:text-gray-400 mt-2">
-            {user?.usedVacationDays} von {user?.totalVacationDays} Tagen genutzt
+            {balance?.usedVacationDays} von {balance?.totalVacationDays} Tagen genutzt
           </p>
         </div>
 
@@ -20,29 +20,19 @@ const EnhancedManagerDashboard: React.FC = () => {
 
   useEffect(() => {
     loadData();
-  }, [activeTab, selectedMonth, selectedYear]);
+  }, [selectedMonth, selectedYear]);
 
+  // One round trip for all tabs; switching tabs does not refetch
   const loadData = async () => {
     setLoading(true);
     try {
-      if (activeTab === 'requests') {
-        const data = await vacationAPI.getAllRequests();
-        setRequests(data);
-      }
-      if (activeTab === 'statistics') {
-        const stats = await managerAPI.getTeamStatistics();
-        setTeamStats(stats);
-      }
-      if (activeTab === 'calendar') {
-        const firstDay = new Date(selectedYear, selectedMonth, 1).toISOString().split('T')[0];
-        const lastDay = new Date(selectedYear, selectedMonth + 1, 0).toISOString().split('T')[0];
-        const events = await managerAPI.getTeamCalendar(firstDay, lastDay);
-        setCalendarEvents(events);
-      }
-      if (activeTab === 'overload') {
-        const warnings = await managerAPI.getTeamOverloadWarnings();
-        setOverloadWarnings(warnings);
-      }
+      const firstDay = new Date(selectedYear, selectedMonth, 1).toISOString().split('T')[0];
+      const lastDay = new Date(selectedYear, selectedMonth + 1, 0).toISOString().split('T')[0];
+      const dashboard = await managerAPI.getDashboard(firstDay, lastDay);
+      setRequests(dashboard.requests);
+      setTeamStats(dashboard.statistics);
+      setCalendarEvents(dashboard.calendar);
+      setOverloadWarnings(dashboard.overloadWarnings);
     } catch (error) {
       console.error('Failed to load data:', error);
     } finally {
@@ -1,4 +1,4 @@
-import { LoginRequest, LoginResponse, VacationRequest, VacationRequestDTO, User, UserDTO, AuditLog, StatisticsDTO, Region, TeamStatistics, TeamCalendarEvent } from '../types';
+import { LoginRequest, LoginResponse, EmployeeSelfService, ManagerDashboard, VacationRequest, VacationRequestDTO, User, UserDTO, AuditLog, StatisticsDTO, Region, TeamStatistics, TeamCalendarEvent } from '../types';
 import axios from 'axios';
 
 const API_BASE_URL = 'http://localhost:8080/api';
@@ -35,6 +35,14 @@ export const authAPI = {
   },
 };
 
+// Self-service API (balance, open requests and history of the logged-in user)
+export const meAPI = {
+  get: async (page = 0, size = 20): Promise<EmployeeSelfService> => {
+    const response = await api.get<EmployeeSelfService>('/me', { params: { page, size } });
+    return response.data;
+  },
+};
+
 // Vacation API
 export const vacationAPI = {
   createRequest: async (data: VacationRequestDTO): Promise<VacationRequest> => {
@@ -156,6 +164,14 @@ export const managerAPI = {
     const response = await api.get<Record<string, number>>('/manager/team/overload');
     return response.data;
   },
+
+  getDashboard: async (startDate?: string, endDate?: string): Promise<ManagerDashboard> => {
+    const params = new URLSearchParams();
+    if (startDate) params.append('startDate', startDate);
+    if (endDate) params.append('endDate', endDate);
+    const response = await api.get<ManagerDashboard>(`/manager/dashboard?${params.toString()}`);
+    return response.data;
+  },
 };
 
 export default api;
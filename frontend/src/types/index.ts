@@ -67,6 +67,26 @@ export interface VacationRequest {
   daysRequested: number;
 }
 
+export interface EmployeeSelfService {
+  username: string;
+  fullName: string;
+  role: Role;
+  regionName?: string;
+  totalVacationDays: number;
+  carriedOverDays: number;
+  usedVacationDays: number;
+  remainingVacationDays: number;
+  pendingDays: number;
+  availableDays: number;
+  pendingRequests: VacationRequest[];
+  upcomingAbsences: VacationRequest[];
+  history: VacationRequest[];
+  page: number;
+  size: number;
+  totalElements: number;
+  totalPages: number;
+}
+
 export interface LoginRequest {
   username: string;
   password: string;
@@ -79,6 +99,7 @@ export interface LoginResponse {
   totalVacationDays: number;
   usedVacationDays: number;
   remainingVacationDays: number;
+  regionName: string | null;
   message: string;
 }
 
@@ -151,3 +172,12 @@ export interface StatisticsDTO {
   requestsByAbsenceType: Record<string, number>;
   requestsByMonth: Record<string, number>;
 }
+
+export interface ManagerDashboard {
+  regionKey: number;
+  requests: VacationRequest[];
+  team: User[];
+  statistics: TeamStatistics[];
+  calendar: TeamCalendarEvent[];
+  overloadWarnings: Record<string, number>;
+}